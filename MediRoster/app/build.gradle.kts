@@ -35,12 +35,14 @@ android {
 }
 
 dependencies {
+    implementation(project(":core"))
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.activity)
     implementation(libs.constraintlayout)
     implementation(libs.navigation.fragment)
     implementation(libs.navigation.ui)
+    implementation(libs.recyclerview)
 
     // Add CardView dependency
     implementation("androidx.cardview:cardview:1.0.0")
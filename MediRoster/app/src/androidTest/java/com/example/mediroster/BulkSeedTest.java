@@ -0,0 +1,60 @@
+package com.example.mediroster;
+
+import android.content.Context;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class BulkSeedTest {
+
+    private UserDatabaseHelper dbHelper;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dbHelper = new UserDatabaseHelper(context, null);
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+    }
+
+    @Test
+    public void freshDatabase_hasTheDemoStaff() {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        assertEquals(5, DatabaseUtils.queryNumEntries(db, "users", "role = 'admin'"));
+        assertEquals(25, DatabaseUtils.queryNumEntries(db, "users", "role = 'nurse'"));
+        assertEquals(10, DatabaseUtils.queryNumEntries(db, "operations"));
+        assertEquals("Alex", dbHelper.getDisplayName("nurse1"));
+    }
+
+    @Test
+    public void loadTestYear_seedsOnTopOfDemoData() {
+        long started = System.nanoTime();
+        long rows = dbHelper.seed(HospitalDataGenerator.Config.loadTest());
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        Log.i("BulkSeedTest", rows + " rows in " + millis + " ms");
+
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        assertEquals(5000, DatabaseUtils.queryNumEntries(db, "users", "role = 'nurse'"));
+        assertEquals(10, DatabaseUtils.queryNumEntries(db, "operations"));
+        long shifts = DatabaseUtils.queryNumEntries(db, "shifts");
+        assertTrue(shifts >= 365 && shifts <= 366);
+        assertEquals(shifts * 50 * 4, DatabaseUtils.queryNumEntries(db, "cases"));
+        assertEquals(DatabaseUtils.queryNumEntries(db, "assignments"),
+                DatabaseUtils.queryNumEntries(db, "nurse_schedule"));
+        assertFalse(dbHelper.getNurses().size() == 25); // reference cache was dropped
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.mediroster;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class CasePagingTest {
+
+    private static final int DAY = TimeCodec.toEpochDay("2026-01-15");
+    private static final int CASES = 125;
+    private static final int PAGE = 50;
+
+    private UserDatabaseHelper dbHelper;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dbHelper = new UserDatabaseHelper(context, null);
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+        ContentValues shift = new ContentValues();
+        shift.put("date", DAY);
+        shift.put("start_time", 0);
+        shift.put("end_time", 23 * 60);
+        long shiftId = db.insert("shifts", null, shift);
+
+        for (int i = 0; i < CASES; i++) {
+            ContentValues c = new ContentValues();
+            c.put("description", "Case " + i);
+            c.put("scheduled_shift_id", shiftId);
+            c.put("start_time", (i % 4) * 60); // many cases share a start time, so the id tiebreak matters
+            c.put("end_time", (i % 4 + 1) * 60);
+            db.insert("cases", null, c);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+    }
+
+    @Test
+    public void casesForDatePage_walksEveryCaseOnceInStartOrder() {
+        Set<Integer> seen = new HashSet<>();
+        CaseRow after = CaseRow.FIRST_PAGE;
+        int pages = 0;
+        while (true) {
+            List<CaseRow> page = dbHelper.getCasesForDatePage(DAY, after, PAGE);
+            pages++;
+            for (CaseRow row : page) {
+                assertTrue("out of order at case " + row.caseId, row.startMinute > after.startMinute
+                        || (row.startMinute == after.startMinute && row.caseId > after.caseId));
+                assertTrue("case repeated: " + row.caseId, seen.add(row.caseId));
+                after = row;
+            }
+            if (page.size() < PAGE) {
+                break;
+            }
+        }
+        assertEquals(CASES, seen.size());
+        assertEquals(3, pages);
+    }
+
+    @Test
+    public void recentCases_newestFirstAndBounded() {
+        List<Integer> ids = new ArrayList<>();
+        for (CaseSummary summary : dbHelper.getRecentCases(Integer.MAX_VALUE, 10)) {
+            ids.add(summary.caseId);
+        }
+
+        assertEquals(10, ids.size());
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i) < ids.get(i - 1));
+        }
+    }
+
+    @Test
+    public void smallCursorWindow_streamsTheSameRows() {
+        List<Integer> listed = new ArrayList<>();
+        for (CaseSummary summary : dbHelper.getCasesForDate(DAY)) {
+            listed.add(summary.caseId);
+        }
+
+        dbHelper.setCursorWindowBytes(4 * 1024); // a few dozen rows per window, so the walk refills it
+        List<Integer> streamed = new ArrayList<>();
+        int rows = dbHelper.forEachCaseOnDate(DAY, summary -> streamed.add(summary.caseId));
+
+        assertEquals(CASES, rows);
+        assertEquals(listed, streamed);
+        assertEquals(0, dbHelper.getMetrics().getOpenCursorCount());
+    }
+}
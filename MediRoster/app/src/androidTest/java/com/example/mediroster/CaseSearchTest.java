@@ -0,0 +1,123 @@
+package com.example.mediroster;
+
+import android.content.ContentValues;
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class CaseSearchTest {
+
+    private static final int DAY = TimeCodec.toEpochDay("2030-06-03"); // clear of the demo seed's days
+
+    private UserDatabaseHelper dbHelper;
+    private int shiftId;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dbHelper = new UserDatabaseHelper(context, null);
+
+        ContentValues shift = new ContentValues();
+        shift.put("date", DAY);
+        shift.put("start_time", 7 * 60);
+        shift.put("end_time", 19 * 60);
+        shiftId = (int) dbHelper.getWritableDatabase().insert("shifts", null, shift);
+
+        dbHelper.savePresence(DAY, Arrays.asList("nurse1", "nurse2"));
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+    }
+
+    @Test
+    public void prefixes_matchDescriptionAndOperation_bestMatchFirst() {
+        int both = (int) dbHelper.addCase("Zygomatic fracture", shiftId, 8 * 60, 9 * 60, "Zygomatic repair");
+        int one = (int) dbHelper.addCase("Zygomatic swelling", shiftId, 10 * 60, 11 * 60, "Drainage");
+
+        List<CaseSearchResult> found = dbHelper.searchCases("zyg REP", 10);
+
+        assertEquals(1, found.size()); // every word has to match somewhere
+        assertEquals(both, found.get(0).caseId);
+        assertEquals(DAY, found.get(0).day);
+        assertEquals(8 * 60, found.get(0).startMinute);
+
+        assertEquals(Arrays.asList(both, one), ids(dbHelper.searchCases("zygomatic", 10)));
+        assertTrue(dbHelper.searchCases("  ,, ", 10).isEmpty());
+    }
+
+    @Test
+    public void assignedNurses_areSearchableByName() {
+        int caseId = (int) dbHelper.addCase("Xanthoma excision", shiftId, 8 * 60, 9 * 60, "Excision");
+        dbHelper.autoAssignNursesToCase(caseId, DAY, 8 * 60, 9 * 60);
+        String nurse = dbHelper.getNursesAssignedToCase(caseId).get(0);
+
+        List<CaseSearchResult> found = dbHelper.searchCases("xanth " + nurse, 10);
+
+        assertEquals(Arrays.asList(caseId), ids(found));
+        assertTrue(found.get(0).nurseNames.contains(nurse));
+    }
+
+    @Test
+    public void editsAndDeletes_keepTheIndexInStep() {
+        int caseId = (int) dbHelper.addCase("Quinsy drainage", shiftId, 8 * 60, 9 * 60, "Drainage");
+        assertEquals(1, dbHelper.searchCases("quinsy", 10).size());
+
+        dbHelper.updateCase(caseId, "Peritonsillar abscess", shiftId, 1);
+        assertTrue(dbHelper.searchCases("quinsy", 10).isEmpty());
+        assertEquals(Arrays.asList(caseId), ids(dbHelper.searchCases("peritons", 10)));
+
+        dbHelper.deleteCase(caseId);
+        assertTrue(dbHelper.searchCases("peritons", 10).isEmpty());
+    }
+
+    @Test
+    public void rosterRebuild_refreshesNursesOnceAndRestoresTheTriggers() {
+        int caseId = (int) dbHelper.addCase("Xanthoma excision", shiftId, 8 * 60, 9 * 60, "Excision");
+        dbHelper.reassignAllCases(DAY);
+        String nurse = dbHelper.getNursesAssignedToCase(caseId).get(0);
+
+        assertEquals(Arrays.asList(caseId), ids(dbHelper.searchCases("xanth " + nurse, 10)));
+
+        int later = (int) dbHelper.addCase("Xanthelasma removal", shiftId, 10 * 60, 11 * 60, "Excision");
+        dbHelper.autoAssignNursesToCase(later, DAY, 10 * 60, 11 * 60); // indexed by the restored trigger
+        String laterNurse = dbHelper.getNursesAssignedToCase(later).get(0);
+        assertTrue(ids(dbHelper.searchCases("xanthel " + laterNurse, 10)).contains(later));
+    }
+
+    @Test
+    public void findCases_reachesAnyCaseByIdThenByWords() {
+        int caseId = (int) dbHelper.addCase("Zygomatic fracture", shiftId, 8 * 60, 9 * 60, "Repair");
+
+        List<CaseSummary> byId = dbHelper.findCases(String.valueOf(caseId), 10);
+        assertEquals(caseId, byId.get(0).caseId);
+        assertEquals("Zygomatic fracture", byId.get(0).description);
+
+        List<CaseSummary> byWord = dbHelper.findCases("zygo", 10);
+        assertEquals(1, byWord.size());
+        assertEquals(caseId, byWord.get(0).caseId);
+        assertTrue(dbHelper.findCases("999999999", 10).isEmpty());
+    }
+
+    private static List<Integer> ids(List<CaseSearchResult> results) {
+        List<Integer> ids = new ArrayList<>();
+        for (CaseSearchResult result : results) {
+            ids.add(result.caseId);
+        }
+        return ids;
+    }
+}
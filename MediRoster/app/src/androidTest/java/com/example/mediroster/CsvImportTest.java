@@ -0,0 +1,164 @@
+package com.example.mediroster;
+
+import android.content.Context;
+import android.database.DatabaseUtils;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class CsvImportTest {
+
+    private UserDatabaseHelper dbHelper;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dbHelper = new UserDatabaseHelper(context, null);
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+    }
+
+    @Test
+    public void shifts_overlapsWithExistingAndEarlierRowsAreRejected() throws IOException {
+        int day = TimeCodec.toEpochDay("2026-03-02");
+        dbHelper.insertShift(day, 6 * 60, 12 * 60);
+
+        ImportReport report = importCsv("date,start_time,end_time\n" +
+                "2026-03-02,11:00,15:00\n" +   // overlaps the existing shift
+                "2026-03-02,12:00,18:00\n" +
+                "2026-03-02,17:00,20:00\n" +   // overlaps the row above
+                "2026-03-02,19:00,07:00\n" +   // 18:00 overnight is free
+                "2026-13-01,07:00,19:00\n");
+
+        assertEquals("shifts", report.getKind());
+        assertEquals(2, report.getImported());
+        assertEquals(3, report.getRejected());
+        assertTrue(report.getErrors().get(0).startsWith("Line 2: Shift overlaps"));
+        assertTrue(report.getErrors().get(2).startsWith("Line 6: Invalid date"));
+        assertTrue(dbHelper.shiftOverlaps(day, 12 * 60, 13 * 60)); // cached index reloaded with the imported rows
+        assertEquals(3, DatabaseUtils.queryNumEntries(dbHelper.getReadableDatabase(), "shifts"));
+    }
+
+    @Test
+    public void cases_mustFitInsideAShiftAndNameAKnownOperation() throws IOException {
+        int day = TimeCodec.toEpochDay("2026-03-02");
+        dbHelper.insertShift(day, 7 * 60, 19 * 60);
+
+        ImportReport report = importCsv("operation,date,start_time,end_time,description,required_nurses\n" +
+                "Appendectomy,2026-03-02,08:00,10:00,\"OR 1, block A\",2\n" +
+                "Appendectomy,2026-03-02,18:00,20:00,Runs past the shift,1\n" +
+                "Teleportation,2026-03-02,09:00,10:00,Not on the list,1\n" +
+                "Hernia Repair,2026-03-02,10:00,11:00,Default count,\n");
+
+        assertEquals(2, report.getImported());
+        assertEquals(2, report.getRejected());
+        assertEquals("Line 3: Case must be within a shift on 2026-03-02", report.getErrors().get(0));
+        assertEquals("Line 4: Unknown operation Teleportation", report.getErrors().get(1));
+        assertEquals(2, DatabaseUtils.longForQuery(dbHelper.getReadableDatabase(),
+                "SELECT required_nurses FROM cases WHERE description = 'OR 1, block A'", null));
+    }
+
+    @Test
+    public void cases_afterMidnightLandInTheOvernightShift() throws IOException {
+        int day = TimeCodec.toEpochDay("2026-03-02");
+        dbHelper.insertShift(day, 22 * 60, 30 * 60);
+        long shiftId = DatabaseUtils.longForQuery(dbHelper.getReadableDatabase(),
+                "SELECT shift_id FROM shifts WHERE date = " + day, null);
+
+        ImportReport report = importCsv("operation,date,start_time,end_time,description\n" +
+                "Appendectomy,2026-03-02,23:00,01:00,Over midnight\n" +
+                "Appendectomy,2026-03-02,02:00+1,03:00,As AddCasePage shows it\n" +
+                "Appendectomy,2026-03-03,04:00,05:00,On the calendar day\n" +
+                "Appendectomy,2026-03-03,07:00,08:00,After the shift ends\n");
+
+        assertEquals(report.getErrors().toString(), 3, report.getImported());
+        assertEquals("Line 5: Case must be within a shift on 2026-03-03", report.getErrors().get(0));
+        assertEquals(3, DatabaseUtils.longForQuery(dbHelper.getReadableDatabase(),
+                "SELECT COUNT(*) FROM cases WHERE scheduled_shift_id = " + shiftId, null));
+        assertEquals(26 * 60, DatabaseUtils.longForQuery(dbHelper.getReadableDatabase(),
+                "SELECT start_time FROM cases WHERE description = 'As AddCasePage shows it'", null));
+        assertEquals(29 * 60, DatabaseUtils.longForQuery(dbHelper.getReadableDatabase(),
+                "SELECT end_time FROM cases WHERE description = 'On the calendar day'", null));
+    }
+
+    @Test
+    public void nurses_duplicatesAreReported() throws IOException {
+        ImportReport report = importCsv("username,display_name,password\n" +
+                "nurse1,Alex,nursepass\n" +
+                "nurse900,Sam,secret\n");
+
+        assertEquals(1, report.getImported());
+        assertEquals("Line 2: User nurse1 already exists", report.getErrors().get(0));
+        assertNotNull(dbHelper.login("nurse900", "secret"));
+    }
+
+    @Test
+    public void monthOfBlocks_streamsInBatches() throws IOException {
+        int first = TimeCodec.toEpochDay("2026-04-01");
+        for (int day = first; day < first + 30; day++) {
+            dbHelper.insertShift(day, 0, 23 * 60 + 59);
+        }
+        int rows = 30_000;
+        ImportReport report = new CsvImporter(dbHelper).importCsv(new BufferedReader(new CaseBlocks(first, rows)));
+
+        assertEquals(rows, report.getImported());
+        assertEquals(rows, DatabaseUtils.queryNumEntries(dbHelper.getReadableDatabase(), "cases"));
+    }
+
+    private ImportReport importCsv(String csv) throws IOException {
+        return new CsvImporter(dbHelper).importCsv(new StringReader(csv));
+    }
+
+    /** Produces case rows on demand, so the test never holds the whole file either. */
+    private static class CaseBlocks extends Reader {
+        private final int firstDay;
+        private final int rows;
+        private int row = -1; // -1 is the header
+        private String line = "";
+        private int position;
+
+        CaseBlocks(int firstDay, int rows) {
+            this.firstDay = firstDay;
+            this.rows = rows;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == line.length()) {
+                if (row == rows) {
+                    return -1;
+                }
+                line = row < 0 ? "date,start_time,end_time,operation,description\n"
+                        : TimeCodec.formatDate(firstDay + row % 30) + "," +
+                        TimeCodec.formatMinuteOfDay(row % 23 * 60) + "," +
+                        TimeCodec.formatMinuteOfDay(row % 23 * 60 + 60) + ",Hernia Repair,Block " + row + "\n";
+                row++;
+                position = 0;
+            }
+            int count = Math.min(length, line.length() - position);
+            line.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
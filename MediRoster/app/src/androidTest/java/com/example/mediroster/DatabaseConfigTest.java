@@ -0,0 +1,57 @@
+package com.example.mediroster;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class DatabaseConfigTest {
+
+    @Test
+    public void helperIsSharedAcrossContexts() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        assertSame(UserDatabaseHelper.getInstance(context),
+                UserDatabaseHelper.getInstance(context.getApplicationContext()));
+    }
+
+    @Test
+    public void connectionUsesWalAndNormalSync() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        SQLiteDatabase db = UserDatabaseHelper.getInstance(context).getWritableDatabase();
+
+        assertTrue(db.isWriteAheadLoggingEnabled());
+        assertEquals("wal", pragma(db, "journal_mode").toLowerCase());
+        assertEquals("1", pragma(db, "synchronous")); // NORMAL
+    }
+
+    @Test
+    public void pageCacheIsSetOnThePrimaryConnection() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        SQLiteDatabase db = UserDatabaseHelper.getInstance(context).getWritableDatabase();
+
+        db.beginTransaction(); // a transaction runs on the primary connection, where onConfigure ran
+        try {
+            assertEquals(String.valueOf(-UserDatabaseHelper.PAGE_CACHE_KIB), pragma(db, "cache_size"));
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private static String pragma(SQLiteDatabase db, String name) {
+        Cursor cursor = db.rawQuery("PRAGMA " + name, null);
+        try {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getString(0);
+        } finally {
+            cursor.close();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.mediroster;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class DayCoverageTest {
+
+    private static final int DAY = TimeCodec.toEpochDay("2030-06-03"); // clear of the demo seed's days
+
+    private UserDatabaseHelper dbHelper;
+    private int shiftId;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dbHelper = new UserDatabaseHelper(context, null);
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+        ContentValues shift = new ContentValues();
+        shift.put("date", DAY);
+        shift.put("start_time", 7 * 60);
+        shift.put("end_time", 19 * 60);
+        shiftId = (int) db.insert("shifts", null, shift);
+
+        dbHelper.savePresence(DAY, Arrays.asList("nurse1", "nurse2"));
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+    }
+
+    @Test
+    public void coverage_countsNursesAndPutsShortCasesFirst() {
+        int staffed = addCase("Knee", 8 * 60, 10 * 60, 2);
+        dbHelper.autoAssignNursesToCase(staffed, DAY, 8 * 60, 10 * 60);
+        int hip = addCase("Hip", 9 * 60, 11 * 60, 2); // both nurses are on the knee by then
+        dbHelper.autoAssignNursesToCase(hip, DAY, 9 * 60, 11 * 60);
+        int noCount = (int) dbHelper.addCase("Biopsy", shiftId, 12 * 60, 13 * 60, "Biopsy");
+
+        List<CaseCoverage> coverage = dbHelper.getDayCoverage(DAY);
+
+        assertEquals(3, coverage.size());
+        assertEquals(hip, coverage.get(0).caseId);
+        assertEquals(2, coverage.get(0).getGap());
+        assertEquals("", coverage.get(0).nurseNames);
+
+        assertEquals(noCount, coverage.get(1).caseId); // stored without a count, so it needs one nurse
+        assertEquals(1, coverage.get(1).requiredNurses);
+        assertEquals(1, coverage.get(1).getGap());
+
+        CaseCoverage knee = coverage.get(2);
+        assertEquals(staffed, knee.caseId);
+        assertEquals(2, knee.assignedNurses);
+        assertEquals(0, knee.getGap());
+        assertEquals(2, knee.nurseNames.split(", ").length);
+        assertEquals(1, dbHelper.getMetrics().getStats("getDayCoverage").getCalls());
+    }
+
+    @Test
+    public void caseCoverage_readsEveryRequestedCaseInOneQuery() {
+        int knee = addCase("Knee", 8 * 60, 10 * 60, 1);
+        dbHelper.autoAssignNursesToCase(knee, DAY, 8 * 60, 10 * 60);
+        int hip = addCase("Hip", 11 * 60, 12 * 60, 1);
+
+        List<CaseCoverage> coverage = dbHelper.getCaseCoverage(DAY, Arrays.asList(knee, hip, hip + 1000));
+
+        assertEquals(2, coverage.size()); // the unknown id has no row
+        for (CaseCoverage row : coverage) {
+            assertEquals(row.caseId == knee ? 1 : 0, row.assignedNurses);
+        }
+        assertEquals(1, dbHelper.getMetrics().getStats("getCaseCoverage").getCalls());
+    }
+
+    @Test
+    public void isAssignedToAnyOn_looksOnlyAtTheNursesCasesThatDay() {
+        int knee = addCase("Knee", 8 * 60, 10 * 60, 2);
+        dbHelper.autoAssignNursesToCase(knee, DAY, 8 * 60, 10 * 60);
+        int hip = addCase("Hip", 11 * 60, 12 * 60, 1);
+
+        assertTrue(dbHelper.isAssignedToAnyOn("nurse1", DAY, Arrays.asList(hip, knee)));
+        assertFalse(dbHelper.isAssignedToAnyOn("nurse1", DAY, Arrays.asList(hip, hip + 1000)));
+        assertFalse(dbHelper.isAssignedToAnyOn("nurse1", DAY + 1, Arrays.asList(knee)));
+    }
+
+    private int addCase(String description, int start, int end, int requiredNurses) {
+        int caseId = (int) dbHelper.addCase(description, shiftId, start, end, description);
+        ContentValues required = new ContentValues();
+        required.put("required_nurses", requiredNurses);
+        dbHelper.getWritableDatabase().update("cases", required, "case_id = ?", new String[]{String.valueOf(caseId)});
+        return caseId;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.mediroster;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class HelperMetricsTest {
+
+    private static final int DAY = TimeCodec.toEpochDay("2026-01-15");
+
+    private UserDatabaseHelper dbHelper;
+    private HelperMetrics metrics;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dbHelper = new UserDatabaseHelper(context, null);
+        metrics = dbHelper.getMetrics();
+        assertTrue(dbHelper.insertShift(DAY, 8 * 60, 16 * 60));
+        metrics.reset();
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+    }
+
+    @Test
+    public void queriesAndWrites_countCallsAndRows() {
+        int shiftId = dbHelper.getRecentShifts().get(0).shiftId;
+        dbHelper.addCase("Appendectomy", shiftId, 9 * 60, 10 * 60, "General");
+        dbHelper.addCase("Hip replacement", shiftId, 11 * 60, 13 * 60, "Orthopedic");
+
+        assertEquals(2, dbHelper.getCasesForDate(DAY).size());
+
+        assertEquals(2, metrics.getStats("addCase").getCalls());
+        assertEquals(2, metrics.getStats("addCase").getRows());
+        assertEquals(1, metrics.getStats("getCasesForDate").getCalls());
+        assertEquals(2, metrics.getStats("getCasesForDate").getRows());
+        assertTrue(metrics.getStats("getCasesForDate").getMaxNanos() > 0);
+        assertNull(metrics.getStats("getCaseById"));
+        assertEquals(0, metrics.getOpenCursorCount());
+    }
+
+    @Test
+    public void zeroThreshold_logsEveryCallWithItsSql() {
+        metrics.setSlowThresholdMillis(0);
+
+        dbHelper.getShiftById(1);
+
+        List<HelperMetrics.SlowCall> slow = metrics.getSlowCalls();
+        assertEquals(1, slow.size());
+        assertEquals("getShiftById", slow.get(0).method);
+        assertEquals(UserDatabaseHelper.SQL_SHIFT_BY_ID, slow.get(0).sql);
+        assertTrue(metrics.report().contains("getShiftById"));
+    }
+
+    @Test
+    public void unclosedCursor_isReportedOnceCollected() throws InterruptedException {
+        openAndDrop();
+        assertEquals(1, metrics.getOpenCursorCount());
+
+        for (int attempt = 0; attempt < 20 && metrics.getLeakedCursors().isEmpty(); attempt++) {
+            Runtime.getRuntime().gc();
+            Thread.sleep(50);
+        }
+
+        assertEquals(Integer.valueOf(1), metrics.getLeakedCursors().get("leakTest"));
+        assertEquals(0, metrics.getOpenCursorCount());
+    }
+
+    private void openAndDrop() {
+        dbHelper.query("leakTest", dbHelper.getReadableDatabase(), UserDatabaseHelper.SQL_CASE_BY_ID,
+                new String[]{"1"}); // never closed
+    }
+}
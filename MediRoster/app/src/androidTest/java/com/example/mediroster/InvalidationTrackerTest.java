@@ -0,0 +1,119 @@
+package com.example.mediroster;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class InvalidationTrackerTest {
+
+    private static final int DAY = TimeCodec.toEpochDay("2030-06-03"); // clear of the demo seed's days
+
+    private UserDatabaseHelper dbHelper;
+    private int shiftId;
+    private final List<InvalidationTracker.ChangeSet> caseChanges = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dbHelper = new UserDatabaseHelper(context, null);
+
+        ContentValues shift = new ContentValues();
+        shift.put("date", DAY);
+        shift.put("start_time", 7 * 60);
+        shift.put("end_time", 19 * 60);
+        shiftId = (int) dbHelper.getWritableDatabase().insert("shifts", null, shift);
+        dbHelper.savePresence(DAY, Arrays.asList("nurse1", "nurse2"));
+        dbHelper.publishChanges(); // start from a clean slate
+
+        dbHelper.getInvalidationTracker().addObserver(caseChanges::add, Runnable::run,
+                InvalidationTracker.CASES, InvalidationTracker.ASSIGNMENTS);
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+    }
+
+    @Test
+    public void committedWrites_arePublishedOnceWithTheirIds() {
+        int first = (int) dbHelper.addCase("Knee", shiftId, 8 * 60, 9 * 60, "Knee");
+        int second = (int) dbHelper.addCase("Hip", shiftId, 10 * 60, 11 * 60, "Hip");
+        dbHelper.autoAssignNursesToCase(first, DAY, 8 * 60, 9 * 60);
+
+        InvalidationTracker.ChangeSet published = dbHelper.publishChanges();
+
+        assertEquals(new HashSet<>(Arrays.asList(first, second)), published.getIds(InvalidationTracker.CASES));
+        assertEquals(Collections.singleton(first), published.getIds(InvalidationTracker.ASSIGNMENTS));
+        assertFalse(published.contains(InvalidationTracker.SHIFTS));
+        assertEquals(1, caseChanges.size());
+        assertFalse(caseChanges.get(0).isWholeTable(InvalidationTracker.CASES));
+
+        assertTrue(dbHelper.publishChanges().isEmpty());
+        assertEquals(1, caseChanges.size());
+    }
+
+    @Test
+    public void rolledBackWrites_areNeverPublished() {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            dbHelper.addCase("Knee", shiftId, 8 * 60, 9 * 60, "Knee");
+        } finally {
+            db.endTransaction(); // not marked successful
+        }
+
+        assertTrue(dbHelper.publishChanges().isEmpty());
+        assertTrue(caseChanges.isEmpty());
+    }
+
+    @Test
+    public void openTransaction_holdsChangesUntilCommitted() {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        int caseId;
+        db.beginTransaction();
+        try {
+            caseId = (int) dbHelper.addCase("Knee", shiftId, 8 * 60, 9 * 60, "Knee");
+            assertTrue(dbHelper.publishChanges().isEmpty());
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+
+        assertEquals(Collections.singleton(caseId), dbHelper.publishChanges().getIds(InvalidationTracker.CASES));
+    }
+
+    @Test
+    public void observersOnlyHearTheirTables() {
+        List<InvalidationTracker.ChangeSet> shiftChanges = new ArrayList<>();
+        InvalidationTracker.Observer shifts = shiftChanges::add;
+        dbHelper.getInvalidationTracker().addObserver(shifts, Runnable::run, InvalidationTracker.SHIFTS);
+
+        dbHelper.insertShift(DAY + 1, 7 * 60, 19 * 60);
+        dbHelper.publishChanges();
+
+        assertEquals(1, shiftChanges.size());
+        assertTrue(caseChanges.isEmpty());
+
+        dbHelper.getInvalidationTracker().removeObserver(shifts);
+        dbHelper.insertShift(DAY + 2, 7 * 60, 19 * 60);
+        dbHelper.publishChanges();
+        assertEquals(1, shiftChanges.size());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.mediroster;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class LoginSessionTest {
+
+    private UserDatabaseHelper dbHelper;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dbHelper = new UserDatabaseHelper(context, null);
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+    }
+
+    @Test
+    public void login_returnsRoleAndDisplayNameInOneCall() {
+        Session session = dbHelper.login("nurse1", "nursepass");
+        assertNotNull(session);
+        assertEquals("nurse1", session.username);
+        assertTrue(session.isNurse());
+        assertEquals("Alex", session.displayName);
+    }
+
+    @Test
+    public void login_wrongPasswordGivesNoSession() {
+        assertNull(dbHelper.login("admin1", "nursepass"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.mediroster;
+
+import android.app.Activity;
+import android.app.Instrumentation;
+import android.content.Intent;
+import android.os.Build;
+import android.os.StrictMode;
+import android.os.strictmode.Violation;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Opens every screen under a StrictMode disk policy and fails if SQLite touches disk on the main thread.
+ * Other framework reads (fonts, shared prefs) are ignored; only violations with android.database frames count.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MainThreadDiskAccessTest {
+
+    private static final Class<?>[] SCREENS = {
+            LoginPage.class, HomePage.class, AddCasePage.class, AddEditShiftPage.class, CheckInPage.class,
+            EditCasePage.class, ViewCasesPage.class, MyShiftsPage.class, ViewCaseDetailsPage.class,
+            SearchCasesPage.class, ImportCsvPage.class, ExportRosterPage.class, DiagnosticsPage.class
+    };
+    // A callback can queue one more call, e.g. EditCasePage's case list selecting a case and loading it
+    private static final int SETTLE_ROUNDS = 3;
+
+    private final List<String> violations = new CopyOnWriteArrayList<>();
+    private Instrumentation instrumentation;
+    private RosterRepository repository;
+    private StrictMode.ThreadPolicy previousPolicy;
+
+    @Before
+    public void setUp() {
+        assumeTrue("penaltyListener needs API 28", Build.VERSION.SDK_INT >= Build.VERSION_CODES.P);
+        instrumentation = InstrumentationRegistry.getInstrumentation();
+        repository = RosterRepository.getInstance(instrumentation.getTargetContext());
+        Session.signIn(new Session("admin1", "admin", "Admin 1"));
+        instrumentation.runOnMainSync(() -> {
+            previousPolicy = StrictMode.getThreadPolicy();
+            StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                    .detectDiskReads()
+                    .detectDiskWrites()
+                    .penaltyListener(Runnable::run, this::record)
+                    .build());
+        });
+    }
+
+    @After
+    public void tearDown() {
+        Session.signOut();
+        if (previousPolicy != null) {
+            instrumentation.runOnMainSync(() -> StrictMode.setThreadPolicy(previousPolicy));
+        }
+    }
+
+    @Test
+    public void screensDoNotTouchDatabaseOnMainThread() throws Exception {
+        for (Class<?> screen : SCREENS) {
+            launch(screen);
+        }
+        assertTrue("Main-thread disk access:\n" + String.join("\n", violations), violations.isEmpty());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void launch(Class<?> screen) throws Exception {
+        Intent intent = new Intent(instrumentation.getTargetContext(), screen)
+                .putExtra("case_id", 1);
+        try (ActivityScenario<Activity> ignored = ActivityScenario.launch(intent)) {
+            for (int round = 0; round < SETTLE_ROUNDS; round++) {
+                repository.awaitIdle(5, TimeUnit.SECONDS); // queued database calls have posted their callbacks
+                instrumentation.waitForIdleSync();           // and the main thread has run them
+            }
+        }
+    }
+
+    private void record(Violation violation) {
+        for (StackTraceElement frame : violation.getStackTrace()) {
+            if (frame.getClassName().startsWith("android.database")) {
+                violations.add(violation.getClass().getSimpleName() + " at " + frame);
+                return;
+            }
+        }
+    }
+}
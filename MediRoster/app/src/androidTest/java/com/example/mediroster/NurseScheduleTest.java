@@ -0,0 +1,73 @@
+package com.example.mediroster;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * nurse_schedule must follow every write path that touches assignments or cases.
+ */
+@RunWith(AndroidJUnit4.class)
+public class NurseScheduleTest {
+
+    private static final int DAY = TimeCodec.toEpochDay("2026-01-15");
+
+    private UserDatabaseHelper dbHelper;
+    private int shiftId;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dbHelper = new UserDatabaseHelper(context, null);
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+        ContentValues shift = new ContentValues();
+        shift.put("date", DAY);
+        shift.put("start_time", 7 * 60);
+        shift.put("end_time", 19 * 60);
+        shiftId = (int) db.insert("shifts", null, shift);
+
+        dbHelper.savePresence(DAY, Collections.singletonList("nurse1"));
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+    }
+
+    @Test
+    public void schedule_followsAssignUpdateAndDelete() {
+        int caseId = (int) dbHelper.addCase("Knee", shiftId, 8 * 60, 10 * 60, "Knee Replacement");
+        dbHelper.autoAssignNursesToCase(caseId, DAY, 8 * 60, 10 * 60);
+
+        List<ScheduleAdapter.Entry> entries = schedule("nurse1");
+        assertEquals(1, entries.size());
+        assertEquals("Knee", entries.get(0).description);
+
+        dbHelper.updateCase(caseId, "Knee, left", shiftId, 1);
+        assertEquals("Knee, left", schedule("nurse1").get(0).description);
+
+        dbHelper.reassignAllCases(DAY); // clears and rebuilds the day's assignments
+        assertEquals(1, schedule("nurse1").size());
+
+        dbHelper.deleteCase(caseId);
+        assertTrue(schedule("nurse1").isEmpty());
+    }
+
+    private List<ScheduleAdapter.Entry> schedule(String username) {
+        return dbHelper.getNurseSchedule(username, DAY);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.mediroster;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs EXPLAIN QUERY PLAN on every SQL_* query in UserDatabaseHelper and fails on any table scan.
+ * Full-text queries pass when they are driven by the FTS index.
+ */
+@RunWith(AndroidJUnit4.class)
+public class QueryPlanTest {
+
+    private UserDatabaseHelper dbHelper;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dbHelper = new UserDatabaseHelper(context, null);
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+    }
+
+    @Test
+    public void helperQueries_neverScanATable() throws IllegalAccessException {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        List<String> scans = new ArrayList<>();
+        int checked = 0;
+
+        for (Field field : UserDatabaseHelper.class.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) || !field.getName().startsWith("SQL_")) {
+                continue;
+            }
+            field.setAccessible(true);
+            String sql = (String) field.get(null);
+
+            Cursor plan = db.rawQuery("EXPLAIN QUERY PLAN " + sql, placeholderArgs(sql));
+            int detail = plan.getColumnIndexOrThrow("detail");
+            while (plan.moveToNext()) {
+                if (isTableScan(plan.getString(detail))) {
+                    scans.add(field.getName() + ": " + plan.getString(detail));
+                }
+            }
+            plan.close();
+            checked++;
+        }
+
+        assertTrue("no SQL_ queries found", checked > 0);
+        assertTrue("table scans found:\n" + String.join("\n", scans), scans.isEmpty());
+    }
+
+    // A full-text MATCH shows as "SCAN ... VIRTUAL TABLE INDEX n:"; only index 0 walks every row
+    private static boolean isTableScan(String detail) {
+        return detail.startsWith("SCAN") && (!detail.contains("VIRTUAL TABLE INDEX") || detail.contains("INDEX 0:"));
+    }
+
+    private static String[] placeholderArgs(String sql) {
+        int count = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') {
+                count++;
+            }
+        }
+        String[] args = new String[count];
+        Arrays.fill(args, "0");
+        return args;
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.mediroster;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Regression test for the bulk reassignment path at 1,000 cases.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ReassignAllCasesTest {
+
+    private static final int DAY = TimeCodec.toEpochDay("2026-01-15");
+    private static final int CASES = 1000;
+    private static final int NURSES = 300;
+
+    private UserDatabaseHelper dbHelper;
+    private long shiftId;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dbHelper = new UserDatabaseHelper(context, null);
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+        db.beginTransaction();
+        try {
+            ContentValues shift = new ContentValues();
+            shift.put("date", DAY);
+            shift.put("start_time", 0);
+            shift.put("end_time", 23 * 60);
+            shiftId = db.insert("shifts", null, shift);
+
+            for (int i = 0; i < NURSES; i++) {
+                ContentValues nurse = new ContentValues();
+                nurse.put("username", "bulk" + i);
+                nurse.put("role", "nurse");
+                db.insert("users", null, nurse);
+
+                ContentValues present = new ContentValues();
+                present.put("username", "bulk" + i);
+                present.put("date", DAY);
+                db.insert("presence", null, present);
+            }
+            addCases(db, CASES);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private void addCases(SQLiteDatabase db, int count) {
+        for (int i = 0; i < count; i++) {
+            int startHour = i % 22;
+            ContentValues c = new ContentValues();
+            c.put("description", "Case " + i);
+            c.put("required_nurses", 1 + i % 3);
+            c.put("scheduled_shift_id", shiftId);
+            c.put("start_time", startHour * 60);
+            c.put("end_time", (startHour + 1) * 60);
+            db.insert("cases", null, c);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+    }
+
+    @Test
+    public void reassignAllCases_thousandCases_oneStatementPerAssignment() {
+        dbHelper.reassignAllCases(DAY); // first pass fills an empty day
+        BulkWriteResult result = dbHelper.reassignAllCases(DAY); // second pass must clear and rebuild
+
+        Log.i("ReassignAllCasesTest", result.toString());
+
+        assertEquals(CASES, result.casesSolved);
+        assertEquals(countAssignments(), result.rowsWritten);
+        assertTrue(result.rowsChanged > result.rowsWritten); // the old rows' deletes and the triggers' writes
+        assertTrue("reassignment took " + result.elapsedNanos / 1_000_000 + " ms",
+                result.elapsedNanos < 5_000_000_000L);
+
+        // Twice the cases: the statements beyond one insert per assignment must not grow with them
+        addCases(dbHelper.getWritableDatabase(), CASES);
+        BulkWriteResult doubled = dbHelper.reassignAllCases(DAY);
+        Log.i("ReassignAllCasesTest", doubled.toString());
+
+        assertEquals(2 * CASES, doubled.casesSolved);
+        assertEquals(countAssignments(), doubled.rowsWritten);
+        assertTrue(doubled.rowsWritten > result.rowsWritten);
+        assertEquals(result.statementsExecuted - result.rowsWritten, doubled.statementsExecuted - doubled.rowsWritten);
+        assertTrue(result.statementsExecuted - result.rowsWritten < 20);
+    }
+
+    @Test
+    public void updateRoster_checkOutRewritesOnlyTheNursesCases() {
+        dbHelper.reassignAllCases(DAY);
+        List<String> before = assignments();
+        List<String> present = new ArrayList<>();
+        for (int i = 1; i < NURSES; i++) {
+            present.add("bulk" + i);
+        }
+        PresenceChange change = dbHelper.savePresence(DAY, present); // bulk0 goes home
+
+        long started = System.nanoTime();
+        RosterDelta delta = dbHelper.updateRoster(DAY, change.toRosterChanges());
+        Log.i("ReassignAllCasesTest", delta.size() + " rows in " + (System.nanoTime() - started) / 1000 + " us");
+
+        List<String> after = assignments();
+        int removed = 0;
+        for (String row : before) {
+            if (row.endsWith(":bulk0")) {
+                removed++;
+                assertFalse(after.contains(row));
+            }
+        }
+        assertTrue(removed > 0);
+        assertEquals(removed, delta.getRemoved().size());
+        assertEquals(before.size() - removed + rows(delta.getAdded()), after.size());
+    }
+
+    @Test
+    public void optimizeDay_writesTheOptimizedRosterWithinBudget() {
+        long started = System.nanoTime();
+        RosterOptimizer.Result result = dbHelper.optimizeDay(DAY, 200);
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        Log.i("ReassignAllCasesTest", result + " in " + millis + " ms");
+
+        assertTrue(result.score <= result.greedyScore);
+        assertEquals(rows(result.assignments), countAssignments());
+        assertTrue("optimizing took " + millis + " ms", millis < 2_000);
+    }
+
+    @Test
+    public void reassignCases_monthMatchesDayByDay() {
+        int first = TimeCodec.toEpochDay("2026-02-01");
+        dbHelper.seed(new HospitalDataGenerator.Config()
+                .nurses(60).units(3).months(1).startDay(first).assign(false));
+        int last = first + 27;
+
+        BulkWriteResult result = dbHelper.reassignCases(first, last);
+        Log.i("ReassignAllCasesTest", result.toString());
+        List<String> parallel = assignments();
+
+        for (int day = first; day <= last; day++) {
+            dbHelper.reassignAllCases(day);
+        }
+        assertEquals(28 * 3 * 4, result.casesSolved);
+        assertEquals(parallel.size(), result.rowsWritten);
+        assertEquals(assignments(), parallel);
+    }
+
+    @Test
+    public void reassignAllCases_nextDaySeesTheRebuiltOvernightBookings() {
+        int night = TimeCodec.toEpochDay("2030-07-01");
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        ContentValues nurse = new ContentValues();
+        nurse.put("username", "owl");
+        nurse.put("role", "nurse");
+        db.insert("users", null, nurse);
+        int overnight = addCase(db, night, 22 * 60, 26 * 60);
+        int morning = addCase(db, night + 1, 60, 3 * 60);
+        dbHelper.savePresence(night, Collections.singletonList("owl"));
+        dbHelper.savePresence(night + 1, Collections.singletonList("owl"));
+
+        dbHelper.reassignAllCases(night); // owl works until 02:00 the next morning
+        dbHelper.getAvailability(db, night + 1); // and the next day's cached index says so
+        db.delete("presence", "username = 'owl' AND date = ?", new String[]{String.valueOf(night)});
+        dbHelper.reassignAllCases(night); // now nobody is on the overnight case
+
+        dbHelper.autoAssignNursesToCase(morning, night + 1, 60, 3 * 60);
+        assertTrue(dbHelper.getNursesAssignedToCase(overnight).isEmpty());
+        assertEquals(1, dbHelper.getNursesAssignedToCase(morning).size());
+    }
+
+    private static int addCase(SQLiteDatabase db, int day, int start, int end) {
+        ContentValues shift = new ContentValues();
+        shift.put("date", day);
+        shift.put("start_time", 0);
+        shift.put("end_time", 30 * 60);
+        ContentValues c = new ContentValues();
+        c.put("description", "Night " + day);
+        c.put("required_nurses", 1);
+        c.put("scheduled_shift_id", db.insert("shifts", null, shift));
+        c.put("start_time", start);
+        c.put("end_time", end);
+        return (int) db.insert("cases", null, c);
+    }
+
+    private static int rows(Map<Integer, List<String>> assignments) {
+        int rows = 0;
+        for (List<String> nurses : assignments.values()) {
+            rows += nurses.size();
+        }
+        return rows;
+    }
+
+    private List<String> assignments() {
+        List<String> rows = new ArrayList<>();
+        Cursor cursor = dbHelper.getReadableDatabase().rawQuery(
+                "SELECT case_id, user_id FROM assignments ORDER BY case_id, user_id", null);
+        while (cursor.moveToNext()) {
+            rows.add(cursor.getInt(0) + ":" + cursor.getString(1));
+        }
+        cursor.close();
+        return rows;
+    }
+
+    private int countAssignments() {
+        Cursor cursor = dbHelper.getReadableDatabase().rawQuery("SELECT COUNT(*) FROM assignments", null);
+        cursor.moveToFirst();
+        int count = cursor.getInt(0);
+        cursor.close();
+        return count;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.mediroster;
+
+import android.content.Context;
+import android.database.DatabaseUtils;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class RosterExportTest {
+
+    private static final int FIRST_DAY = TimeCodec.toEpochDay("2026-03-01");
+    private static final int LAST_DAY = TimeCodec.toEpochDay("2026-03-10");
+
+    private UserDatabaseHelper dbHelper;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dbHelper = new UserDatabaseHelper(context, null);
+        dbHelper.seed(new HospitalDataGenerator.Config().nurses(40).units(3).months(1).startDay(FIRST_DAY));
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+    }
+
+    @Test
+    public void csv_hasOneRowPerAssignmentInRange() throws IOException {
+        StringWriter out = new StringWriter();
+        int rows = new RosterExporter(dbHelper).exportCsv(FIRST_DAY, LAST_DAY, out);
+
+        long expected = DatabaseUtils.longForQuery(dbHelper.getReadableDatabase(),
+                "SELECT COUNT(*) FROM nurse_schedule WHERE date BETWEEN ? AND ?",
+                new String[]{String.valueOf(FIRST_DAY), String.valueOf(LAST_DAY)});
+        assertTrue(expected > 0);
+        assertEquals(expected, rows);
+        assertEquals(rows + 1, out.toString().split("\r\n").length);
+        assertTrue(out.toString().startsWith(RosterCsvWriter.HEADER + "\r\n2026-03-01,"));
+    }
+
+    @Test
+    public void calendars_oneIcsPerRosteredNurse() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int events = new RosterExporter(dbHelper).exportCalendars(FIRST_DAY, LAST_DAY, out);
+
+        long nurses = DatabaseUtils.longForQuery(dbHelper.getReadableDatabase(),
+                "SELECT COUNT(DISTINCT user_id) FROM nurse_schedule WHERE date BETWEEN ? AND ?",
+                new String[]{String.valueOf(FIRST_DAY), String.valueOf(LAST_DAY)});
+        int entries = 0;
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            while (zip.getNextEntry() != null) {
+                entries++;
+            }
+        }
+        assertEquals(nurses, entries);
+        assertTrue(events >= entries);
+    }
+}
@@ -1,39 +1,38 @@
 package com.example.mediroster;
 
-import android.app.DatePickerDialog;
-import android.database.Cursor;
 import android.os.Bundle;
+import android.view.View;
+import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
 import android.widget.Button;
-import android.widget.DatePicker;
 import android.widget.EditText;
 import android.widget.Spinner;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.HashMap;
-import java.util.Locale;
+import java.util.Collections;
+import java.util.List;
 
 public class AddCasePage extends AppCompatActivity {
 
-    private EditText caseDescription, dateInput;
-    private Spinner startTimeSpinner, durationSpinner, shiftSpinner, requiredNursesSpinner, operationSpinner;
+    private EditText caseDescription;
+    private Spinner startTimeSpinner, durationSpinner, shiftSpinner, operationSpinner;
     private Button addCaseBtn;
 
-    private UserDatabaseHelper dbHelper;
-    private final String[] timeSlots = generateHourlySlots();
-    private final String[] nurseOptions = {"1", "2", "3", "4", "5"};
+    private RosterRepository repository;
     private final String[] durations = {"1", "2", "3", "4", "6", "8", "12"};
-    private final HashMap<String, Integer> shiftMap = new HashMap<>();
-
-    private static String[] generateHourlySlots() {
-        String[] slots = new String[24];
-        for (int i = 0; i < 24; i++) {
-            slots[i] = String.format(Locale.US, "%02d:00", i);
+    private IdSpinnerModel shiftModel = IdSpinnerModel.EMPTY;
+    private IdSpinnerModel operationModel = IdSpinnerModel.EMPTY;
+    private List<ReferenceCache.Shift> shifts = Collections.emptyList();
+    private int[] startSlots = new int[0]; // minutes from the shift's midnight, so past 24:00 for overnight shifts
+
+    // Hourly starts from the shift's start until its last hour, in the shift's own day frame
+    private static int[] hourlySlots(ReferenceCache.Shift shift) {
+        int count = Math.max((shift.endMinute - shift.startMinute + 59) / 60, 0);
+        int[] slots = new int[count];
+        for (int i = 0; i < count; i++) {
+            slots[i] = shift.startMinute + i * 60;
         }
         return slots;
     }
@@ -43,10 +42,9 @@ public class AddCasePage extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_add_case);
 
-        dbHelper = new UserDatabaseHelper(this);
+        repository = RosterRepository.getInstance(this);
 
         caseDescription = findViewById(R.id.case_description);
-        dateInput = findViewById(R.id.case_date_input);
         startTimeSpinner = findViewById(R.id.time_slot_spinner);
         durationSpinner = findViewById(R.id.duration_spinner);
         shiftSpinner = findViewById(R.id.shift_spinner);
@@ -56,87 +54,57 @@ public class AddCasePage extends AppCompatActivity {
         loadShiftsIntoSpinner();
         loadOperationsIntoSpinner();
 
-        dateInput.setOnClickListener(v -> showDatePicker());
+        // Start times follow the chosen shift, so a night shift offers the hours after midnight too
+        shiftSpinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                fillStartTimes(shifts.get(position));
+            }
 
-        startTimeSpinner.setAdapter(new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, timeSlots));
+            @Override
+            public void onNothingSelected(AdapterView<?> parent) {}
+        });
         durationSpinner.setAdapter(new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, durations));
 
         addCaseBtn.setOnClickListener(v -> addCase());
     }
-    private boolean isWithinShiftBounds(String caseStart, String caseEnd, String shiftStart, String shiftEnd) {
-        try {
-            int cs = Integer.parseInt(caseStart.split(":")[0]);
-            int ce = Integer.parseInt(caseEnd.split(":")[0]);
-            int ss = Integer.parseInt(shiftStart.split(":")[0]);
-            int se = Integer.parseInt(shiftEnd.split(":")[0]);
-            return cs >= ss && ce <= se;
-        } catch (Exception e) {
-            return false; // fallback if parsing fails
+    private void fillStartTimes(ReferenceCache.Shift shift) {
+        startSlots = hourlySlots(shift);
+        String[] labels = new String[startSlots.length];
+        for (int i = 0; i < startSlots.length; i++) {
+            labels[i] = TimeCodec.formatMinuteOfDay(startSlots[i]);
         }
-    }
-    private void showDatePicker() { //pop up calendar
-        final Calendar calendar = Calendar.getInstance();
-        DatePickerDialog dialog = new DatePickerDialog(this, (DatePicker view, int year, int month, int day) -> {
-            Calendar selected = Calendar.getInstance();
-            selected.set(year, month, day);
-            String date = new SimpleDateFormat("yyyy-MM-dd", Locale.US).format(selected.getTime());
-            dateInput.setText(date);
-        }, calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH), calendar.get(Calendar.DAY_OF_MONTH));
-        dialog.show();
+        startTimeSpinner.setAdapter(new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, labels));
     }
     private void loadOperationsIntoSpinner() { //operations preload for drop down
-        Cursor cursor = dbHelper.getAllOperations();
-        ArrayList<String> operations = new ArrayList<>();
-        while (cursor.moveToNext()) {
-            operations.add(cursor.getString(cursor.getColumnIndexOrThrow("operation_name")));
-        }
-        cursor.close();
-
-        ArrayAdapter<String> adapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, operations);
-        adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
-        operationSpinner.setAdapter(adapter);
+        repository.getOperations(operations -> {
+            operationModel = IdSpinnerModel.of(operations, op -> op.operationId, op -> op.name);
+            ArrayAdapter<String> adapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_item,
+                    operationModel.getLabels());
+            adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+            operationSpinner.setAdapter(adapter);
+        });
     }
 
     private void loadShiftsIntoSpinner() { //shifts go into a drop down
-        Cursor cursor = dbHelper.getAllShifts();
-        ArrayList<String> shiftLabels = new ArrayList<>();
-        shiftMap.clear();
-
-        while (cursor.moveToNext()) {
-            int id = cursor.getInt(cursor.getColumnIndexOrThrow("shift_id"));
-            String label = id + ": " +
-                    cursor.getString(cursor.getColumnIndexOrThrow("date")) + " " +
-                    cursor.getString(cursor.getColumnIndexOrThrow("start_time")) + " - " +
-                    cursor.getString(cursor.getColumnIndexOrThrow("end_time"));
-            shiftLabels.add(label);
-            shiftMap.put(label, id);
-        }
-        cursor.close();
-
-        ArrayAdapter<String> adapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, shiftLabels);
-        adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
-        shiftSpinner.setAdapter(adapter);
-    }
-    private String computeEndTime(String startTime, int durationHours) { //determines what time the case will end
-        try {
-            String[] parts = startTime.split(":");
-            int startHour = Integer.parseInt(parts[0]);
-            int endHour = (startHour + durationHours) % 24;
-            return String.format(Locale.US, "%02d:00", endHour);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return "00:00"; // fallback
-        }
+        repository.getRecentShifts(recent -> {
+            shifts = recent;
+            shiftModel = IdSpinnerModel.of(recent, shift -> shift.shiftId, shift -> shift.label);
+
+            ArrayAdapter<String> adapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_item,
+                    shiftModel.getLabels());
+            adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+            shiftSpinner.setAdapter(adapter);
+        });
     }
     private void addCase() { //create new case
         String description = caseDescription.getText().toString().trim();
-        String date = dateInput.getText().toString().trim();
-        String startTime = startTimeSpinner.getSelectedItem().toString();
         String durationStr = durationSpinner.getSelectedItem().toString();
-        String selectedShiftLabel = (String) shiftSpinner.getSelectedItem();
-        String selectedOperation = operationSpinner.getSelectedItem().toString();
+        int shiftPosition = shiftSpinner.getSelectedItemPosition();
+        int startPosition = startTimeSpinner.getSelectedItemPosition();
+        int operationPosition = operationSpinner.getSelectedItemPosition();
 
-        if (description.isEmpty() || date.isEmpty() || selectedShiftLabel == null) {
+        if (description.isEmpty() || operationPosition < 0) {
             Toast.makeText(this, "Please fill in all fields", Toast.LENGTH_SHORT).show();
             return;
         }
@@ -149,36 +117,40 @@ public class AddCasePage extends AppCompatActivity {
             return;
         }
 
-        String endTime = computeEndTime(startTime, duration);
-        Integer shiftId = shiftMap.get(selectedShiftLabel);
-
-        // Validate case timing is within shift bounds
-        Cursor shiftCursor = dbHelper.getShiftById(shiftId);
-        if (shiftCursor.moveToFirst()) {
-            String shiftStart = shiftCursor.getString(shiftCursor.getColumnIndexOrThrow("start_time"));
-            String shiftEnd = shiftCursor.getString(shiftCursor.getColumnIndexOrThrow("end_time"));
-
-            if (!isWithinShiftBounds(startTime, endTime, shiftStart, shiftEnd)) {
-                Toast.makeText(this, "Case must be within shift time (" + shiftStart + " - " + shiftEnd + ")", Toast.LENGTH_LONG).show();
-                shiftCursor.close();
-                return;
-            }
-        }
-        shiftCursor.close();
-
-        if (shiftId == null) {
+        if (shiftPosition < 0 || startPosition < 0 || startPosition >= startSlots.length) {
             Toast.makeText(this, "Please select a valid shift", Toast.LENGTH_SHORT).show();
             return;
         }
+        int startMinute = startSlots[startPosition];
+        int endMinute = startMinute + duration * 60; // may run past midnight
+        int shiftId = shiftModel.getId(shiftPosition);
+        String selectedOperation = operationModel.getLabel(operationPosition);
+
+        // Bounds check, insert and assignment run as one trip; returns the error to show, or null once created
+        repository.execute(db -> {
+            ReferenceCache.Shift shift = db.getShiftById(shiftId);
+            if (shift == null) {
+                return "That shift no longer exists";
+            }
+            if (!TimeCodec.isWithin(startMinute, endMinute, shift.startMinute, shift.endMinute)) {
+                return "Case must be within shift time (" + TimeCodec.formatMinuteOfDay(shift.startMinute) + " - " +
+                        TimeCodec.formatMinuteOfDay(shift.endMinute) + ")";
+            }
 
-        long caseId = dbHelper.addCase(description, shiftId, startTime, endTime, selectedOperation);
-        if (caseId != -1) { //adds case with time
-            dbHelper.autoAssignNursesToCase((int) caseId, date, startTime, endTime);
-            Toast.makeText(this, "Case created and nurses assigned", Toast.LENGTH_SHORT).show();
-            finish();
-        } else {
-            Toast.makeText(this, "Failed to create case", Toast.LENGTH_SHORT).show();
-        }
+            long caseId = db.addCase(description, shiftId, startMinute, endMinute, selectedOperation);
+            if (caseId == -1) {
+                return "Failed to create case";
+            }
+            db.autoAssignNursesToCase((int) caseId, shift.day, startMinute, endMinute); // the case runs on the shift's day
+            return null;
+        }, error -> {
+            if (error == null) {
+                Toast.makeText(this, "Case created and nurses assigned", Toast.LENGTH_SHORT).show();
+                finish();
+            } else {
+                Toast.makeText(this, error, Toast.LENGTH_LONG).show();
+            }
+        });
     }
 
 }
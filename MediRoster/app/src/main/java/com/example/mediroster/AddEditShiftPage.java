@@ -1,7 +1,6 @@
 package com.example.mediroster;
 
 import android.app.DatePickerDialog;
-import android.database.Cursor;
 import android.os.Bundle;
 import android.widget.ArrayAdapter;
 import android.widget.Button;
@@ -13,9 +12,8 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 
 public class AddEditShiftPage extends AppCompatActivity {
@@ -24,15 +22,18 @@ public class AddEditShiftPage extends AppCompatActivity {
     private Button addShiftBtn, deleteShiftBtn;
     private Spinner shiftListSpinner;
 
-    private UserDatabaseHelper dbHelper;
-    private HashMap<String, Integer> shiftMap = new HashMap<>();
+    private RosterRepository repository;
+    private IdSpinnerModel shiftModel = IdSpinnerModel.EMPTY;
+    private Integer pickedDay; // once a date is picked the list shows that day's shifts, even old ones
+    // Shifts added or deleted here or on another screen; the list itself comes from ReferenceCache, not a query
+    private final InvalidationTracker.Observer shiftsChanged = changes -> loadShifts();
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_add_edit_shift);
 
-        dbHelper = new UserDatabaseHelper(this);
+        repository = RosterRepository.getInstance(this);
 
         dateInput = findViewById(R.id.shift_date);
         addShiftBtn = findViewById(R.id.add_shift_btn);
@@ -43,46 +44,54 @@ public class AddEditShiftPage extends AppCompatActivity {
         dateInput.setOnClickListener(v -> showDatePicker());
 
         loadShifts();
+        repository.observe(shiftsChanged, InvalidationTracker.SHIFTS);
 
         addShiftBtn.setOnClickListener(v -> {
             String date = dateInput.getText().toString().trim();
-            String start = "06:00";
-            String end = "18:00";
+            int start = TimeCodec.parseMinuteOfDay("06:00");
+            int end = TimeCodec.parseMinuteOfDay("18:00");
 
             if (date.isEmpty()) {
                 Toast.makeText(this, "Please select a date", Toast.LENGTH_SHORT).show();
                 return;
             }
 
-            if (dbHelper.shiftOverlaps(date, start, end)) {
-                Toast.makeText(this, "Shift overlaps with an existing shift!", Toast.LENGTH_LONG).show();
-                return;
-            }
-
-            boolean inserted = dbHelper.insertShift(date, start, end);
-            if (inserted) {
-                Toast.makeText(this, "Shift added", Toast.LENGTH_SHORT).show();
-                loadShifts();
-            } else {
-                Toast.makeText(this, "Failed to add shift", Toast.LENGTH_SHORT).show();
-            }
+            int day = TimeCodec.toEpochDay(date);
+            // Overlap check and insert in one trip; returns the error to show, or null once added
+            repository.execute(db -> {
+                if (db.shiftOverlaps(day, start, end)) {
+                    return "Shift overlaps with an existing shift!";
+                }
+                return db.insertShift(day, start, end) ? null : "Failed to add shift";
+            }, error -> {
+                if (error == null) {
+                    Toast.makeText(this, "Shift added", Toast.LENGTH_SHORT).show();
+                } else {
+                    Toast.makeText(this, error, Toast.LENGTH_LONG).show();
+                }
+            });
         });
 
         deleteShiftBtn.setOnClickListener(v -> {
-            String label = (String) shiftListSpinner.getSelectedItem();
-            Integer shiftId = shiftMap.get(label);
-            if (shiftId != null) {
-                boolean deleted = dbHelper.deleteShift(shiftId);
-                if (deleted) {
-                    Toast.makeText(this, "Shift deleted", Toast.LENGTH_SHORT).show();
-                    loadShifts();
-                } else {
-                    Toast.makeText(this, "Cannot delete shift in use", Toast.LENGTH_SHORT).show();
-                }
+            int position = shiftListSpinner.getSelectedItemPosition();
+            if (position >= 0) {
+                repository.deleteShift(shiftModel.getId(position), deleted -> {
+                    if (deleted) {
+                        Toast.makeText(this, "Shift deleted", Toast.LENGTH_SHORT).show();
+                    } else {
+                        Toast.makeText(this, "Cannot delete shift in use", Toast.LENGTH_SHORT).show();
+                    }
+                });
             }
         });
     }
 
+    @Override
+    protected void onDestroy() {
+        repository.stopObserving(shiftsChanged);
+        super.onDestroy();
+    }
+
     private void showDatePicker() { // pop up calendar
         final Calendar calendar = Calendar.getInstance();
         DatePickerDialog dialog = new DatePickerDialog(this, (DatePicker view, int year, int month, int dayOfMonth) -> {
@@ -90,26 +99,22 @@ public class AddEditShiftPage extends AppCompatActivity {
             selected.set(year, month, dayOfMonth);
             String formatted = new SimpleDateFormat("yyyy-MM-dd", Locale.US).format(selected.getTime());
             dateInput.setText(formatted);
+            pickedDay = TimeCodec.toEpochDay(formatted);
+            loadShifts();
         }, calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH), calendar.get(Calendar.DAY_OF_MONTH));
         dialog.show();
     }
 
     private void loadShifts() {
-        Cursor cursor = dbHelper.getAllShifts();
-        ArrayList<String> labels = new ArrayList<>();
-        shiftMap.clear();
-
-        while (cursor.moveToNext()) {
-            int id = cursor.getInt(cursor.getColumnIndexOrThrow("shift_id"));
-            String label = id + ": " +
-                    cursor.getString(cursor.getColumnIndexOrThrow("date")) + " " +
-                    cursor.getString(cursor.getColumnIndexOrThrow("start_time")) + "-" +
-                    cursor.getString(cursor.getColumnIndexOrThrow("end_time"));
-            shiftMap.put(label, id);
-            labels.add(label);
+        RosterRepository.Callback<List<ReferenceCache.Shift>> show = shifts -> {
+            shiftModel = IdSpinnerModel.of(shifts, shift -> shift.shiftId, shift -> shift.label);
+            shiftListSpinner.setAdapter(new ArrayAdapter<>(this, android.R.layout.simple_spinner_item,
+                    shiftModel.getLabels()));
+        };
+        if (pickedDay == null) {
+            repository.getRecentShifts(show);
+        } else {
+            repository.getShiftsOnDay(pickedDay, show);
         }
-        cursor.close();
-
-        shiftListSpinner.setAdapter(new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, labels));
     }
 }
@@ -0,0 +1,29 @@
+package com.example.mediroster;
+
+/**
+ * Outcome of a bulk roster write: how much was written, how many SQL statements it took and how long.
+ * {@code rowsChanged} also counts the rows the statements' triggers wrote, e.g. nurse_schedule.
+ */
+public final class BulkWriteResult {
+
+    public final int casesSolved;
+    public final int rowsWritten;
+    public final int statementsExecuted;
+    public final long rowsChanged;
+    public final long elapsedNanos;
+
+    public BulkWriteResult(int casesSolved, int rowsWritten, int statementsExecuted, long rowsChanged,
+                           long elapsedNanos) {
+        this.casesSolved = casesSolved;
+        this.rowsWritten = rowsWritten;
+        this.statementsExecuted = statementsExecuted;
+        this.rowsChanged = rowsChanged;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkWriteResult{cases=" + casesSolved + ", rows=" + rowsWritten +
+                ", statements=" + statementsExecuted + ", changed=" + rowsChanged + ", ms=" + elapsedNanos / 1_000_000 + "}";
+    }
+}
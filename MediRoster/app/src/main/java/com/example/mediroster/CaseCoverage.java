@@ -0,0 +1,59 @@
+package com.example.mediroster;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+/** A case on the roster day with how many nurses it needs, how many it has, and who they are. */
+public class CaseCoverage {
+
+    /** Reads {@link UserDatabaseHelper#SQL_DAY_COVERAGE} rows. */
+    static final RowMapper<CaseCoverage> MAPPER = RowMapper.positional(cursor -> new CaseCoverage(cursor.getInt(0),
+            cursor.getString(1), cursor.getInt(2), cursor.getInt(3), cursor.getInt(4), cursor.getInt(5),
+            cursor.isNull(6) ? "" : cursor.getString(6)));
+
+    /** Biggest staffing gap first, then by start time and id, so the cases to fix lead the list. */
+    static final Comparator<CaseCoverage> UNDERSTAFFED_FIRST = (a, b) -> {
+        if (a.getGap() != b.getGap()) return Integer.compare(b.getGap(), a.getGap());
+        if (a.startMinute != b.startMinute) return Integer.compare(a.startMinute, b.startMinute);
+        return Integer.compare(a.caseId, b.caseId);
+    };
+
+    public final int caseId;
+    public final String description;
+    public final int startMinute;
+    public final int endMinute;
+    public final int requiredNurses;
+    public final int assignedNurses;
+    public final String nurseNames; // display names, comma separated; empty when nobody is assigned
+
+    public CaseCoverage(int caseId, String description, int startMinute, int endMinute, int requiredNurses,
+                        int assignedNurses, String nurseNames) {
+        this.caseId = caseId;
+        this.description = description;
+        this.startMinute = startMinute;
+        this.endMinute = endMinute;
+        this.requiredNurses = requiredNurses;
+        this.assignedNurses = assignedNurses;
+        this.nurseNames = nurseNames;
+    }
+
+    /** Nurses still missing; 0 once the case is fully staffed. */
+    public int getGap() {
+        return Math.max(requiredNurses - assignedNurses, 0);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CaseCoverage)) return false;
+        CaseCoverage other = (CaseCoverage) o;
+        return caseId == other.caseId && startMinute == other.startMinute && endMinute == other.endMinute
+                && requiredNurses == other.requiredNurses && assignedNurses == other.assignedNurses
+                && Objects.equals(description, other.description) && nurseNames.equals(other.nurseNames);
+    }
+
+    @Override
+    public int hashCode() {
+        return caseId;
+    }
+}
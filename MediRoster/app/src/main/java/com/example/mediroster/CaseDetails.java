@@ -0,0 +1,37 @@
+package com.example.mediroster;
+
+/** Every stored field of one case, read by {@link UserDatabaseHelper#getCaseById}. */
+public class CaseDetails {
+
+    /** Reads {@code SELECT * FROM cases} rows; the columns are found by name once per query. */
+    static final RowMapper<CaseDetails> MAPPER = cursor -> {
+        int caseId = cursor.getColumnIndexOrThrow("case_id");
+        int description = cursor.getColumnIndexOrThrow("description");
+        int requiredNurses = cursor.getColumnIndexOrThrow("required_nurses");
+        int shiftId = cursor.getColumnIndexOrThrow("scheduled_shift_id");
+        int operation = cursor.getColumnIndexOrThrow("operation");
+        int start = cursor.getColumnIndexOrThrow("start_time");
+        int end = cursor.getColumnIndexOrThrow("end_time");
+        return row -> new CaseDetails(row.getInt(caseId), row.getString(description), row.getInt(requiredNurses),
+                row.getInt(shiftId), row.getString(operation), row.getInt(start), row.getInt(end));
+    };
+
+    public final int caseId;
+    public final String description;
+    public final int requiredNurses; // 0 for cases stored without a count
+    public final int shiftId;
+    public final String operation;
+    public final int startMinute;
+    public final int endMinute;
+
+    public CaseDetails(int caseId, String description, int requiredNurses, int shiftId, String operation,
+                       int startMinute, int endMinute) {
+        this.caseId = caseId;
+        this.description = description;
+        this.requiredNurses = requiredNurses;
+        this.shiftId = shiftId;
+        this.operation = operation;
+        this.startMinute = startMinute;
+        this.endMinute = endMinute;
+    }
+}
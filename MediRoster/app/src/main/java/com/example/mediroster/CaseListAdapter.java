@@ -0,0 +1,67 @@
+package com.example.mediroster;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Case list for ViewCasesPage. Pages are appended with submitList, and DiffUtil works out
+ * the inserted rows off the main thread, so only the new rows are bound.
+ */
+public class CaseListAdapter extends ListAdapter<CaseRow, CaseListAdapter.CaseViewHolder> {
+
+    public interface OnCaseClickListener {
+        void onCaseClick(CaseRow row);
+    }
+
+    private static final DiffUtil.ItemCallback<CaseRow> DIFF = new DiffUtil.ItemCallback<CaseRow>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull CaseRow oldItem, @NonNull CaseRow newItem) {
+            return oldItem.caseId == newItem.caseId;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull CaseRow oldItem, @NonNull CaseRow newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
+    private final OnCaseClickListener listener;
+
+    public CaseListAdapter(OnCaseClickListener listener) {
+        super(DIFF);
+        this.listener = listener;
+    }
+
+    @NonNull
+    @Override
+    public CaseViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_case_row, parent, false);
+        return new CaseViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull CaseViewHolder holder, int position) {
+        CaseRow row = getItem(position);
+        holder.title.setText("Case ID " + row.caseId + ": " + row.description);
+        holder.subtitle.setText(TimeCodec.formatMinuteOfDay(row.startMinute));
+        holder.itemView.setOnClickListener(v -> listener.onCaseClick(row));
+    }
+
+    static class CaseViewHolder extends RecyclerView.ViewHolder {
+        final TextView title;
+        final TextView subtitle;
+
+        CaseViewHolder(View itemView) {
+            super(itemView);
+            title = itemView.findViewById(R.id.case_title);
+            subtitle = itemView.findViewById(R.id.case_subtitle);
+        }
+    }
+}
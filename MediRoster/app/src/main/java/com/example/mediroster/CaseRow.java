@@ -0,0 +1,40 @@
+package com.example.mediroster;
+
+import java.util.Objects;
+
+/**
+ * One line of a paged case list. Its (startMinute, caseId) pair is also the keyset for the next page.
+ */
+public class CaseRow {
+
+    /** Sorts before every real row, so passing it fetches the first page. */
+    public static final CaseRow FIRST_PAGE = new CaseRow(0, null, Integer.MIN_VALUE);
+
+    public final int caseId;
+    public final String description;
+    public final int startMinute;
+
+    public CaseRow(int caseId, String description, int startMinute) {
+        this.caseId = caseId;
+        this.description = description;
+        this.startMinute = startMinute;
+    }
+
+    /** Reads case page rows (case_id, description, start_time). */
+    static final RowMapper<CaseRow> MAPPER = RowMapper.positional(
+            cursor -> new CaseRow(cursor.getInt(0), cursor.getString(1), cursor.getInt(2)));
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CaseRow)) return false;
+        CaseRow other = (CaseRow) o;
+        return caseId == other.caseId && startMinute == other.startMinute
+                && Objects.equals(description, other.description);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(caseId, description, startMinute);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.mediroster;
+
+import java.util.Objects;
+
+/** One case found by {@link UserDatabaseHelper#searchCases}, with enough to show it in a result list. */
+public class CaseSearchResult {
+
+    /** Reads {@link UserDatabaseHelper#SQL_SEARCH_CASES} rows. */
+    static final RowMapper<CaseSearchResult> MAPPER = RowMapper.positional(cursor -> new CaseSearchResult(
+            cursor.getInt(0), cursor.getString(1), cursor.getString(2), cursor.getInt(3), cursor.getInt(4),
+            cursor.getString(5)));
+
+    public final int caseId;
+    public final String description;
+    public final String operation;
+    public final int day;
+    public final int startMinute;
+    public final String nurseNames; // space separated, as indexed; empty when nobody is assigned
+
+    public CaseSearchResult(int caseId, String description, String operation, int day, int startMinute,
+                            String nurseNames) {
+        this.caseId = caseId;
+        this.description = description;
+        this.operation = operation;
+        this.day = day;
+        this.startMinute = startMinute;
+        this.nurseNames = nurseNames;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CaseSearchResult)) return false;
+        CaseSearchResult other = (CaseSearchResult) o;
+        return caseId == other.caseId && day == other.day && startMinute == other.startMinute
+                && Objects.equals(description, other.description) && Objects.equals(operation, other.operation)
+                && Objects.equals(nurseNames, other.nurseNames);
+    }
+
+    @Override
+    public int hashCode() {
+        return caseId;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.mediroster;
+
+/** A case's id and description, as listed by the case pickers and day lists. */
+public class CaseSummary {
+
+    /** Reads (case_id, description) rows. */
+    static final RowMapper<CaseSummary> MAPPER = RowMapper.positional(
+            cursor -> new CaseSummary(cursor.getInt(0), cursor.getString(1)));
+
+    public final int caseId;
+    public final String description;
+
+    public CaseSummary(int caseId, String description) {
+        this.caseId = caseId;
+        this.description = description;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.mediroster;
+
+/** A case's description with the day and hours of the shift it belongs to. */
+public class CaseWithShift {
+
+    /** Reads {@link UserDatabaseHelper#SQL_CASE_WITH_SHIFT} rows. */
+    static final RowMapper<CaseWithShift> MAPPER = RowMapper.positional(
+            cursor -> new CaseWithShift(cursor.getString(0), cursor.getInt(1), cursor.getInt(2), cursor.getInt(3)));
+
+    public final String description;
+    public final int day;
+    public final int shiftStartMinute;
+    public final int shiftEndMinute;
+
+    public CaseWithShift(String description, int day, int shiftStartMinute, int shiftEndMinute) {
+        this.description = description;
+        this.day = day;
+        this.shiftStartMinute = shiftStartMinute;
+        this.shiftEndMinute = shiftEndMinute;
+    }
+}
@@ -1,7 +1,6 @@
 package com.example.mediroster;
 
 import android.app.AlertDialog;
-import android.database.Cursor;
 import android.os.Bundle;
 import android.widget.Button;
 import android.widget.CheckBox;
@@ -10,84 +9,119 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.HashMap;
-import java.util.Locale;
 
 public class CheckInPage extends AppCompatActivity {
 
-    private UserDatabaseHelper dbHelper;
+    private static final long OPTIMIZE_BUDGET_MS = 500; // a fixed wait the admin can count on
+
+    private RosterRepository repository;
     private GridLayout checkboxGrid;
     private ArrayList<CheckBox> checkBoxes = new ArrayList<>();
     private HashMap<CheckBox, String> checkboxToUsernameMap = new HashMap<>();
-    private String today;
+    private int today;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_check_in);
 
-        dbHelper = new UserDatabaseHelper(this);
+        repository = RosterRepository.getInstance(this);
         checkboxGrid = findViewById(R.id.checkbox_grid);
         Button saveBtn = findViewById(R.id.save_btn);
 
-        today = new SimpleDateFormat("yyyy-MM-dd", Locale.US).format(new Date());
-
-        // Load who is already checked in (if any)
-        Cursor presenceCursor = dbHelper.getPresentNurses(today);
-        HashMap<String, Boolean> presentMap = new HashMap<>();
-        while (presenceCursor.moveToNext()) {
-            presentMap.put(presenceCursor.getString(0), true);
-        }
-        presenceCursor.close();
-
-        // Load all nurses
-        Cursor cursor = dbHelper.getAllNurses();
-        while (cursor.moveToNext()) {
-            String username = cursor.getString(cursor.getColumnIndexOrThrow("username"));
-            String displayName = cursor.getString(cursor.getColumnIndexOrThrow("display_name"));
-
-            CheckBox checkBox = new CheckBox(this);
-            checkBox.setText(displayName);
-            checkBox.setChecked(true); // Default to checked
+        today = TimeCodec.today();
 
-            // Override default if saved presence exists
-            if (!presentMap.isEmpty()) {
-                checkBox.setChecked(presentMap.containsKey(username));
+        // Load all nurses and who is already checked in (if any)
+        repository.execute(db -> {
+            HashMap<String, Boolean> presentMap = new HashMap<>();
+            for (String username : db.getPresentNurses(today)) {
+                presentMap.put(username, true);
             }
 
-            checkboxGrid.addView(checkBox);
-            checkBoxes.add(checkBox);
-            checkboxToUsernameMap.put(checkBox, username);
-        }
-        cursor.close();
-
-        saveBtn.setOnClickListener(v -> {
-            saveAttendance();
+            ArrayList<NurseCheckIn> nurses = new ArrayList<>();
+            for (ReferenceCache.Nurse nurse : db.getNurses()) {
+                // Default to checked, override if saved presence exists
+                nurses.add(new NurseCheckIn(nurse.username, nurse.displayName,
+                        presentMap.isEmpty() || presentMap.containsKey(nurse.username)));
+            }
+            return nurses;
+        }, nurses -> {
+            for (NurseCheckIn nurse : nurses) {
+                CheckBox checkBox = new CheckBox(this);
+                checkBox.setText(nurse.displayName);
+                checkBox.setChecked(nurse.present);
+
+                checkboxGrid.addView(checkBox);
+                checkBoxes.add(checkBox);
+                checkboxToUsernameMap.put(checkBox, nurse.username);
+            }
+        });
 
+        saveBtn.setOnClickListener(v -> saveAttendance(change -> {
+            if (change.isEmpty()) {
+                // nothing to reassign incrementally, but a whole-day rebuild is still worth offering
+                Toast.makeText(this, "Attendance unchanged", Toast.LENGTH_SHORT).show();
+                chooseRebuild();
+                return;
+            }
             new AlertDialog.Builder(this)
                     .setTitle("Reassign Cases")
                     .setMessage("Would you like to reassign cases based on the updated staff check-in?")
                     .setPositiveButton("Yes", (dialog, which) -> {
-                        dbHelper.reassignAllCases(today);
-                        Toast.makeText(this, "Cases reassigned based on updated staff", Toast.LENGTH_SHORT).show();
+                        // only the cases the changed nurses affect are touched
+                        repository.updateRoster(today, change.toRosterChanges(), delta ->
+                                Toast.makeText(this, "Cases reassigned based on updated staff", Toast.LENGTH_SHORT).show());
                     })
+                    .setNeutralButton("Rebuild Day", (dialog, which) -> chooseRebuild())
                     .setNegativeButton("No", (dialog, which) -> {
                         Toast.makeText(this, "Attendance saved", Toast.LENGTH_SHORT).show();
                     })
                     .show();
-        });
+        }));
+    }
+
+    // The dialog has one neutral slot, so both whole-day rebuilds are offered from here.
+    // An unchanged save has no dialog and opens this directly.
+    private void chooseRebuild() {
+        String[] choices = {"Rebuild now", "Optimize (about " + OPTIMIZE_BUDGET_MS + " ms, spreads the load)"};
+        new AlertDialog.Builder(this)
+                .setTitle("Rebuild Day")
+                .setItems(choices, (dialog, which) -> {
+                    if (which == 0) {
+                        repository.reassignAllCases(today, result ->
+                                Toast.makeText(this, "All cases reassigned", Toast.LENGTH_SHORT).show());
+                    } else {
+                        repository.optimizeDay(today, OPTIMIZE_BUDGET_MS, result ->
+                                Toast.makeText(this, "All cases reassigned; busiest nurse " +
+                                        result.busiestMinutes / 60 + " h " + result.busiestMinutes % 60 + " min, " +
+                                        result.shortNurses + " places unfilled", Toast.LENGTH_LONG).show());
+                    }
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
     }
 
-    private void saveAttendance() {
-        dbHelper.clearTodayPresence(today);
+    private void saveAttendance(RosterRepository.Callback<PresenceChange> onSaved) {
+        ArrayList<String> present = new ArrayList<>(); // read the boxes here, write on the database thread
         for (CheckBox cb : checkBoxes) {
             if (cb.isChecked()) {
-                String username = checkboxToUsernameMap.get(cb);
-                dbHelper.markNursePresent(username, today);
+                present.add(checkboxToUsernameMap.get(cb));
             }
         }
+        repository.savePresence(today, present, onSaved);
+    }
+
+    private static class NurseCheckIn {
+        final String username;
+        final String displayName;
+        final boolean present;
+
+        NurseCheckIn(String username, String displayName, boolean present) {
+            this.username = username;
+            this.displayName = displayName;
+            this.present = present;
+        }
     }
 }
@@ -0,0 +1,73 @@
+package com.example.mediroster;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * The admin's day view in ViewCasesPage: every case with its assigned nurses and staffing, short cases marked in red.
+ */
+public class CoverageAdapter extends ListAdapter<CaseCoverage, CoverageAdapter.CoverageViewHolder> {
+
+    public interface OnCaseClickListener {
+        void onCaseClick(CaseCoverage coverage);
+    }
+
+    private static final DiffUtil.ItemCallback<CaseCoverage> DIFF = new DiffUtil.ItemCallback<CaseCoverage>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull CaseCoverage oldItem, @NonNull CaseCoverage newItem) {
+            return oldItem.caseId == newItem.caseId;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull CaseCoverage oldItem, @NonNull CaseCoverage newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
+    private final OnCaseClickListener listener;
+
+    public CoverageAdapter(OnCaseClickListener listener) {
+        super(DIFF);
+        this.listener = listener;
+    }
+
+    @NonNull
+    @Override
+    public CoverageViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_coverage_row, parent, false);
+        return new CoverageViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull CoverageViewHolder holder, int position) {
+        CaseCoverage coverage = getItem(position);
+        holder.title.setText("Case ID " + coverage.caseId + ": " + coverage.description);
+        holder.subtitle.setText(TimeCodec.formatMinuteOfDay(coverage.startMinute) + " - " +
+                TimeCodec.formatMinuteOfDay(coverage.endMinute) + " | " +
+                (coverage.nurseNames.isEmpty() ? "No nurses assigned" : coverage.nurseNames));
+        holder.gap.setText(coverage.assignedNurses + "/" + coverage.requiredNurses);
+        holder.gap.setTextColor(holder.itemView.getContext().getColor(
+                coverage.getGap() > 0 ? android.R.color.holo_red_dark : R.color.teal_700));
+        holder.itemView.setOnClickListener(v -> listener.onCaseClick(coverage));
+    }
+
+    static class CoverageViewHolder extends RecyclerView.ViewHolder {
+        final TextView title;
+        final TextView subtitle;
+        final TextView gap;
+
+        CoverageViewHolder(View itemView) {
+            super(itemView);
+            title = itemView.findViewById(R.id.case_title);
+            subtitle = itemView.findViewById(R.id.case_subtitle);
+            gap = itemView.findViewById(R.id.coverage_gap);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.mediroster;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams a CSV of nurses, shifts or case blocks into the database, one row at a time.
+ * The header row picks the kind, and columns can come in any order:
+ * <ul>
+ *     <li>nurses: username, display_name, password</li>
+ *     <li>shifts: date, start_time, end_time</li>
+ *     <li>cases: date, start_time, end_time, operation, description, optionally required_nurses</li>
+ * </ul>
+ * Dates are yyyy-MM-dd and times HH:mm. A shift whose end is not after its start ends the next morning.
+ * A case in the morning part of an overnight shift can be given on the shift's date with "+1" after the start,
+ * as AddCasePage shows it, or on the calendar date it starts, when it is placed in the previous day's shift.
+ * Rows get the same checks as the admin screens: a shift must not overlap another shift that day, and a case must
+ * fit inside one of its day's shifts. Rows that fail are reported and skipped. Valid rows commit every
+ * {@link #BATCH_ROWS}, so memory use stays flat however long the file is.
+ */
+class CsvImporter {
+
+    static final int BATCH_ROWS = 500;
+
+    private static final String[] NURSE_COLUMNS = {"username", "display_name", "password"};
+    private static final String[] SHIFT_COLUMNS = {"date", "start_time", "end_time"};
+    private static final String[] CASE_COLUMNS = {"date", "start_time", "end_time", "operation", "description"};
+
+    private final UserDatabaseHelper helper;
+    private final SQLiteDatabase db;
+    private Map<String, Integer> columns;
+    private int pending;
+
+    CsvImporter(UserDatabaseHelper helper) {
+        this.helper = helper;
+        this.db = helper.getWritableDatabase();
+    }
+
+    ImportReport importCsv(Reader in) throws IOException {
+        CsvReader csv = new CsvReader(in);
+        String[] header = csv.readRecord();
+        if (header == null) {
+            throw new IOException("The file is empty");
+        }
+        columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            columns.put(header[i].trim().toLowerCase(Locale.US), i);
+        }
+
+        db.beginTransaction();
+        try {
+            ImportReport report;
+            if (columns.containsKey("username")) {
+                report = importNurses(csv);
+            } else if (columns.containsKey("operation")) {
+                report = importCases(csv);
+            } else if (columns.containsKey("date")) {
+                report = importShifts(csv);
+            } else {
+                throw new IOException("Unrecognised header; expected nurse, shift or case columns");
+            }
+            db.setTransactionSuccessful();
+            return report;
+        } finally {
+            db.endTransaction();
+            helper.clearCaches(); // rows went in behind the helper's back, and a rolled-back batch leaves its indexes ahead
+        }
+    }
+
+    private ImportReport importNurses(CsvReader csv) throws IOException {
+        requireColumns(NURSE_COLUMNS);
+        ImportReport report = new ImportReport("nurses");
+        SQLiteStatement insert = db.compileStatement(
+                "INSERT OR IGNORE INTO users (username, password, role, display_name) VALUES (?, ?, 'nurse', ?)");
+        try {
+            String[] row;
+            while ((row = nextRow(csv, report)) != null) {
+                try {
+                    String username = required(row, "username");
+                    insert.bindString(1, username);
+                    insert.bindString(2, required(row, "password"));
+                    insert.bindString(3, required(row, "display_name"));
+                    if (insert.executeInsert() == -1) {
+                        throw new IllegalArgumentException("User " + username + " already exists");
+                    }
+                    inserted(report);
+                } catch (IllegalArgumentException e) {
+                    report.rejected(csv.getLineNumber(), e.getMessage());
+                }
+            }
+        } finally {
+            insert.close();
+        }
+        return report;
+    }
+
+    private ImportReport importShifts(CsvReader csv) throws IOException {
+        requireColumns(SHIFT_COLUMNS);
+        ImportReport report = new ImportReport("shifts");
+        SQLiteStatement insert = db.compileStatement("INSERT INTO shifts (date, start_time, end_time) VALUES (?, ?, ?)");
+        try {
+            String[] row;
+            while ((row = nextRow(csv, report)) != null) {
+                try {
+                    int day = parseDay(row);
+                    int start = parseMinute(row, "start_time");
+                    int end = parseEnd(row, start);
+                    AvailabilityIndex availability = helper.getAvailability(db, day);
+                    if (availability.shiftOverlaps(start, end)) {
+                        throw new IllegalArgumentException("Shift overlaps with an existing shift");
+                    }
+                    insert.bindLong(1, day);
+                    insert.bindLong(2, start);
+                    insert.bindLong(3, end);
+                    availability.addShift((int) insert.executeInsert(), start, end);
+                    inserted(report);
+                } catch (IllegalArgumentException e) {
+                    report.rejected(csv.getLineNumber(), e.getMessage());
+                }
+            }
+        } finally {
+            insert.close();
+        }
+        return report;
+    }
+
+    private ImportReport importCases(CsvReader csv) throws IOException {
+        requireColumns(CASE_COLUMNS);
+        ImportReport report = new ImportReport("cases");
+        Set<String> operations = new HashSet<>();
+        for (ReferenceCache.Operation operation : helper.getOperations()) {
+            operations.add(operation.name);
+        }
+        SQLiteStatement insert = db.compileStatement("INSERT INTO cases " +
+                "(description, required_nurses, scheduled_shift_id, operation, start_time, end_time) " +
+                "VALUES (?, ?, ?, ?, ?, ?)");
+        try {
+            String[] row;
+            while ((row = nextRow(csv, report)) != null) {
+                try {
+                    int day = parseDay(row);
+                    int start = parseCaseStart(row);
+                    int end = parseEnd(row, start);
+                    String operation = required(row, "operation");
+                    if (!operations.contains(operation)) {
+                        throw new IllegalArgumentException("Unknown operation " + operation);
+                    }
+                    String description = required(row, "description");
+                    int required = parseRequiredNurses(row);
+                    int shiftId = helper.getAvailability(db, day).findShiftContaining(start, end);
+                    if (shiftId == -1 && start < TimeCodec.MINUTES_PER_DAY) {
+                        // A plain time after midnight may belong to the previous day's overnight shift
+                        shiftId = helper.getAvailability(db, day - 1).findShiftContaining(
+                                start + TimeCodec.MINUTES_PER_DAY, end + TimeCodec.MINUTES_PER_DAY);
+                        if (shiftId != -1) {
+                            start += TimeCodec.MINUTES_PER_DAY;
+                            end += TimeCodec.MINUTES_PER_DAY;
+                        }
+                    }
+                    if (shiftId == -1) {
+                        throw new IllegalArgumentException("Case must be within a shift on " + TimeCodec.formatDate(day));
+                    }
+                    insert.bindString(1, description);
+                    insert.bindLong(2, required);
+                    insert.bindLong(3, shiftId);
+                    insert.bindString(4, operation);
+                    insert.bindLong(5, start);
+                    insert.bindLong(6, end);
+                    insert.executeInsert();
+                    inserted(report);
+                } catch (IllegalArgumentException e) {
+                    report.rejected(csv.getLineNumber(), e.getMessage());
+                }
+            }
+        } finally {
+            insert.close();
+        }
+        return report;
+    }
+
+    /** Next data row, or null at the end; a malformed file ends the import with what has been read so far. */
+    private static String[] nextRow(CsvReader csv, ImportReport report) {
+        try {
+            return csv.readRecord();
+        } catch (IOException e) {
+            report.stopped(csv.getLineNumber(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void inserted(ImportReport report) {
+        report.imported();
+        if (++pending >= BATCH_ROWS) {
+            db.setTransactionSuccessful();
+            db.endTransaction();
+            db.beginTransaction();
+            pending = 0;
+        }
+    }
+
+    private void requireColumns(String[] names) throws IOException {
+        for (String name : names) {
+            if (!columns.containsKey(name)) {
+                throw new IOException("Missing column " + name);
+            }
+        }
+    }
+
+    private int parseDay(String[] row) {
+        String date = required(row, "date");
+        try {
+            return TimeCodec.toEpochDay(date);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date " + date + ", expected yyyy-MM-dd");
+        }
+    }
+
+    private int parseMinute(String[] row, String column) {
+        return parseMinute(required(row, column), column);
+    }
+
+    private static int parseMinute(String time, String column) {
+        int minute;
+        try {
+            minute = TimeCodec.parseMinuteOfDay(time);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + " " + time + ", expected HH:mm");
+        }
+        if (minute < 0 || minute >= TimeCodec.MINUTES_PER_DAY) {
+            throw new IllegalArgumentException(column + " must be between 00:00 and 23:59");
+        }
+        return minute;
+    }
+
+    // HH:mm, or HH:mm+1 for the morning after the shift's date
+    private int parseCaseStart(String[] row) {
+        String time = required(row, "start_time");
+        if (!time.endsWith("+1")) {
+            return parseMinute(time, "start_time");
+        }
+        return parseMinute(time.substring(0, time.length() - 2), "start_time") + TimeCodec.MINUTES_PER_DAY;
+    }
+
+    private int parseEnd(String[] row, int start) {
+        int end = parseMinute(row, "end_time");
+        while (end <= start) {
+            end += TimeCodec.MINUTES_PER_DAY; // runs past midnight
+        }
+        return end;
+    }
+
+    private int parseRequiredNurses(String[] row) {
+        String value = optional(row, "required_nurses");
+        if (value.isEmpty()) {
+            return 1;
+        }
+        try {
+            int required = Integer.parseInt(value);
+            if (required >= 1) {
+                return required;
+            }
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new IllegalArgumentException("required_nurses must be a whole number of at least 1");
+    }
+
+    private String required(String[] row, String column) {
+        String value = optional(row, column);
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("Missing " + column);
+        }
+        return value;
+    }
+
+    private String optional(String[] row, String column) {
+        Integer index = columns.get(column);
+        return index == null || index >= row.length ? "" : row[index].trim();
+    }
+}
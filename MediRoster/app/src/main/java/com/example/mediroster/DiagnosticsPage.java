@@ -0,0 +1,59 @@
+package com.example.mediroster;
+
+import android.os.Bundle;
+import android.widget.Button;
+import android.widget.EditText;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+/** Admin view of the helper's query timings, slow calls and leaked cursors. */
+public class DiagnosticsPage extends AppCompatActivity {
+
+    private EditText thresholdInput;
+    private TextView reportText;
+    private RosterRepository repository;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_diagnostics);
+
+        repository = RosterRepository.getInstance(this);
+        thresholdInput = findViewById(R.id.diagnostics_threshold);
+        reportText = findViewById(R.id.diagnostics_text);
+        Button refreshBtn = findViewById(R.id.diagnostics_refresh_btn);
+        Button resetBtn = findViewById(R.id.diagnostics_reset_btn);
+
+        refreshBtn.setOnClickListener(v -> applyThresholdAndRefresh());
+        resetBtn.setOnClickListener(v -> repository.execute(db -> {
+            db.getMetrics().reset();
+            return db.getMetrics().report();
+        }, reportText::setText));
+        loadReport();
+    }
+
+    private void applyThresholdAndRefresh() {
+        String threshold = thresholdInput.getText().toString().trim();
+        if (threshold.isEmpty()) {
+            loadReport();
+            return;
+        }
+        long millis;
+        try {
+            millis = Long.parseLong(threshold);
+        } catch (NumberFormatException e) {
+            Toast.makeText(this, "Enter the threshold in whole milliseconds", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        repository.execute(db -> {
+            db.getMetrics().setSlowThresholdMillis(millis);
+            return db.getMetrics().report();
+        }, reportText::setText);
+    }
+
+    private void loadReport() {
+        repository.execute(db -> db.getMetrics().report(), reportText::setText); // the report shows the threshold
+    }
+}
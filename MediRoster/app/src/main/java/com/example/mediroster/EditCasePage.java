@@ -1,7 +1,10 @@
 package com.example.mediroster;
 
-import android.database.Cursor;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.widget.ArrayAdapter;
 import android.widget.Button;
 import android.widget.EditText;
@@ -11,26 +14,43 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
 public class EditCasePage extends AppCompatActivity {
 
+    private static final int RECENT_CASES = 200; // shown before anything is typed; older cases are found by search
+    private static final long TYPING_DELAY_MS = 150;
+
     private Spinner caseSpinner, shiftSpinner;
-    private EditText descriptionInput, requiredNursesInput;
+    private EditText caseSearch, descriptionInput, requiredNursesInput;
     private Button updateCaseBtn;
     private Integer caseId;
-    private UserDatabaseHelper dbHelper;
+    private RosterRepository repository;
 
-    private HashMap<String, Integer> caseMap = new HashMap<>();
-    private HashMap<String, Integer> shiftMap = new HashMap<>();
+    private IdSpinnerModel caseModel = IdSpinnerModel.EMPTY;
+    private ArrayAdapter<String> caseAdapter;
+    // The form as last loaded or saved; anything else in the inputs is the admin's unsaved typing
+    private String savedDescription = "";
+    private String savedRequired = "";
+    private int savedShiftId = -1;
+    private IdSpinnerModel shiftModel = IdSpinnerModel.EMPTY;
+    private List<ReferenceCache.Shift> recentShifts = Collections.emptyList();
+    private ReferenceCache.Shift caseShift; // the edited case's shift, when it is older than the picker's window
+    private final InvalidationTracker.Observer changeObserver = this::onRowsChanged;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable runSearch = this::loadCases;
+    private int casesSeq; // a case list from an older request than this is dropped
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_edit_case);
 
-        dbHelper = new UserDatabaseHelper(this);
+        repository = RosterRepository.getInstance(this);
 
+        caseSearch = findViewById(R.id.edit_case_search);
         caseSpinner = findViewById(R.id.case_spinner);
         shiftSpinner = findViewById(R.id.edit_shift_spinner);
         descriptionInput = findViewById(R.id.edit_case_description);
@@ -39,15 +59,32 @@ public class EditCasePage extends AppCompatActivity {
 
         loadCases();
         loadShifts();
+        caseSearch.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                handler.removeCallbacks(runSearch);
+                handler.postDelayed(runSearch, TYPING_DELAY_MS);
+            }
+        });
+        repository.observe(changeObserver, InvalidationTracker.CASES, InvalidationTracker.SHIFTS);
 
         caseSpinner.setOnItemSelectedListener(new android.widget.AdapterView.OnItemSelectedListener() {
             @Override
             public void onItemSelected(android.widget.AdapterView<?> parent, android.view.View view, int position, long id) {
-                String selected = (String) parent.getItemAtPosition(position);
-                caseId = caseMap.get(selected);
-                if (caseId != null) {
-                    loadCaseDetails(caseId);
+                int picked = caseModel.getId(position);
+                if (caseId != null && caseId == picked) {
+                    return; // a reloaded list reselecting the case already in the form
                 }
+                caseId = picked;
+                loadCaseDetails(caseId);
             }
 
             @Override
@@ -55,15 +92,13 @@ public class EditCasePage extends AppCompatActivity {
         });
 
         updateCaseBtn.setOnClickListener(v -> {
-            String caseLabel = (String) caseSpinner.getSelectedItem();
-            Integer caseId = caseMap.get(caseLabel);
-            String shiftLabel = (String) shiftSpinner.getSelectedItem();
-            Integer shiftId = shiftMap.get(shiftLabel);
+            int casePosition = caseSpinner.getSelectedItemPosition();
+            int shiftPosition = shiftSpinner.getSelectedItemPosition();
 
             String desc = descriptionInput.getText().toString().trim();
             String nurseStr = requiredNursesInput.getText().toString().trim();
 
-            if (caseId == null || shiftId == null || desc.isEmpty() || nurseStr.isEmpty()) {
+            if (casePosition < 0 || shiftPosition < 0 || desc.isEmpty() || nurseStr.isEmpty()) {
                 Toast.makeText(this, "Please complete all fields", Toast.LENGTH_SHORT).show();
                 return;
             }
@@ -76,71 +111,185 @@ public class EditCasePage extends AppCompatActivity {
                 return;
             }
 
-            boolean updated = dbHelper.updateCase(caseId, desc, shiftId, nurses);
-            if (updated) {
-                Toast.makeText(this, "Case updated", Toast.LENGTH_SHORT).show();
-            } else {
-                Toast.makeText(this, "Failed to update", Toast.LENGTH_SHORT).show();
-            }
+            int caseId = caseModel.getId(casePosition);
+            int shiftId = shiftModel.getId(shiftPosition);
+            repository.updateCase(caseId, desc, shiftId, nurses, updated -> {
+                if (updated) {
+                    if (this.caseId != null && this.caseId == caseId) {
+                        savedDescription = desc; // the change this publishes is ours, so the form may reload
+                        savedRequired = nurseStr;
+                        savedShiftId = shiftId;
+                    }
+                    Toast.makeText(this, "Case updated", Toast.LENGTH_SHORT).show();
+                } else {
+                    Toast.makeText(this, "Failed to update", Toast.LENGTH_SHORT).show();
+                }
+            });
         });
         Button deleteBtn = findViewById(R.id.delete_case_btn); //deleted the selected case
         deleteBtn.setOnClickListener(v -> {
-            boolean success = dbHelper.deleteCase(caseId);
-            if (success) {
-                Toast.makeText(this, "Case deleted", Toast.LENGTH_SHORT).show();
-                finish(); //goes back to screen
+            if (caseId == null) {
+                return;
+            }
+            repository.deleteCase(caseId, success -> {
+                if (success) {
+                    Toast.makeText(this, "Case deleted", Toast.LENGTH_SHORT).show();
+                    finish(); //goes back to screen
+                } else {
+                    Toast.makeText(this, "Failed to delete case", Toast.LENGTH_SHORT).show();
+                }
+            });
+        });
+    }
+
+    @Override
+    protected void onDestroy() {
+        handler.removeCallbacks(runSearch);
+        repository.stopObserving(changeObserver);
+        super.onDestroy();
+    }
+
+    // Edits from this or another screen: patch the changed labels, and the form if its case changed and
+    // the admin hasn't started editing it
+    private void onRowsChanged(InvalidationTracker.ChangeSet changes) {
+        if (changes.contains(InvalidationTracker.SHIFTS)) {
+            loadShifts();
+        }
+        if (!changes.contains(InvalidationTracker.CASES)) {
+            return;
+        }
+        boolean whole = changes.isWholeTable(InvalidationTracker.CASES);
+        if (whole) {
+            loadCases();
+        } else {
+            patchCases(changes.getIds(InvalidationTracker.CASES));
+        }
+        if (caseId != null && (whole || changes.getIds(InvalidationTracker.CASES).contains(caseId))) {
+            if (hasUnsavedEdits()) {
+                Toast.makeText(this, "This case was changed elsewhere; Update will overwrite it",
+                        Toast.LENGTH_LONG).show();
             } else {
-                Toast.makeText(this, "Failed to delete case", Toast.LENGTH_SHORT).show();
+                loadCaseDetails(caseId);
+            }
+        }
+    }
+
+    // Relabels the listed cases in place; only an added or deleted case needs the list reloaded
+    private void patchCases(Set<Integer> changedIds) {
+        IdSpinnerModel model = caseModel;
+        repository.getCaseSummaries(changedIds, cases -> {
+            if (model != caseModel) {
+                return; // the list was reloaded meanwhile
+            }
+            boolean reshaped = cases.size() < changedIds.size(); // some were deleted
+            for (CaseSummary summary : cases) {
+                int position = model.positionOf(summary.caseId);
+                if (position < 0) {
+                    reshaped = true; // new, or now matching the search
+                } else {
+                    model.setLabel(position, caseLabel(summary));
+                }
+            }
+            if (reshaped) {
+                loadCases();
+            } else {
+                caseAdapter.notifyDataSetChanged();
             }
         });
     }
 
+    private boolean hasUnsavedEdits() {
+        int shiftPosition = shiftSpinner.getSelectedItemPosition();
+        int shiftId = shiftPosition >= 0 && shiftPosition < shiftModel.size() ? shiftModel.getId(shiftPosition) : -1;
+        return !descriptionInput.getText().toString().trim().equals(savedDescription)
+                || !requiredNursesInput.getText().toString().trim().equals(savedRequired)
+                || shiftId != savedShiftId;
+    }
+
+    private static String caseLabel(CaseSummary summary) {
+        return "ID " + summary.caseId + ": " + summary.description;
+    }
+
+    // The newest cases, or with something typed, the case with that id and the search matches
     private void loadCases() {
-        Cursor cursor = dbHelper.getAllCases();
-        ArrayList<String> labels = new ArrayList<>();
-        while (cursor.moveToNext()) {
-            int id = cursor.getInt(cursor.getColumnIndexOrThrow("case_id"));
-            String desc = cursor.getString(cursor.getColumnIndexOrThrow("description"));
-            String label = "ID " + id + ": " + desc;
-            caseMap.put(label, id);
-            labels.add(label);
+        String input = caseSearch.getText().toString();
+        int seq = ++casesSeq;
+        RosterRepository.Callback<List<CaseSummary>> show = cases -> {
+            if (seq != casesSeq) {
+                return;
+            }
+            caseModel = IdSpinnerModel.of(cases, c -> c.caseId, EditCasePage::caseLabel);
+            caseAdapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, caseModel.getLabels());
+            caseSpinner.setAdapter(caseAdapter);
+            int position = caseId == null ? -1 : caseModel.positionOf(caseId);
+            if (position >= 0) {
+                caseSpinner.setSelection(position, false); // a reload keeps the case being edited selected
+            }
+        };
+        if (input.trim().isEmpty()) {
+            repository.getRecentCases(Integer.MAX_VALUE, RECENT_CASES, show);
+        } else {
+            repository.findCases(input, RECENT_CASES, show);
         }
-        cursor.close();
-        caseSpinner.setAdapter(new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, labels));
     }
 
     private void loadShifts() {
-        Cursor cursor = dbHelper.getAllShifts();
-        ArrayList<String> labels = new ArrayList<>();
-        while (cursor.moveToNext()) {
-            int id = cursor.getInt(cursor.getColumnIndexOrThrow("shift_id"));
-            String label = id + ": " + cursor.getString(cursor.getColumnIndexOrThrow("date")) +
-                    " " + cursor.getString(cursor.getColumnIndexOrThrow("start_time")) +
-                    "-" + cursor.getString(cursor.getColumnIndexOrThrow("end_time"));
-            shiftMap.put(label, id);
-            labels.add(label);
+        repository.getRecentShifts(shifts -> {
+            recentShifts = shifts;
+            showShifts();
+        });
+    }
+
+    // The recent shifts, plus the edited case's own shift if it is older, keeping the current selection
+    private void showShifts() {
+        int selected = shiftSpinner.getSelectedItemPosition();
+        Integer shiftId = selected >= 0 && selected < shiftModel.size() ? shiftModel.getId(selected) : null;
+        shiftModel = IdSpinnerModel.of(recentShifts, shift -> shift.shiftId, shift -> shift.label);
+        if (caseShift != null && shiftModel.positionOf(caseShift.shiftId) < 0) {
+            List<ReferenceCache.Shift> shown = new ArrayList<>(recentShifts.size() + 1);
+            shown.add(caseShift);
+            shown.addAll(recentShifts);
+            shiftModel = IdSpinnerModel.of(shown, shift -> shift.shiftId, shift -> shift.label);
+        }
+        shiftSpinner.setAdapter(new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, shiftModel.getLabels()));
+        int position = shiftId == null ? -1 : shiftModel.positionOf(shiftId);
+        if (position >= 0) {
+            shiftSpinner.setSelection(position);
         }
-        cursor.close();
-        shiftSpinner.setAdapter(new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, labels));
     }
 
     private void loadCaseDetails(int caseId) {
-        Cursor cursor = dbHelper.getCaseById(caseId);
-        if (cursor.moveToFirst()) {
-            String desc = cursor.getString(cursor.getColumnIndexOrThrow("description"));
-            int requiredNurses = cursor.getInt(cursor.getColumnIndexOrThrow("required_nurses"));
-            int shiftId = cursor.getInt(cursor.getColumnIndexOrThrow("scheduled_shift_id"));
-
-            descriptionInput.setText(desc);
-            requiredNursesInput.setText(String.valueOf(requiredNurses));
-
-            for (String key : shiftMap.keySet()) {
-                if (shiftMap.get(key) == shiftId) {
-                    shiftSpinner.setSelection(new ArrayList<>(shiftMap.keySet()).indexOf(key));
-                    break;
-                }
+        repository.getCaseById(caseId, details -> {
+            if (details == null) {
+                return;
             }
-        }
-        cursor.close();
+            descriptionInput.setText(details.description);
+            requiredNursesInput.setText(String.valueOf(details.requiredNurses));
+            savedDescription = details.description == null ? "" : details.description.trim();
+            savedRequired = String.valueOf(details.requiredNurses);
+            savedShiftId = details.shiftId;
+
+            int position = shiftModel.positionOf(details.shiftId);
+            if (position >= 0) {
+                shiftSpinner.setSelection(position);
+                updateCaseBtn.setEnabled(true);
+                return;
+            }
+            // An older shift than the picker holds: fetch it, and don't let Update move the case meanwhile
+            updateCaseBtn.setEnabled(false);
+            repository.getShiftById(details.shiftId, shift -> {
+                if (shift == null) {
+                    Toast.makeText(this, "This case's shift no longer exists", Toast.LENGTH_LONG).show();
+                    return;
+                }
+                if (this.caseId == null || this.caseId != details.caseId) {
+                    return; // another case was picked while this loaded
+                }
+                caseShift = shift;
+                showShifts();
+                shiftSpinner.setSelection(shiftModel.positionOf(shift.shiftId));
+                updateCaseBtn.setEnabled(true);
+            });
+        });
     }
 }
@@ -0,0 +1,117 @@
+package com.example.mediroster;
+
+import android.app.Activity;
+import android.app.DatePickerDialog;
+import android.content.Intent;
+import android.net.Uri;
+import android.os.Bundle;
+import android.widget.Button;
+import android.widget.DatePicker;
+import android.widget.EditText;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Locale;
+
+public class ExportRosterPage extends AppCompatActivity {
+
+    private static final int CREATE_CSV = 1;
+    private static final int CREATE_ZIP = 2;
+
+    private EditText fromInput, toInput;
+    private Button exportCsvBtn, exportIcsBtn;
+    private TextView statusText;
+    private RosterRepository repository;
+    private int fromDay, toDay;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_export_roster);
+
+        repository = RosterRepository.getInstance(this);
+        fromInput = findViewById(R.id.export_from);
+        toInput = findViewById(R.id.export_to);
+        exportCsvBtn = findViewById(R.id.export_csv_btn);
+        exportIcsBtn = findViewById(R.id.export_ics_btn);
+        statusText = findViewById(R.id.export_status);
+
+        String today = TimeCodec.formatDate(TimeCodec.today());
+        fromInput.setText(today);
+        toInput.setText(today);
+        fromInput.setOnClickListener(v -> showDatePicker(fromInput));
+        toInput.setOnClickListener(v -> showDatePicker(toInput));
+
+        exportCsvBtn.setOnClickListener(v -> chooseFile(CREATE_CSV, "text/csv", ".csv"));
+        exportIcsBtn.setOnClickListener(v -> chooseFile(CREATE_ZIP, "application/zip", "-calendars.zip"));
+    }
+
+    private void showDatePicker(EditText target) { // pop up calendar
+        final Calendar calendar = Calendar.getInstance();
+        DatePickerDialog dialog = new DatePickerDialog(this, (DatePicker view, int year, int month, int dayOfMonth) -> {
+            Calendar selected = Calendar.getInstance();
+            selected.set(year, month, dayOfMonth);
+            target.setText(new SimpleDateFormat("yyyy-MM-dd", Locale.US).format(selected.getTime()));
+        }, calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH), calendar.get(Calendar.DAY_OF_MONTH));
+        dialog.show();
+    }
+
+    private void chooseFile(int requestCode, String mimeType, String suffix) {
+        fromDay = TimeCodec.toEpochDay(fromInput.getText().toString());
+        toDay = TimeCodec.toEpochDay(toInput.getText().toString());
+        if (toDay < fromDay) {
+            Toast.makeText(this, "The end date is before the start date", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        Intent intent = new Intent(Intent.ACTION_CREATE_DOCUMENT);
+        intent.addCategory(Intent.CATEGORY_OPENABLE);
+        intent.setType(mimeType);
+        intent.putExtra(Intent.EXTRA_TITLE, "roster-" + TimeCodec.formatDate(fromDay) + "-to-" +
+                TimeCodec.formatDate(toDay) + suffix);
+        startActivityForResult(intent, requestCode);
+    }
+
+    @Override
+    protected void onActivityResult(int requestCode, int resultCode, Intent data) {
+        super.onActivityResult(requestCode, resultCode, data);
+        if (resultCode != Activity.RESULT_OK || data == null || data.getData() == null) {
+            return;
+        }
+        Uri uri = data.getData();
+        setExporting(true);
+        if (requestCode == CREATE_CSV) {
+            repository.exportCsv(getContentResolver(), uri, fromDay, toDay, done("rows"));
+        } else if (requestCode == CREATE_ZIP) {
+            repository.exportCalendars(getContentResolver(), uri, fromDay, toDay, done("calendar events"));
+        }
+    }
+
+    private RosterRepository.Callback<Integer> done(String unit) {
+        return new RosterRepository.Callback<Integer>() {
+            @Override
+            public void onResult(Integer count) {
+                setExporting(false);
+                statusText.setText("Exported " + count + " " + unit);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                setExporting(false);
+                statusText.setText("");
+                Toast.makeText(ExportRosterPage.this, "Export failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
+            }
+        };
+    }
+
+    private void setExporting(boolean exporting) {
+        exportCsvBtn.setEnabled(!exporting);
+        exportIcsBtn.setEnabled(!exporting);
+        if (exporting) {
+            statusText.setText("Exporting...");
+        }
+    }
+}
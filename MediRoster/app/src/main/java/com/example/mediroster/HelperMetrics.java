@@ -0,0 +1,220 @@
+package com.example.mediroster;
+
+import android.database.Cursor;
+import android.database.CursorWrapper;
+import android.util.Log;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Timing for every UserDatabaseHelper query and write: a latency histogram and row count per helper method,
+ * a log of the calls slower than {@link #setSlowThresholdMillis}, and a check for cursors handed out by the
+ * helper that are garbage collected without being closed. Readable from the diagnostics screen and tests.
+ */
+public class HelperMetrics {
+
+    private static final String TAG = "HelperMetrics";
+    static final int SLOW_LOG_SIZE = 50;
+    static final long DEFAULT_SLOW_THRESHOLD_MS = 100;
+
+    public static final class MethodStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        long rows;
+
+        public long getCalls() {
+            return latency.getCount();
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getMeanNanos() {
+            return latency.getMeanNanos();
+        }
+
+        public long getPercentileNanos(double percent) {
+            return latency.getPercentileNanos(percent);
+        }
+
+        public long getMaxNanos() {
+            return latency.getMaxNanos();
+        }
+    }
+
+    public static final class SlowCall {
+        public final String method;
+        public final String sql;
+        public final long nanos;
+        public final long rows;
+        public final long atMillis;
+
+        SlowCall(String method, String sql, long nanos, long rows, long atMillis) {
+            this.method = method;
+            this.sql = sql;
+            this.nanos = nanos;
+            this.rows = rows;
+            this.atMillis = atMillis;
+        }
+
+        @Override
+        public String toString() {
+            return method + " " + nanos / 1_000_000 + " ms, " + rows + " rows" + (sql != null ? ": " + sql : "");
+        }
+    }
+
+    private final Map<String, MethodStats> methods = new HashMap<>();
+    private final Deque<SlowCall> slowCalls = new ArrayDeque<>();
+    private long slowThresholdNanos = DEFAULT_SLOW_THRESHOLD_MS * 1_000_000;
+
+    // Helper cursors not yet closed; a reference that reaches the queue while still here was leaked
+    private final ReferenceQueue<Cursor> collected = new ReferenceQueue<>();
+    private final Map<Reference<? extends Cursor>, CursorRecord> openCursors = new HashMap<>();
+    private final Map<String, Integer> leaksByMethod = new TreeMap<>();
+
+    /** Records one call; {@code sql} is kept only if the call is slow. */
+    public synchronized void record(String method, String sql, long nanos, long rows) {
+        MethodStats stats = methods.get(method);
+        if (stats == null) {
+            stats = new MethodStats();
+            methods.put(method, stats);
+        }
+        stats.latency.record(nanos);
+        stats.rows += rows;
+        if (nanos >= slowThresholdNanos) {
+            if (slowCalls.size() == SLOW_LOG_SIZE) {
+                slowCalls.removeFirst();
+            }
+            SlowCall call = new SlowCall(method, sql, nanos, rows, System.currentTimeMillis());
+            slowCalls.addLast(call);
+            Log.w(TAG, "Slow call " + call);
+        }
+        pollCollected();
+    }
+
+    /** Wraps a cursor the helper returns so that one dropped without close() is reported as a leak. */
+    public synchronized Cursor track(String method, Cursor cursor) {
+        pollCollected();
+        CursorRecord record = new CursorRecord(method);
+        TrackedCursor tracked = new TrackedCursor(cursor, record);
+        record.reference = new WeakReference<Cursor>(tracked, collected);
+        openCursors.put(record.reference, record);
+        return tracked;
+    }
+
+    public synchronized void setSlowThresholdMillis(long millis) {
+        slowThresholdNanos = millis * 1_000_000;
+    }
+
+    public synchronized long getSlowThresholdMillis() {
+        return slowThresholdNanos / 1_000_000;
+    }
+
+    /** Stats for one helper method, or null if it has not been called. */
+    public synchronized MethodStats getStats(String method) {
+        return methods.get(method);
+    }
+
+    /** The last {@link #SLOW_LOG_SIZE} slow calls, oldest first. */
+    public synchronized List<SlowCall> getSlowCalls() {
+        return new ArrayList<>(slowCalls);
+    }
+
+    /** Helper cursors not yet closed, including leaked ones the collector has not found yet. */
+    public synchronized int getOpenCursorCount() {
+        pollCollected();
+        return openCursors.size();
+    }
+
+    /** Helper methods whose cursors were garbage collected unclosed, with how many times. */
+    public synchronized Map<String, Integer> getLeakedCursors() {
+        pollCollected();
+        return Collections.unmodifiableMap(new TreeMap<>(leaksByMethod));
+    }
+
+    public synchronized void reset() {
+        methods.clear();
+        slowCalls.clear();
+        leaksByMethod.clear();
+    }
+
+    /** Plain-text summary, slowest methods by p99 first. */
+    public synchronized String report() {
+        pollCollected();
+        List<Map.Entry<String, MethodStats>> entries = new ArrayList<>(methods.entrySet());
+        Collections.sort(entries, (a, b) -> Long.compare(
+                b.getValue().getPercentileNanos(99), a.getValue().getPercentileNanos(99)));
+
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.US, "%-28s %7s %9s %9s %9s %9s%n", "method", "calls", "rows",
+                "mean ms", "p99 ms", "max ms"));
+        for (Map.Entry<String, MethodStats> entry : entries) {
+            MethodStats stats = entry.getValue();
+            out.append(String.format(Locale.US, "%-28s %7d %9d %9.2f %9.2f %9.2f%n", entry.getKey(),
+                    stats.getCalls(), stats.rows, millis(stats.getMeanNanos()),
+                    millis(stats.getPercentileNanos(99)), millis(stats.getMaxNanos())));
+        }
+        out.append(String.format(Locale.US, "%nSlow calls (>= %d ms): %d%n", getSlowThresholdMillis(), slowCalls.size()));
+        for (SlowCall call : slowCalls) {
+            out.append("  ").append(call).append('\n');
+        }
+        out.append(String.format(Locale.US, "%nOpen cursors: %d%n", getOpenCursorCount()));
+        out.append("Leaked cursors: ").append(leaksByMethod.isEmpty() ? "none" : leaksByMethod.toString()).append('\n');
+        return out.toString();
+    }
+
+    private void pollCollected() {
+        Reference<? extends Cursor> reference;
+        while ((reference = collected.poll()) != null) {
+            CursorRecord record = openCursors.remove(reference);
+            if (record != null) { // closed cursors have already left the map
+                Integer leaks = leaksByMethod.get(record.method);
+                leaksByMethod.put(record.method, leaks == null ? 1 : leaks + 1);
+                Log.w(TAG, "Cursor from " + record.method + " was never closed");
+            }
+        }
+    }
+
+    private synchronized void closed(CursorRecord record) {
+        openCursors.remove(record.reference);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class CursorRecord {
+        final String method;
+        Reference<? extends Cursor> reference;
+
+        CursorRecord(String method) {
+            this.method = method;
+        }
+    }
+
+    private final class TrackedCursor extends CursorWrapper {
+        private final CursorRecord record;
+
+        TrackedCursor(Cursor cursor, CursorRecord record) {
+            super(cursor);
+            this.record = record;
+        }
+
+        @Override
+        public void close() {
+            closed(record);
+            super.close();
+        }
+    }
+}
@@ -17,7 +17,7 @@ import java.util.Calendar;
 public class HomePage extends AppCompatActivity {
 
     private GridLayout homeGrid;
-    private String role, username;
+    private Session session;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -27,14 +27,15 @@ public class HomePage extends AppCompatActivity {
         homeGrid = findViewById(R.id.home_grid);
         TextView greetingText = findViewById(R.id.greeting_text); // new greeting view
 
-        Intent intent = getIntent();
-        username = intent.getStringExtra("username");
-        role = intent.getStringExtra("role");
-
-        // Gets display name from database
-        UserDatabaseHelper dbHelper = new UserDatabaseHelper(this);
-        String displayName = dbHelper.getDisplayName(username);
+        session = Session.current();
+        if (session == null) { // process was restarted, log in again
+            startActivity(new Intent(this, LoginPage.class));
+            finish();
+            return;
+        }
 
+        // Display name came with the login, no need to go back to the database
+        String displayName = session.displayName;
         // Gets time of day
         int hour = Calendar.getInstance().get(Calendar.HOUR_OF_DAY);
         String greeting;
@@ -45,19 +46,23 @@ public class HomePage extends AppCompatActivity {
         } else {
             greeting = "Good evening, " + displayName + "!";
         }
-        TextView adminFooter = findViewById(R.id.admin_footer);
         greetingText.setText(greeting); //update greeting message
+        TextView adminFooter = findViewById(R.id.admin_footer);
 
         // Admin/Nurse tiles
-        if ("admin".equalsIgnoreCase(role)) {
+        if (session.isAdmin()) {
             addTile("Add Case", AddCasePage.class);
             addTile("Edit Case", EditCasePage.class);
             addTile("Manage Shifts", AddEditShiftPage.class);
             addTile("Check-In Nurses", CheckInPage.class);
             addTile("View Today's Cases", ViewCasesPage.class);
+            addTile("Search Cases", SearchCasesPage.class);
+            addTile("Import CSV", ImportCsvPage.class);
+            addTile("Export Roster", ExportRosterPage.class);
+            addTile("Diagnostics", DiagnosticsPage.class);
 
             adminFooter.setVisibility(View.VISIBLE);
-        } else if ("nurse".equalsIgnoreCase(role)) {
+        } else if (session.isNurse()) {
             addTile("My Shifts", MyShiftsPage.class);
         }
 
@@ -93,10 +98,9 @@ public class HomePage extends AppCompatActivity {
         card.setOnClickListener(v -> {
             Intent intent = new Intent(HomePage.this, targetActivity);
             if (!isLogout) {
-                intent.putExtra("username", username);
-                intent.putExtra("role", role);
                 startActivity(intent);
             } else {
+                Session.signOut();
                 intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
                 startActivity(intent);
                 finish();
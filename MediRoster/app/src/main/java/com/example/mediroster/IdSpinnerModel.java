@@ -0,0 +1,98 @@
+package com.example.mediroster;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Backing model for a spinner of database rows: position -> id and label, and id -> position.
+ * The id lookup is an open-addressed int table, so selecting a row by id is O(1) with no boxing.
+ * Labels are the caller's own strings, handed to the adapter without copying. A row's label can be replaced in
+ * place when only its text changed; ids and positions never change.
+ */
+public class IdSpinnerModel {
+
+    public interface IdOf<T> {
+        int id(T item);
+    }
+
+    public interface LabelOf<T> {
+        String label(T item);
+    }
+
+    public static final IdSpinnerModel EMPTY = new IdSpinnerModel(new int[0], new String[0]);
+
+    private final int[] ids;
+    private final String[] labels;
+    private final int[] slots; // id hash -> position + 1, 0 marks an empty slot
+    private final int mask;
+
+    public static <T> IdSpinnerModel of(List<T> items, IdOf<T> idOf, LabelOf<T> labelOf) {
+        int[] ids = new int[items.size()];
+        String[] labels = new String[items.size()];
+        for (int i = 0; i < ids.length; i++) {
+            T item = items.get(i);
+            ids[i] = idOf.id(item);
+            labels[i] = labelOf.label(item);
+        }
+        return new IdSpinnerModel(ids, labels);
+    }
+
+    IdSpinnerModel(int[] ids, String[] labels) {
+        this.ids = ids;
+        this.labels = labels;
+        int capacity = Integer.highestOneBit(Math.max(2, ids.length * 2 - 1)) << 1; // load factor at most 1/2
+        slots = new int[capacity];
+        mask = capacity - 1;
+        for (int position = 0; position < ids.length; position++) {
+            int slot = slotFor(ids[position]);
+            if (slots[slot] == 0) { // first row wins if an id repeats
+                slots[slot] = position + 1;
+            }
+        }
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int getId(int position) {
+        return ids[position];
+    }
+
+    public String getLabel(int position) {
+        return labels[position];
+    }
+
+    /** Replaces the row's text; call the adapter's notifyDataSetChanged after the last one. */
+    public void setLabel(int position, String label) {
+        labels[position] = label;
+    }
+
+    /** @return the row's position, or -1 if the id is not in the list */
+    public int positionOf(int id) {
+        return slots[slotFor(id)] - 1;
+    }
+
+    /** Read-only view of the labels in position order, for an ArrayAdapter. */
+    public List<String> getLabels() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return labels[index];
+            }
+
+            @Override
+            public int size() {
+                return labels.length;
+            }
+        };
+    }
+
+    private int slotFor(int id) { // linear probe until the id or an empty slot
+        int slot = (id * 0x9E3779B9) >>> 1 & mask;
+        while (slots[slot] != 0 && ids[slots[slot] - 1] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.mediroster;
+
+import android.app.Activity;
+import android.content.Intent;
+import android.net.Uri;
+import android.os.Bundle;
+import android.widget.Button;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+public class ImportCsvPage extends AppCompatActivity {
+
+    private static final int PICK_CSV = 1;
+
+    private Button importBtn;
+    private TextView statusText;
+    private RosterRepository repository;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_import_csv);
+
+        repository = RosterRepository.getInstance(this);
+        importBtn = findViewById(R.id.import_btn);
+        statusText = findViewById(R.id.import_status);
+
+        importBtn.setOnClickListener(v -> {
+            Intent intent = new Intent(Intent.ACTION_OPEN_DOCUMENT);
+            intent.addCategory(Intent.CATEGORY_OPENABLE);
+            intent.setType("text/*"); // CSV files come through as text/csv or text/comma-separated-values
+            startActivityForResult(intent, PICK_CSV);
+        });
+    }
+
+    @Override
+    protected void onActivityResult(int requestCode, int resultCode, Intent data) {
+        super.onActivityResult(requestCode, resultCode, data);
+        if (requestCode != PICK_CSV || resultCode != Activity.RESULT_OK || data == null || data.getData() == null) {
+            return;
+        }
+        Uri uri = data.getData();
+        importBtn.setEnabled(false);
+        statusText.setText("Importing...");
+        repository.importCsv(getContentResolver(), uri, new RosterRepository.Callback<ImportReport>() {
+            @Override
+            public void onResult(ImportReport report) {
+                importBtn.setEnabled(true);
+                StringBuilder status = new StringBuilder(report.summary());
+                for (String error : report.getErrors()) {
+                    status.append('\n').append(error);
+                }
+                if (report.getRejected() > report.getErrors().size()) {
+                    status.append("\n...and ").append(report.getRejected() - report.getErrors().size()).append(" more");
+                }
+                statusText.setText(status);
+                Toast.makeText(ImportCsvPage.this, report.summary(), Toast.LENGTH_SHORT).show();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                importBtn.setEnabled(true);
+                statusText.setText("");
+                Toast.makeText(ImportCsvPage.this, "Import failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
+            }
+        });
+    }
+}
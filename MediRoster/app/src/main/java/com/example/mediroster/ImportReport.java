@@ -0,0 +1,75 @@
+package com.example.mediroster;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a CSV import: rows imported and rejected, with the first {@link #MAX_ERRORS} rejections
+ * described by line number. Only a count is kept past that, so a bad file cannot grow the report unbounded.
+ */
+public final class ImportReport {
+
+    static final int MAX_ERRORS = 100;
+
+    private final String kind;
+    private final List<String> errors = new ArrayList<>();
+    private int imported;
+    private int rejected;
+    private String stoppedBy;
+
+    ImportReport(String kind) {
+        this.kind = kind;
+    }
+
+    void imported() {
+        imported++;
+    }
+
+    void rejected(int line, String reason) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add("Line " + line + ": " + reason);
+        }
+    }
+
+    void stopped(int line, String reason) {
+        stoppedBy = "Stopped at line " + line + ": " + reason;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    /** Rejections in file order, at most {@link #MAX_ERRORS} of them. */
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    /** Why the import ended before the end of the file, or null if it read the whole file. */
+    public String getStoppedBy() {
+        return stoppedBy;
+    }
+
+    /** One line for a toast, e.g. "Imported 412 cases, 3 rows rejected". */
+    public String summary() {
+        String summary = "Imported " + imported + " " + kind;
+        if (rejected > 0) {
+            summary += ", " + rejected + (rejected == 1 ? " row" : " rows") + " rejected";
+        }
+        return stoppedBy == null ? summary : summary + ". " + stoppedBy;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReport{" + kind + ", imported=" + imported + ", rejected=" + rejected + "}";
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.mediroster;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tells screens which rows other screens changed, so they can patch those rows instead of reloading.
+ * TEMP triggers on the primary connection note each written (table, id) in a temp table. The table is part of
+ * the writing transaction, so a rollback drops its notes with it. {@link #publish} reads and clears the notes
+ * of committed writes and hands each observer the {@link ChangeSet} for the tables it watches.
+ */
+public class InvalidationTracker {
+
+    public static final String CASES = "cases";
+    public static final String SHIFTS = "shifts";
+    public static final String ASSIGNMENTS = "assignments"; // ids are the case_id of the assignment
+    public static final String PRESENCE = "presence";       // ids are the epoch day
+
+    // Tracked table -> the column reported as its id
+    private static final Map<String, String> ID_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        ID_COLUMNS.put(CASES, "case_id");
+        ID_COLUMNS.put(SHIFTS, "shift_id");
+        ID_COLUMNS.put(ASSIGNMENTS, "case_id");
+        ID_COLUMNS.put(PRESENCE, "date");
+    }
+
+    public interface Observer {
+        void onChanged(ChangeSet changes);
+    }
+
+    /** The rows written since the last publish, by table. A table marked whole had too many rows to list. */
+    public static final class ChangeSet {
+        private final Map<String, Set<Integer>> ids;
+        private final Set<String> wholeTables;
+
+        ChangeSet(Map<String, Set<Integer>> ids, Set<String> wholeTables) {
+            this.ids = ids;
+            this.wholeTables = wholeTables;
+        }
+
+        public boolean isEmpty() {
+            return ids.isEmpty() && wholeTables.isEmpty();
+        }
+
+        public boolean contains(String table) {
+            return ids.containsKey(table) || wholeTables.contains(table);
+        }
+
+        /** True when any row of {@code table} may have changed; {@link #getIds} is then empty. */
+        public boolean isWholeTable(String table) {
+            return wholeTables.contains(table);
+        }
+
+        public Set<Integer> getIds(String table) {
+            Set<Integer> changed = ids.get(table);
+            return changed == null ? Collections.<Integer>emptySet() : Collections.unmodifiableSet(changed);
+        }
+
+        ChangeSet onlyTables(Set<String> tables) {
+            Map<String, Set<Integer>> keptIds = new HashMap<>();
+            for (Map.Entry<String, Set<Integer>> entry : ids.entrySet()) {
+                if (tables.contains(entry.getKey())) {
+                    keptIds.put(entry.getKey(), entry.getValue());
+                }
+            }
+            Set<String> keptWhole = new HashSet<>(wholeTables);
+            keptWhole.retainAll(tables);
+            return new ChangeSet(keptIds, keptWhole);
+        }
+
+        @Override
+        public String toString() {
+            return "ChangeSet" + ids + (wholeTables.isEmpty() ? "" : " whole " + wholeTables);
+        }
+    }
+
+    private static final class Registration {
+        final Observer observer;
+        final Executor executor;
+        final Set<String> tables;
+
+        Registration(Observer observer, Executor executor, Set<String> tables) {
+            this.observer = observer;
+            this.executor = executor;
+            this.tables = tables;
+        }
+    }
+
+    private final List<Registration> registrations = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean pending = new AtomicBoolean(); // set on every writable-database handout
+    private final Set<String> pendingWholeTables = Collections.synchronizedSet(new HashSet<>());
+
+    /** Calls {@code observer} on {@code executor} after commits that touch any of {@code tables}. */
+    public void addObserver(Observer observer, Executor executor, String... tables) {
+        for (String table : tables) {
+            if (!ID_COLUMNS.containsKey(table)) {
+                throw new IllegalArgumentException("Changes to " + table + " are not tracked");
+            }
+        }
+        registrations.add(new Registration(observer, executor, new HashSet<>(Arrays.asList(tables))));
+    }
+
+    public void removeObserver(Observer observer) {
+        registrations.removeIf(registration -> registration.observer == observer);
+    }
+
+    /** Creates the temp table and triggers; they live on the connection, so this runs on every open. */
+    void install(SQLiteDatabase db) {
+        db.execSQL("CREATE TEMP TABLE IF NOT EXISTS changed_rows (" +
+                "table_name TEXT NOT NULL, " +
+                "row_id INTEGER NOT NULL, " +
+                "PRIMARY KEY(table_name, row_id)) WITHOUT ROWID");
+        for (Map.Entry<String, String> entry : ID_COLUMNS.entrySet()) {
+            String table = entry.getKey();
+            String column = entry.getValue();
+            createTrigger(db, table, "insert", "NEW." + column);
+            createTrigger(db, table, "update", "NEW." + column);
+            createTrigger(db, table, "delete", "OLD." + column);
+        }
+    }
+
+    /** Drops the triggers for a bulk load; call {@link #install} and {@link #invalidateAll} after it. */
+    void uninstall(SQLiteDatabase db) {
+        for (String table : ID_COLUMNS.keySet()) {
+            for (String op : new String[]{"insert", "update", "delete"}) {
+                db.execSQL("DROP TRIGGER IF EXISTS temp.changed_" + table + "_" + op);
+            }
+        }
+    }
+
+    private static void createTrigger(SQLiteDatabase db, String table, String op, String id) {
+        db.execSQL("CREATE TEMP TRIGGER IF NOT EXISTS changed_" + table + "_" + op +
+                " AFTER " + op.toUpperCase(Locale.ROOT) + " ON main." + table + " BEGIN " +
+                "INSERT OR IGNORE INTO temp.changed_rows (table_name, row_id) " +
+                "VALUES ('" + table + "', " + id + "); END");
+    }
+
+    void markPending() {
+        pending.set(true);
+    }
+
+    /** Reports every tracked table as wholly changed at the next publish. */
+    void invalidateAll() {
+        pendingWholeTables.addAll(ID_COLUMNS.keySet());
+        pending.set(true);
+    }
+
+    /**
+     * Reads and clears the rows written by committed transactions and notifies the observers of their tables.
+     * Does nothing inside a transaction or when the database has not been opened for writing since last time.
+     * @return what was published, empty if nothing changed
+     */
+    ChangeSet publish(SQLiteDatabase db) {
+        if (db.inTransaction() || !pending.getAndSet(false)) {
+            return new ChangeSet(Collections.<String, Set<Integer>>emptyMap(), Collections.<String>emptySet());
+        }
+
+        Map<String, Set<Integer>> ids = new HashMap<>();
+        db.beginTransaction(); // the temp table is only on the primary connection, which a transaction pins
+        try {
+            Cursor cursor = db.rawQuery("SELECT table_name, row_id FROM temp.changed_rows", null);
+            try {
+                while (cursor.moveToNext()) {
+                    String table = cursor.getString(0);
+                    Set<Integer> tableIds = ids.get(table);
+                    if (tableIds == null) {
+                        tableIds = new HashSet<>();
+                        ids.put(table, tableIds);
+                    }
+                    tableIds.add(cursor.getInt(1));
+                }
+            } finally {
+                cursor.close();
+            }
+            if (!ids.isEmpty()) {
+                db.execSQL("DELETE FROM temp.changed_rows");
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+
+        Set<String> wholeTables;
+        synchronized (pendingWholeTables) {
+            wholeTables = new HashSet<>(pendingWholeTables);
+            pendingWholeTables.clear();
+        }
+        ids.keySet().removeAll(wholeTables);
+
+        ChangeSet changes = new ChangeSet(ids, wholeTables);
+        if (!changes.isEmpty()) {
+            for (Registration registration : registrations) {
+                ChangeSet seen = changes.onlyTables(registration.tables);
+                if (!seen.isEmpty()) {
+                    registration.executor.execute(() -> registration.observer.onChanged(seen));
+                }
+            }
+        }
+        return changes;
+    }
+}
@@ -12,7 +12,7 @@ public class LoginPage extends AppCompatActivity {
 
     private EditText usernameInput, passwordInput;
     private Button loginBtn;
-    private UserDatabaseHelper dbHelper;
+    private RosterRepository repository;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -24,8 +24,8 @@ public class LoginPage extends AppCompatActivity {
         passwordInput = findViewById(R.id.password_input);
         loginBtn = findViewById(R.id.login_btn);
 
-        // Initialize database helper
-        dbHelper = new UserDatabaseHelper(this);
+        // Initialize database access
+        repository = RosterRepository.getInstance(this);
 
         // login button
         loginBtn.setOnClickListener(v -> {
@@ -37,20 +37,19 @@ public class LoginPage extends AppCompatActivity {
                 return;
             }
 
-            // Check login credentials
-            if (validateLogin(username, password)) {
-                Toast.makeText(LoginPage.this, "Login successful!", Toast.LENGTH_SHORT).show();
-                // Navigate to next activity or screen
-                Intent intent = new Intent(LoginPage.this, HomePage.class);
-                intent.putExtra("username", username);
-                String role = dbHelper.getUserRole(username, password);
-                intent.putExtra("role", role);
-                startActivity(intent);
-                finish();
-
-            } else {
-                Toast.makeText(LoginPage.this, "Invalid username or password", Toast.LENGTH_SHORT).show();
-            }
+            // Check login credentials, session is null when they don't match
+            repository.login(username, password, session -> {
+                if (session != null) {
+                    Session.signIn(session);
+                    Toast.makeText(LoginPage.this, "Login successful!", Toast.LENGTH_SHORT).show();
+                    // Navigate to next activity or screen
+                    startActivity(new Intent(LoginPage.this, HomePage.class));
+                    finish();
+
+                } else {
+                    Toast.makeText(LoginPage.this, "Invalid username or password", Toast.LENGTH_SHORT).show();
+                }
+            });
         });
 
         // Register link listener
@@ -61,12 +60,5 @@ public class LoginPage extends AppCompatActivity {
         });*/
         //removed registration link
     }
-
-
-        // Validate user login credentials
-        private boolean validateLogin (String username, String password){
-            return dbHelper.validateLogin(username, password);
-        }
-
-    }
+}
 
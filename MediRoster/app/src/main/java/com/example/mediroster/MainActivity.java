@@ -1,11 +1,6 @@
 package com.example.mediroster;
 
-import android.content.ContentValues;
-import android.content.Context;
 import android.content.Intent;
-import android.database.Cursor;
-import android.database.sqlite.SQLiteDatabase;
-import android.database.sqlite.SQLiteOpenHelper;
 import android.os.Bundle;
 import android.widget.Button;
 
@@ -34,53 +29,4 @@ public class MainActivity extends AppCompatActivity {
         });
 
     }
-
-    public static class UserDatabaseHelper extends SQLiteOpenHelper {
-
-        private static final String DATABASE_NAME = "user_db";
-        private static final int DATABASE_VERSION = 1;
-
-        public static final String TABLE_USERS = "users";
-        public static final String COLUMN_USERNAME = "username";
-        public static final String COLUMN_PASSWORD = "password";
-
-        public UserDatabaseHelper(Context context) {
-            super(context, DATABASE_NAME, null, DATABASE_VERSION);
-        }
-
-        @Override
-        public void onCreate(SQLiteDatabase db) {
-            String CREATE_USERS_TABLE = "CREATE TABLE " + TABLE_USERS + "("
-                    + COLUMN_USERNAME + " TEXT PRIMARY KEY, "
-                    + COLUMN_PASSWORD + " TEXT)";
-            db.execSQL(CREATE_USERS_TABLE);
-
-            // Add a test user
-            ContentValues values = new ContentValues();
-            values.put(COLUMN_USERNAME, "testuser");
-            values.put(COLUMN_PASSWORD, "testpass");
-            db.insert(TABLE_USERS, null, values);
-        }
-
-        @Override
-        public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-            db.execSQL("DROP TABLE IF EXISTS " + TABLE_USERS);
-            onCreate(db);
-        }
-
-        // Function to check login
-        public boolean checkUser(String username, String password) {
-            SQLiteDatabase db = this.getReadableDatabase();
-            Cursor cursor = db.query(TABLE_USERS,
-                    new String[]{COLUMN_USERNAME},
-                    COLUMN_USERNAME + "=? AND " + COLUMN_PASSWORD + "=?",
-                    new String[]{username, password},
-                    null, null, null);
-
-            boolean result = cursor.getCount() > 0;
-            cursor.close();
-            db.close();
-            return result;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,158 @@
+package com.example.mediroster;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Slow-changing lists the admin screens fill their pickers from: operations, nurses and recent shifts.
+ * Each list is loaded on first use and then served from memory. UserDatabaseHelper patches the shift list
+ * as shifts are added or deleted. Lists are immutable snapshots, so screens can hold on to them safely.
+ */
+public class ReferenceCache {
+
+    /** Upper bound on cached shifts; older shifts beyond it are not offered in pickers. */
+    static final int MAX_SHIFTS = 500;
+
+    public interface Loader<T> {
+        T load();
+    }
+
+    public static final class Operation {
+        public final int operationId;
+        public final String name;
+
+        public Operation(int operationId, String name) {
+            this.operationId = operationId;
+            this.name = name;
+        }
+    }
+
+    public static final class Nurse {
+        public final String username;
+        public final String displayName;
+
+        public Nurse(String username, String displayName) {
+            this.username = username;
+            this.displayName = displayName;
+        }
+    }
+
+    public static final class Shift {
+        public final int shiftId;
+        public final int day;
+        public final int startMinute;
+        public final int endMinute;
+        public final String label; // built once here instead of on every screen open
+
+        public Shift(int shiftId, int day, int startMinute, int endMinute) {
+            this.shiftId = shiftId;
+            this.day = day;
+            this.startMinute = startMinute;
+            this.endMinute = endMinute;
+            this.label = shiftId + ": " + TimeCodec.formatDate(day) + " " +
+                    TimeCodec.formatMinuteOfDay(startMinute) + " - " + TimeCodec.formatMinuteOfDay(endMinute);
+        }
+
+        boolean sortsBefore(Shift other) {
+            if (day != other.day) return day < other.day;
+            if (startMinute != other.startMinute) return startMinute < other.startMinute;
+            return shiftId < other.shiftId;
+        }
+    }
+
+    private List<Operation> operations;
+    private List<Nurse> nurses;
+    private List<Shift> shifts;
+    private int shiftsFromDay;
+    private int hits;
+    private int misses;
+
+    public synchronized List<Operation> getOperations(Loader<List<Operation>> loader) {
+        if (operations == null) {
+            misses++;
+            operations = Collections.unmodifiableList(loader.load());
+        } else {
+            hits++;
+        }
+        return operations;
+    }
+
+    public synchronized List<Nurse> getNurses(Loader<List<Nurse>> loader) {
+        if (nurses == null) {
+            misses++;
+            nurses = Collections.unmodifiableList(loader.load());
+        } else {
+            hits++;
+        }
+        return nurses;
+    }
+
+    /** Shifts on or after {@code fromDay}, ordered by date and start; reloaded when the window moves. */
+    public synchronized List<Shift> getShifts(int fromDay, Loader<List<Shift>> loader) {
+        if (shifts == null || shiftsFromDay != fromDay) {
+            misses++;
+            shifts = Collections.unmodifiableList(loader.load());
+            shiftsFromDay = fromDay;
+        } else {
+            hits++;
+        }
+        return shifts;
+    }
+
+    synchronized void shiftAdded(Shift shift) {
+        if (shifts == null || shift.day < shiftsFromDay) {
+            return;
+        }
+        List<Shift> updated = new ArrayList<>(shifts);
+        int position = 0;
+        while (position < updated.size() && updated.get(position).sortsBefore(shift)) {
+            position++;
+        }
+        if (position == updated.size() && updated.size() >= MAX_SHIFTS) {
+            return; // falls after a full list, so it would not have been loaded either
+        }
+        updated.add(position, shift);
+        if (updated.size() > MAX_SHIFTS) {
+            updated.remove(updated.size() - 1);
+        }
+        shifts = Collections.unmodifiableList(updated);
+    }
+
+    synchronized void shiftRemoved(int shiftId) {
+        if (shifts == null) {
+            return;
+        }
+        if (shifts.size() >= MAX_SHIFTS) {
+            shifts = null; // a full list has more rows behind it; reload rather than come up one short
+            return;
+        }
+        List<Shift> updated = new ArrayList<>(shifts.size());
+        for (Shift shift : shifts) {
+            if (shift.shiftId != shiftId) {
+                updated.add(shift);
+            }
+        }
+        shifts = Collections.unmodifiableList(updated);
+    }
+
+    /** Drops every list, e.g. after a bulk load; the next getter reloads. */
+    synchronized void clear() {
+        operations = null;
+        nurses = null;
+        shifts = null;
+    }
+
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ReferenceCache{hits=" + hits + ", misses=" + misses + "}";
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.mediroster;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes rosters for a date range out of the database as they are read. Each export is one forward pass over a
+ * cursor, which SQLite fills a window at a time, feeding a streaming writer, so a year costs the same heap as a day.
+ */
+class RosterExporter {
+
+    private final UserDatabaseHelper helper;
+
+    RosterExporter(UserDatabaseHelper helper) {
+        this.helper = helper;
+    }
+
+    /** One CSV row per nurse per case, in date and shift order. @return rows written */
+    int exportCsv(int fromDay, int toDay, Writer out) throws IOException {
+        RosterCsvWriter csv = new RosterCsvWriter(out);
+        SQLiteDatabase db = helper.getReadableDatabase();
+        Cursor cursor = db.rawQuery(UserDatabaseHelper.SQL_ROSTER_EXPORT,
+                new String[]{String.valueOf(fromDay), String.valueOf(toDay)});
+        int rows = 0;
+        try {
+            while (cursor.moveToNext()) {
+                csv.writeRow(cursor.getInt(0), cursor.getInt(1), cursor.getInt(2), cursor.getString(3),
+                        cursor.getString(4), cursor.getInt(5), cursor.getString(6), cursor.getString(7));
+                rows++;
+            }
+        } finally {
+            cursor.close();
+        }
+        out.flush();
+        return rows;
+    }
+
+    /**
+     * A zip with one .ics per nurse who has cases in the range, named after the username.
+     * @return events written across all calendars
+     */
+    int exportCalendars(int fromDay, int toDay, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+        int events = 0;
+        for (ReferenceCache.Nurse nurse : helper.getNurses()) {
+            Cursor cursor = queryCalendar(nurse.username, fromDay, toDay);
+            try {
+                if (!cursor.moveToFirst()) {
+                    continue;
+                }
+                zip.putNextEntry(new ZipEntry(nurse.username + ".ics"));
+                events += writeCalendar(cursor, nurse.username, nurse.displayName, writer);
+                zip.closeEntry();
+            } finally {
+                cursor.close();
+            }
+        }
+        zip.finish();
+        return events;
+    }
+
+    private Cursor queryCalendar(String username, int fromDay, int toDay) {
+        return helper.getReadableDatabase().rawQuery(UserDatabaseHelper.SQL_NURSE_SCHEDULE_RANGE,
+                new String[]{username, String.valueOf(fromDay), String.valueOf(toDay)});
+    }
+
+    private static int writeCalendar(Cursor cursor, String username, String displayName, Writer out)
+            throws IOException {
+        ICalendarWriter calendar = new ICalendarWriter(out, "MediRoster - " + displayName, Instant.now());
+        int events = 0;
+        if (cursor.moveToFirst()) {
+            do {
+                int caseId = cursor.getInt(3);
+                calendar.writeEvent(caseId + "-" + username + "@mediroster", cursor.getInt(0), cursor.getInt(1),
+                        cursor.getInt(2), cursor.getString(4), null);
+                events++;
+            } while (cursor.moveToNext());
+        }
+        calendar.finish();
+        return events;
+    }
+}
@@ -0,0 +1,323 @@
+package com.example.mediroster;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Asynchronous front for UserDatabaseHelper.
+ * Every call runs on one database thread and its result is posted back to the main thread,
+ * so Activities never touch SQLite from the UI thread. The helper maps rows to immutable values
+ * and closes its cursors on the database thread; only those values cross over.
+ * After each call the rows it changed are published to {@link #observe} subscribers, also on the main thread.
+ */
+public class RosterRepository {
+
+    private static final String TAG = "RosterRepository";
+
+    public interface Callback<T> {
+        void onResult(T result);
+
+        default void onError(Exception e) {
+            Log.e(TAG, "Database call failed", e);
+        }
+    }
+
+    /** A unit of database work, for screens that need several helper calls in one trip. */
+    public interface Work<T> {
+        T run(UserDatabaseHelper db);
+    }
+
+    private static RosterRepository instance;
+
+    private final UserDatabaseHelper dbHelper;
+    private final ExecutorService dbExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "mediroster-db"));
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public static synchronized RosterRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new RosterRepository(UserDatabaseHelper.getInstance(context));
+        }
+        return instance;
+    }
+
+    RosterRepository(UserDatabaseHelper dbHelper) {
+        this.dbHelper = dbHelper;
+    }
+
+    public <T> void execute(Work<T> work, Callback<T> callback) {
+        dbExecutor.execute(() -> {
+            try {
+                T result = work.run(dbHelper);
+                mainHandler.post(() -> callback.onResult(result));
+            } catch (Exception e) {
+                mainHandler.post(() -> callback.onError(e));
+            } finally {
+                dbHelper.publishChanges(); // whatever committed before a failure is still reported
+            }
+        });
+    }
+
+    /** Blocks until the calls queued so far have run and posted their results to the main thread; for tests. */
+    void awaitIdle(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        dbExecutor.submit(() -> { }).get(timeout, unit);
+    }
+
+    /** Calls {@code observer} on the main thread with the rows of {@code tables} that each call changes. */
+    public void observe(InvalidationTracker.Observer observer, String... tables) {
+        dbHelper.getInvalidationTracker().addObserver(observer, mainHandler::post, tables);
+    }
+
+    public void stopObserving(InvalidationTracker.Observer observer) {
+        dbHelper.getInvalidationTracker().removeObserver(observer);
+    }
+
+    // Users
+
+    public void login(String username, String password, Callback<Session> callback) {
+        execute(db -> db.login(username, password), callback);
+    }
+
+    public void getDisplayName(String username, Callback<String> callback) {
+        execute(db -> db.getDisplayName(username), callback);
+    }
+
+    public void getNurses(Callback<List<ReferenceCache.Nurse>> callback) {
+        execute(UserDatabaseHelper::getNurses, callback);
+    }
+
+    // Presence
+
+    public void markNursePresent(String username, int day, Callback<Boolean> callback) {
+        execute(db -> db.markNursePresent(username, day), callback);
+    }
+
+    public void clearTodayPresence(int day, Callback<Void> callback) {
+        execute(db -> {
+            db.clearTodayPresence(day);
+            return null;
+        }, callback);
+    }
+
+    public void savePresence(int day, Collection<String> present, Callback<PresenceChange> callback) {
+        execute(db -> db.savePresence(day, present), callback);
+    }
+
+    public void getPresentNurses(int day, Callback<List<String>> callback) {
+        execute(db -> db.getPresentNurses(day), callback);
+    }
+
+    // Shifts
+
+    public void getRecentShifts(Callback<List<ReferenceCache.Shift>> callback) {
+        execute(UserDatabaseHelper::getRecentShifts, callback);
+    }
+
+    public void getShiftsOnDay(int day, Callback<List<ReferenceCache.Shift>> callback) {
+        execute(db -> db.getShiftsOnDay(day), callback);
+    }
+
+    public void getShiftById(int shiftId, Callback<ReferenceCache.Shift> callback) {
+        execute(db -> db.getShiftById(shiftId), callback);
+    }
+
+    public void insertShift(int day, int startMinute, int endMinute, Callback<Boolean> callback) {
+        execute(db -> db.insertShift(day, startMinute, endMinute), callback);
+    }
+
+    public void deleteShift(int shiftId, Callback<Boolean> callback) {
+        execute(db -> db.deleteShift(shiftId), callback);
+    }
+
+    public void shiftOverlaps(int day, int startMinute, int endMinute, Callback<Boolean> callback) {
+        execute(db -> db.shiftOverlaps(day, startMinute, endMinute), callback);
+    }
+
+    // Cases
+
+    public void getRecentCases(int beforeCaseId, int limit, Callback<List<CaseSummary>> callback) {
+        execute(db -> db.getRecentCases(beforeCaseId, limit), callback);
+    }
+
+    public void getCaseById(int caseId, Callback<CaseDetails> callback) {
+        execute(db -> db.getCaseById(caseId), callback);
+    }
+
+    public void getCaseWithShift(int caseId, Callback<CaseWithShift> callback) {
+        execute(db -> db.getCaseWithShift(caseId), callback);
+    }
+
+    public void getCasesForDate(int day, Callback<List<CaseSummary>> callback) {
+        execute(db -> db.getCasesForDate(day), callback);
+    }
+
+    public void getCasesForUserOnDate(String username, int day, Callback<List<CaseSummary>> callback) {
+        execute(db -> db.getCasesForUserOnDate(username, day), callback);
+    }
+
+    /** The whole day's staffing in one query, understaffed cases first. */
+    public void getDayCoverage(int day, Callback<List<CaseCoverage>> callback) {
+        execute(db -> db.getDayCoverage(day), callback);
+    }
+
+    public void getCaseCoverage(int day, Collection<Integer> caseIds, Callback<List<CaseCoverage>> callback) {
+        execute(db -> db.getCaseCoverage(day, caseIds), callback);
+    }
+
+    public void getCaseSummaries(Collection<Integer> caseIds, Callback<List<CaseSummary>> callback) {
+        execute(db -> db.getCaseSummaries(caseIds), callback);
+    }
+
+    public void isAssignedToAnyOn(String username, int day, Collection<Integer> caseIds, Callback<Boolean> callback) {
+        execute(db -> db.isAssignedToAnyOn(username, day, caseIds), callback);
+    }
+
+    /** The case numbered {@code input}, if any, then the search matches; see UserDatabaseHelper#findCases. */
+    public void findCases(String input, int limit, Callback<List<CaseSummary>> callback) {
+        execute(db -> db.findCases(input, limit), callback);
+    }
+
+    /** Best matches first; an input with no words gives an empty list. */
+    public void searchCases(String input, int limit, Callback<List<CaseSearchResult>> callback) {
+        execute(db -> db.searchCases(input, limit), callback);
+    }
+
+    public void getCasesForDatePage(int day, CaseRow after, int limit, Callback<List<CaseRow>> callback) {
+        execute(db -> db.getCasesForDatePage(day, after, limit), callback);
+    }
+
+    public void getCasesForUserOnDatePage(String username, int day, CaseRow after, int limit,
+                                          Callback<List<CaseRow>> callback) {
+        execute(db -> db.getCasesForUserOnDatePage(username, day, after, limit), callback);
+    }
+
+    public void getNurseSchedule(String username, int day, Callback<List<ScheduleAdapter.Entry>> callback) {
+        execute(db -> db.getNurseSchedule(username, day), callback);
+    }
+
+    public void getNursesAssignedToCase(int caseId, Callback<List<String>> callback) {
+        execute(db -> db.getNursesAssignedToCase(caseId), callback);
+    }
+
+    public void addCase(String description, int shiftId, int startMinute, int endMinute, String operation,
+                        Callback<Long> callback) {
+        execute(db -> db.addCase(description, shiftId, startMinute, endMinute, operation), callback);
+    }
+
+    public void updateCase(int caseId, String description, int shiftId, int requiredNurses, Callback<Boolean> callback) {
+        execute(db -> db.updateCase(caseId, description, shiftId, requiredNurses), callback);
+    }
+
+    public void deleteCase(int caseId, Callback<Boolean> callback) {
+        execute(db -> db.deleteCase(caseId), callback);
+    }
+
+    // Operations
+
+    public void getOperations(Callback<List<ReferenceCache.Operation>> callback) {
+        execute(UserDatabaseHelper::getOperations, callback);
+    }
+
+    // Assignment
+
+    public void autoAssignNursesToCase(int caseId, int day, int startMinute, int endMinute, Callback<Void> callback) {
+        execute(db -> {
+            db.autoAssignNursesToCase(caseId, day, startMinute, endMinute);
+            return null;
+        }, callback);
+    }
+
+    /** Re-solves only what the changes touch; see IncrementalScheduler. */
+    public void updateRoster(int day, List<RosterChange> changes, Callback<RosterDelta> callback) {
+        execute(db -> db.updateRoster(day, changes), callback);
+    }
+
+    public void reassignAllCases(int day, Callback<BulkWriteResult> callback) {
+        execute(db -> db.reassignAllCases(day), callback);
+    }
+
+    /** Reassigns the day and improves it for about {@code budgetMillis}; see RosterOptimizer. */
+    public void optimizeDay(int day, long budgetMillis, Callback<RosterOptimizer.Result> callback) {
+        execute(db -> db.optimizeDay(day, budgetMillis), callback);
+    }
+
+    /** Re-solves fromDay..toDay inclusive, solving the days in parallel. */
+    public void reassignCases(int fromDay, int toDay, Callback<BulkWriteResult> callback) {
+        execute(db -> db.reassignCases(fromDay, toDay), callback);
+    }
+
+    // Import
+
+    /** Streams the CSV behind {@code uri} into the database; see CsvImporter for the accepted columns. */
+    public void importCsv(ContentResolver resolver, Uri uri, Callback<ImportReport> callback) {
+        execute(db -> {
+            try {
+                InputStream in = resolver.openInputStream(uri);
+                if (in == null) {
+                    throw new FileNotFoundException("Cannot open " + uri);
+                }
+                try (Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                    return new CsvImporter(db).importCsv(reader);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e.getMessage(), e);
+            }
+        }, callback);
+    }
+
+    // Export
+
+    /** Writes the roster for [fromDay, toDay] as CSV to {@code uri}; the callback gets the row count. */
+    public void exportCsv(ContentResolver resolver, Uri uri, int fromDay, int toDay, Callback<Integer> callback) {
+        execute(db -> {
+            try (Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(openOutput(resolver, uri), StandardCharsets.UTF_8))) {
+                return new RosterExporter(db).exportCsv(fromDay, toDay, writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e.getMessage(), e);
+            }
+        }, callback);
+    }
+
+    /** Writes a zip of per-nurse .ics calendars for [fromDay, toDay] to {@code uri}; the callback gets the event count. */
+    public void exportCalendars(ContentResolver resolver, Uri uri, int fromDay, int toDay, Callback<Integer> callback) {
+        execute(db -> {
+            try (OutputStream out = openOutput(resolver, uri)) {
+                return new RosterExporter(db).exportCalendars(fromDay, toDay, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e.getMessage(), e);
+            }
+        }, callback);
+    }
+
+    private static OutputStream openOutput(ContentResolver resolver, Uri uri) throws IOException {
+        OutputStream out = resolver.openOutputStream(uri);
+        if (out == null) {
+            throw new FileNotFoundException("Cannot open " + uri);
+        }
+        return out;
+    }
+}
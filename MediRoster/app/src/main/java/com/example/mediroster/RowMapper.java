@@ -0,0 +1,24 @@
+package com.example.mediroster;
+
+import android.database.Cursor;
+
+/**
+ * Turns the rows of one query into values. {@link #bind} runs once per query and looks up whatever column
+ * indexes it needs, so the returned {@link Row} reads each row with plain positional gets.
+ */
+public interface RowMapper<T> {
+
+    interface Row<T> {
+        T read(Cursor cursor);
+    }
+
+    Row<T> bind(Cursor cursor);
+
+    /** The first column as a string, for single-column queries. */
+    RowMapper<String> FIRST_STRING = cursor -> row -> row.getString(0);
+
+    /** A mapper for queries whose columns are fixed by position, which need no lookup at all. */
+    static <T> RowMapper<T> positional(Row<T> row) {
+        return cursor -> row;
+    }
+}
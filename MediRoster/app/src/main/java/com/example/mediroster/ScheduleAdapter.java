@@ -0,0 +1,90 @@
+package com.example.mediroster;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.Objects;
+
+/**
+ * A nurse's cases for one day, as read from nurse_schedule, for MyShiftsPage.
+ */
+public class ScheduleAdapter extends ListAdapter<ScheduleAdapter.Entry, ScheduleAdapter.EntryViewHolder> {
+
+    public static final class Entry {
+        final int caseId;
+        final String description;
+        final String times; // formatted once on the database thread, not on every bind
+
+        Entry(int caseId, String description, String times) {
+            this.caseId = caseId;
+            this.description = description;
+            this.times = times;
+        }
+
+        /** Reads {@link UserDatabaseHelper#SQL_NURSE_SCHEDULE} rows. */
+        static final RowMapper<Entry> MAPPER = RowMapper.positional(cursor -> new Entry(cursor.getInt(0),
+                cursor.getString(1),
+                TimeCodec.formatMinuteOfDay(cursor.getInt(2)) + " - " + TimeCodec.formatMinuteOfDay(cursor.getInt(3))));
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Entry)) return false;
+            Entry other = (Entry) o;
+            return caseId == other.caseId && Objects.equals(description, other.description) && times.equals(other.times);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(caseId, description, times);
+        }
+    }
+
+    private static final DiffUtil.ItemCallback<Entry> DIFF = new DiffUtil.ItemCallback<Entry>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Entry oldItem, @NonNull Entry newItem) {
+            return oldItem.caseId == newItem.caseId;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Entry oldItem, @NonNull Entry newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
+    public ScheduleAdapter() {
+        super(DIFF);
+    }
+
+    @NonNull
+    @Override
+    public EntryViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_schedule_row, parent, false);
+        return new EntryViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull EntryViewHolder holder, int position) {
+        Entry entry = getItem(position);
+        holder.title.setText("🏥 " + entry.description);
+        holder.subtitle.setText("🕒 " + entry.times);
+    }
+
+    static class EntryViewHolder extends RecyclerView.ViewHolder {
+        final TextView title;
+        final TextView subtitle;
+
+        EntryViewHolder(View itemView) {
+            super(itemView);
+            title = itemView.findViewById(R.id.case_title);
+            subtitle = itemView.findViewById(R.id.case_subtitle);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.mediroster;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.widget.EditText;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.Collections;
+
+/** Finds cases by words in their description, operation or assigned nurses' names, as the admin types. */
+public class SearchCasesPage extends AppCompatActivity {
+
+    private static final int SEARCH_LIMIT = 50;
+    private static final long TYPING_DELAY_MS = 150; // wait for a pause in typing rather than query every key
+
+    private EditText searchInput;
+    private SearchResultAdapter adapter;
+    private RosterRepository repository;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable runSearch = this::search;
+    private int searchSeq; // results from an older search than this are dropped
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_search_cases);
+
+        repository = RosterRepository.getInstance(this);
+        searchInput = findViewById(R.id.search_input);
+        RecyclerView results = findViewById(R.id.search_results);
+
+        adapter = new SearchResultAdapter(result -> {
+            Intent detailIntent = new Intent(SearchCasesPage.this, ViewCaseDetailsPage.class);
+            detailIntent.putExtra("case_id", result.caseId);
+            startActivity(detailIntent);
+        });
+        results.setLayoutManager(new LinearLayoutManager(this));
+        results.setAdapter(adapter);
+
+        searchInput.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                handler.removeCallbacks(runSearch);
+                handler.postDelayed(runSearch, TYPING_DELAY_MS);
+            }
+        });
+    }
+
+    @Override
+    protected void onDestroy() {
+        handler.removeCallbacks(runSearch);
+        super.onDestroy();
+    }
+
+    private void search() {
+        String input = searchInput.getText().toString();
+        int seq = ++searchSeq;
+        if (SearchQuery.toMatch(input) == null) {
+            adapter.submitList(Collections.emptyList());
+            return;
+        }
+        repository.searchCases(input, SEARCH_LIMIT, found -> {
+            if (seq == searchSeq) {
+                adapter.submitList(found);
+            }
+        });
+    }
+}
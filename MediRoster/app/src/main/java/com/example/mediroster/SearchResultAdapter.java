@@ -0,0 +1,74 @@
+package com.example.mediroster;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+/** Results for SearchCasesPage; each keystroke's results are diffed against the last so the list doesn't flash. */
+public class SearchResultAdapter extends ListAdapter<CaseSearchResult, SearchResultAdapter.ResultViewHolder> {
+
+    public interface OnResultClickListener {
+        void onResultClick(CaseSearchResult result);
+    }
+
+    private static final DiffUtil.ItemCallback<CaseSearchResult> DIFF = new DiffUtil.ItemCallback<CaseSearchResult>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull CaseSearchResult oldItem, @NonNull CaseSearchResult newItem) {
+            return oldItem.caseId == newItem.caseId;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull CaseSearchResult oldItem, @NonNull CaseSearchResult newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
+    private final OnResultClickListener listener;
+
+    public SearchResultAdapter(OnResultClickListener listener) {
+        super(DIFF);
+        this.listener = listener;
+    }
+
+    @NonNull
+    @Override
+    public ResultViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_case_row, parent, false);
+        return new ResultViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ResultViewHolder holder, int position) {
+        CaseSearchResult result = getItem(position);
+        holder.title.setText("Case ID " + result.caseId + ": " + result.description);
+
+        StringBuilder subtitle = new StringBuilder()
+                .append(TimeCodec.formatDate(result.day)).append(' ')
+                .append(TimeCodec.formatMinuteOfDay(result.startMinute));
+        if (result.operation != null && !result.operation.isEmpty()) {
+            subtitle.append(", ").append(result.operation);
+        }
+        if (!result.nurseNames.isEmpty()) {
+            subtitle.append("\nNurses: ").append(result.nurseNames);
+        }
+        holder.subtitle.setText(subtitle);
+        holder.itemView.setOnClickListener(v -> listener.onResultClick(result));
+    }
+
+    static class ResultViewHolder extends RecyclerView.ViewHolder {
+        final TextView title;
+        final TextView subtitle;
+
+        ResultViewHolder(View itemView) {
+            super(itemView);
+            title = itemView.findViewById(R.id.case_title);
+            subtitle = itemView.findViewById(R.id.case_subtitle);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.mediroster;
+
+/**
+ * The signed-in user, read once at login and shared by every screen for the life of the process.
+ * Screens read it through {@link #current()} instead of passing username/role extras or re-querying users.
+ */
+public final class Session {
+
+    private static volatile Session current;
+
+    public final String username;
+    public final String role;
+    public final String displayName;
+
+    Session(String username, String role, String displayName) {
+        this.username = username;
+        this.role = role;
+        this.displayName = displayName;
+    }
+
+    /** @return the signed-in user, or null before login or after the process was restarted */
+    public static Session current() {
+        return current;
+    }
+
+    static void signIn(Session session) {
+        current = session;
+    }
+
+    public static void signOut() {
+        current = null;
+    }
+
+    public boolean isAdmin() {
+        return "admin".equalsIgnoreCase(role);
+    }
+
+    public boolean isNurse() {
+        return "nurse".equalsIgnoreCase(role);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.mediroster;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+/**
+ * Writes generated rows through one compiled statement per table, committing every {@link #BATCH_ROWS} rows.
+ * Batching keeps the WAL small on year-long datasets while still paying one sync per batch, not per row.
+ * Users, operations and presence skip rows that already exist, so seeding on top of the demo data only adds to it.
+ */
+class SqliteSeedSink implements HospitalDataGenerator.Sink {
+
+    static final int BATCH_ROWS = 10_000;
+
+    private final SQLiteDatabase db;
+    private final SQLiteStatement insertUser;
+    private final SQLiteStatement insertOperation;
+    private final SQLiteStatement insertShift;
+    private final SQLiteStatement insertCase;
+    private final SQLiteStatement insertPresence;
+    private final SQLiteStatement insertAssignment;
+    private boolean inTransaction;
+    private int pending;
+
+    SqliteSeedSink(SQLiteDatabase db) {
+        this.db = db;
+        insertUser = db.compileStatement(
+                "INSERT OR IGNORE INTO users (username, password, role, display_name) VALUES (?, ?, ?, ?)");
+        insertOperation = db.compileStatement("INSERT INTO operations (operation_name) " +
+                "SELECT ? WHERE NOT EXISTS (SELECT 1 FROM operations WHERE operation_name = ?)");
+        insertShift = db.compileStatement("INSERT INTO shifts (date, start_time, end_time) VALUES (?, ?, ?)");
+        insertCase = db.compileStatement("INSERT INTO cases " +
+                "(description, required_nurses, scheduled_shift_id, operation, start_time, end_time) " +
+                "VALUES (?, ?, ?, ?, ?, ?)");
+        insertPresence = db.compileStatement("INSERT OR IGNORE INTO presence (username, date) VALUES (?, ?)");
+        insertAssignment = db.compileStatement("INSERT INTO assignments (case_id, user_id) VALUES (?, ?)");
+    }
+
+    @Override
+    public void user(String username, String password, String role, String displayName) {
+        begin();
+        insertUser.bindString(1, username);
+        insertUser.bindString(2, password);
+        insertUser.bindString(3, role);
+        insertUser.bindString(4, displayName);
+        insertUser.executeInsert();
+        written();
+    }
+
+    @Override
+    public void operation(String name) {
+        begin();
+        insertOperation.bindString(1, name);
+        insertOperation.bindString(2, name);
+        insertOperation.executeInsert();
+        written();
+    }
+
+    @Override
+    public long shift(int day, int startMinute, int endMinute) {
+        begin();
+        insertShift.bindLong(1, day);
+        insertShift.bindLong(2, startMinute);
+        insertShift.bindLong(3, endMinute);
+        long shiftId = insertShift.executeInsert();
+        written();
+        return shiftId;
+    }
+
+    @Override
+    public long addCase(String description, int requiredNurses, long shiftId, String operation,
+                        int startMinute, int endMinute) {
+        begin();
+        insertCase.bindString(1, description);
+        insertCase.bindLong(2, requiredNurses);
+        insertCase.bindLong(3, shiftId);
+        insertCase.bindString(4, operation);
+        insertCase.bindLong(5, startMinute);
+        insertCase.bindLong(6, endMinute);
+        long caseId = insertCase.executeInsert();
+        written();
+        return caseId;
+    }
+
+    @Override
+    public void presence(String username, int day) {
+        begin();
+        insertPresence.bindString(1, username);
+        insertPresence.bindLong(2, day);
+        insertPresence.executeInsert();
+        written();
+    }
+
+    @Override
+    public void assignment(long caseId, String username) {
+        begin();
+        insertAssignment.bindLong(1, caseId);
+        insertAssignment.bindString(2, username);
+        insertAssignment.executeInsert();
+        written();
+    }
+
+    /** Commits the open batch; call once generation has finished. */
+    void commit() {
+        if (inTransaction) {
+            db.setTransactionSuccessful();
+            db.endTransaction();
+            inTransaction = false;
+            pending = 0;
+        }
+    }
+
+    /** Rolls back anything written since the last commit and frees the statements. */
+    void close() {
+        if (inTransaction) {
+            db.endTransaction();
+            inTransaction = false;
+        }
+        insertUser.close();
+        insertOperation.close();
+        insertShift.close();
+        insertCase.close();
+        insertPresence.close();
+        insertAssignment.close();
+    }
+
+    private void begin() { // opened lazily, so a sink that has committed leaves no transaction behind
+        if (!inTransaction) {
+            db.beginTransaction();
+            inTransaction = true;
+        }
+    }
+
+    private void written() {
+        if (++pending >= BATCH_ROWS) {
+            commit();
+        }
+    }
+}
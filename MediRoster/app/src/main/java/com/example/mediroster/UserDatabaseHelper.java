@@ -2,326 +2,1242 @@ package com.example.mediroster;
 
 import android.content.ContentValues;
 import android.content.Context;
+import android.database.AbstractWindowedCursor;
 import android.database.Cursor;
+import android.database.CursorWindow;
+import android.database.DatabaseUtils;
+import android.os.Build;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 public class UserDatabaseHelper extends SQLiteOpenHelper {
 
     private static final String DATABASE_NAME = "user_db";
-    private static final int DATABASE_VERSION = 1;
+    private static final int DATABASE_VERSION = RosterSchema.VERSION;
+
+    // Filtered queries, kept here so QueryPlanTest can check each one against the indexes below
+    static final String SQL_LOGIN = "SELECT role, display_name FROM users WHERE username = ? AND password = ?";
+    static final String SQL_DISPLAY_NAME = "SELECT display_name FROM users WHERE username = ?";
+    static final String SQL_ALL_NURSES = "SELECT username, display_name FROM users WHERE role = 'nurse'";
+    static final String SQL_SHIFT_BY_ID = "SELECT * FROM shifts WHERE shift_id = ?";
+    static final String SQL_DAY_SHIFTS = RosterSchema.DAY_SHIFTS;
+    static final String SQL_SHIFTS_ON_DAY =
+            "SELECT shift_id, date, start_time, end_time FROM shifts WHERE date = ? ORDER BY start_time, shift_id";
+    static final String SQL_RECENT_SHIFTS =
+            "SELECT shift_id, date, start_time, end_time FROM shifts WHERE date >= ? ORDER BY date, start_time, shift_id LIMIT ?";
+    static final String SQL_CASE_BY_ID = "SELECT * FROM cases WHERE case_id = ?";
+    static final String SQL_CASES_IN_SHIFT = "SELECT * FROM cases WHERE scheduled_shift_id = ?";
+    static final String SQL_REQUIRED_NURSES = RosterSchema.REQUIRED_NURSES;
+    static final String SQL_PRESENT_NURSES = "SELECT username FROM presence WHERE date = ?";
+    static final String SQL_CASE_DAY =
+            "SELECT s.date FROM cases c JOIN shifts s ON c.scheduled_shift_id = s.shift_id WHERE c.case_id = ?";
+    // {day, start, end} of the case under its own shift, or under the shift passed first; times fall back as in SQL_ROSTER_CASES
+    static final String SQL_CASE_TIMES =
+            "SELECT s.date, COALESCE(c.start_time, s.start_time), COALESCE(c.end_time, s.end_time) " +
+                    "FROM cases c JOIN shifts s ON c.scheduled_shift_id = s.shift_id WHERE c.case_id = ?";
+    static final String SQL_CASE_TIMES_IN_SHIFT =
+            "SELECT s.date, COALESCE(c.start_time, s.start_time), COALESCE(c.end_time, s.end_time) " +
+                    "FROM cases c JOIN shifts s ON s.shift_id = ? WHERE c.case_id = ?";
+    static final String SQL_CASE_WITH_SHIFT =
+            "SELECT c.description, s.date, s.start_time, s.end_time FROM cases c JOIN shifts s ON c.scheduled_shift_id = s.shift_id WHERE c.case_id = ?";
+    static final String SQL_CASES_FOR_DATE =
+            "SELECT c.case_id, c.description FROM cases c JOIN shifts s ON c.scheduled_shift_id = s.shift_id WHERE s.date = ?";
+    static final String SQL_CASES_FOR_USER_ON_DATE =
+            "SELECT c.case_id, c.description FROM assignments a JOIN cases c ON a.case_id = c.case_id JOIN shifts s ON c.scheduled_shift_id = s.shift_id WHERE a.user_id = ? AND s.date = ?";
+    // Keyset pages: the caller passes the last row's (start, case_id) and gets the rows after it
+    static final String SQL_CASES_FOR_DATE_PAGE =
+            "SELECT c.case_id, c.description, COALESCE(c.start_time, s.start_time) AS start_time " +
+                    "FROM cases c JOIN shifts s ON c.scheduled_shift_id = s.shift_id " +
+                    "WHERE s.date = ? AND (COALESCE(c.start_time, s.start_time) > ? " +
+                    "OR (COALESCE(c.start_time, s.start_time) = ? AND c.case_id > ?)) " +
+                    "ORDER BY start_time, c.case_id LIMIT ?";
+    static final String SQL_CASES_FOR_USER_ON_DATE_PAGE =
+            "SELECT c.case_id, c.description, COALESCE(c.start_time, s.start_time) AS start_time " +
+                    "FROM assignments a JOIN cases c ON a.case_id = c.case_id " +
+                    "JOIN shifts s ON c.scheduled_shift_id = s.shift_id " +
+                    "WHERE a.user_id = ? AND s.date = ? AND (COALESCE(c.start_time, s.start_time) > ? " +
+                    "OR (COALESCE(c.start_time, s.start_time) = ? AND c.case_id > ?)) " +
+                    "ORDER BY start_time, c.case_id LIMIT ?";
+    static final String SQL_USER_CASE_ON_DATE_IN = // IN (?) is widened per call
+            "SELECT a.case_id FROM assignments a JOIN cases c ON a.case_id = c.case_id " +
+                    "JOIN shifts s ON c.scheduled_shift_id = s.shift_id " +
+                    "WHERE a.user_id = ? AND s.date = ? AND a.case_id IN (?) LIMIT 1";
+    static final String SQL_RECENT_CASES_PAGE =
+            "SELECT case_id, description FROM cases WHERE case_id < ? ORDER BY case_id DESC LIMIT ?";
+    static final String SQL_NURSE_SCHEDULE = // one primary-key range read; triggers keep nurse_schedule current
+            "SELECT case_id, description, start_time, end_time FROM nurse_schedule " +
+                    "WHERE user_id = ? AND date = ? ORDER BY start_time";
+    // Export walks come straight off the date index in date order, so SQLite never sorts the range
+    static final String SQL_ROSTER_EXPORT =
+            "SELECT s.date, COALESCE(c.start_time, s.start_time), COALESCE(c.end_time, s.end_time), " +
+                    "a.user_id, u.display_name, c.case_id, c.operation, c.description " +
+                    "FROM shifts s JOIN cases c ON c.scheduled_shift_id = s.shift_id " +
+                    "JOIN assignments a ON a.case_id = c.case_id " +
+                    "JOIN users u ON a.user_id = u.username " +
+                    "WHERE s.date BETWEEN ? AND ? ORDER BY s.date, s.start_time, s.end_time, s.shift_id";
+    static final String SQL_NURSE_SCHEDULE_RANGE =
+            "SELECT date, start_time, end_time, case_id, description FROM nurse_schedule " +
+                    "WHERE user_id = ? AND date BETWEEN ? AND ? ORDER BY date, start_time";
+    static final String SQL_NURSES_ON_CASE =
+            "SELECT u.display_name FROM assignments a " +
+                    "JOIN users u ON a.user_id = u.username " +
+                    "WHERE a.case_id = ?";
+    // One row per case on the day with its staffing; cases stored without a count need one nurse, as when rostering
+    static final String SQL_DAY_COVERAGE =
+            "SELECT c.case_id, c.description, COALESCE(c.start_time, s.start_time), " +
+                    "COALESCE(c.end_time, s.end_time), " +
+                    "CASE WHEN c.required_nurses > 0 THEN c.required_nurses ELSE 1 END, " +
+                    "COUNT(a.user_id), GROUP_CONCAT(COALESCE(u.display_name, a.user_id), ', ') " +
+                    "FROM shifts s JOIN cases c ON c.scheduled_shift_id = s.shift_id " +
+                    "LEFT JOIN assignments a ON a.case_id = c.case_id " +
+                    "LEFT JOIN users u ON a.user_id = u.username " +
+                    "WHERE s.date = ? GROUP BY c.case_id";
+    static final String SQL_CASE_COVERAGE =
+            "SELECT c.case_id, c.description, COALESCE(c.start_time, s.start_time), " +
+                    "COALESCE(c.end_time, s.end_time), " +
+                    "CASE WHEN c.required_nurses > 0 THEN c.required_nurses ELSE 1 END, " +
+                    "COUNT(a.user_id), GROUP_CONCAT(COALESCE(u.display_name, a.user_id), ', ') " +
+                    "FROM cases c JOIN shifts s ON c.scheduled_shift_id = s.shift_id " +
+                    "LEFT JOIN assignments a ON a.case_id = c.case_id " +
+                    "LEFT JOIN users u ON a.user_id = u.username " +
+                    "WHERE s.date = ? AND c.case_id IN (?) GROUP BY c.case_id"; // IN (?) is widened per call
+    static final String SQL_CASE_SUMMARIES = "SELECT case_id, description FROM cases WHERE case_id IN (?)";
+    // Full-text case search; more matched words rank higher (offsets() lists four numbers per hit), newest breaks ties
+    static final String SQL_SEARCH_CASES =
+            "SELECT c.case_id, c.description, c.operation, s.date, COALESCE(c.start_time, s.start_time), " +
+                    "case_search.nurses FROM case_search " +
+                    "JOIN cases c ON c.case_id = case_search.docid " +
+                    "JOIN shifts s ON c.scheduled_shift_id = s.shift_id " +
+                    "WHERE case_search MATCH ? " +
+                    "ORDER BY length(offsets(case_search)) - length(replace(offsets(case_search), ' ', '')) DESC, " +
+                    "c.case_id DESC LIMIT ?";
+    // Shared with the :benchmark harness, which runs the same roster statements through JDBC
+    static final String SQL_ROSTER_PRESENT_NURSES = RosterSchema.ROSTER_PRESENT_NURSES;
+    static final String SQL_ROSTER_CASES = RosterSchema.ROSTER_CASES;
+    static final String SQL_DAY_BOOKINGS = RosterSchema.DAY_BOOKINGS;
+    static final String SQL_ROSTER_CARRYOVER = RosterSchema.ROSTER_CARRYOVER;
+    static final String SQL_REFRESH_SEARCH_NURSES = RosterSchema.REFRESH_SEARCH_NURSES;
+    static final String SQL_CLEAR_DAY_ASSIGNMENTS = RosterSchema.CLEAR_DAY_ASSIGNMENTS;
+    static final String SQL_INSERT_ASSIGNMENT = RosterSchema.INSERT_ASSIGNMENT;
+
+    private static final int CACHED_DAYS = 14;
+    private static final int NO_DAY = Integer.MIN_VALUE;
+    static final int COMMIT_DAYS = 7; // a week of assignments per transaction when solving a range
+    private static final int SHIFT_HISTORY_DAYS = 7; // shift pickers offer last week onward
+    private static final int MAX_IN_IDS = 500; // ids bound per IN (...) batch
+    static final int PAGE_CACHE_KIB = 8 * 1024; // a full roster day plus its indexes stays in memory
+
+    // Shift rows from SQL_SHIFT_BY_ID's SELECT *, found by name once per query
+    private static final RowMapper<ReferenceCache.Shift> SHIFT_COLUMNS = cursor -> {
+        int shiftId = cursor.getColumnIndexOrThrow("shift_id");
+        int date = cursor.getColumnIndexOrThrow("date");
+        int start = cursor.getColumnIndexOrThrow("start_time");
+        int end = cursor.getColumnIndexOrThrow("end_time");
+        return row -> new ReferenceCache.Shift(row.getInt(shiftId), row.getInt(date), row.getInt(start), row.getInt(end));
+    };
+
+    private static UserDatabaseHelper instance;
+
+    private final ReferenceCache referenceCache = new ReferenceCache();
+    private final HelperMetrics metrics = new HelperMetrics();
+    private final InvalidationTracker invalidation = new InvalidationTracker();
+    private volatile long cursorWindowBytes; // 0 keeps the platform's window size
+    // Statements run through query(), execute() and the compiled writes; the bulk writers report the count they add
+    private final AtomicInteger statementsRun = new AtomicInteger();
+
+    // Booked time per roster day, loaded on first use and patched by the writers below
+    private final Map<Integer, AvailabilityIndex> availabilityByDay =
+            new LinkedHashMap<Integer, AvailabilityIndex>(CACHED_DAYS, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, AvailabilityIndex> eldest) {
+                    return size() > CACHED_DAYS;
+                }
+            };
 
-    public UserDatabaseHelper(Context context) {
-        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    /** The one helper for user_db, so the whole app shares one connection pool for the file. */
+    public static synchronized UserDatabaseHelper getInstance(Context context) {
+        if (instance == null) {
+            instance = new UserDatabaseHelper(context.getApplicationContext(), DATABASE_NAME);
+        }
+        return instance;
+    }
+
+    UserDatabaseHelper(Context context, String name) { // null name opens an in-memory database for tests
+        super(context, name, null, DATABASE_VERSION);
+        // Commits append to the log and, with synchronous=NORMAL, skip the per-commit sync. The repository runs
+        // every call on one thread, so its own reads and writes never overlap; only other threads read alongside.
+        setWriteAheadLoggingEnabled(true);
     }
 
-    @Override // creating the tables
+    /**
+     * Runs on the primary connection only, the one every write and transaction uses; these PRAGMAs are
+     * per-connection, so WAL's reader connections keep SQLite's default page cache. Reads that need the big
+     * cache run inside a transaction, which pins them to the primary, as {@link #updateRoster} does.
+     */
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        db.execSQL("PRAGMA synchronous = NORMAL"); // safe under WAL: a crash can lose the last commit, never corrupt
+        db.execSQL("PRAGMA cache_size = -" + PAGE_CACHE_KIB);
+        db.execSQL("PRAGMA temp_store = MEMORY");
+    }
+
+    @Override // change tracking lives in TEMP objects, which every new connection has to create again
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
+        invalidation.install(db);
+    }
+
+    @Override // every write in here starts with this call, so publishChanges can skip the read-only trips
+    public SQLiteDatabase getWritableDatabase() {
+        invalidation.markPending();
+        return super.getWritableDatabase();
+    }
+
+    @Override // creating the tables at the current version; older databases get there through onUpgrade
     public void onCreate(SQLiteDatabase db) {
-        db.execSQL("CREATE TABLE users (" +
-                "username TEXT PRIMARY KEY, " +
-                "password TEXT, " +
-                "role TEXT, " +
-                "display_name TEXT)");
+        for (String statement : RosterSchema.create()) {
+            db.execSQL(statement);
+        }
+        seed(db, HospitalDataGenerator.Config.demo());
+    }
+
+    @Override // runs one migration per version so existing rosters survive upgrades
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        for (int version = oldVersion + 1; version <= newVersion; version++) {
+            migrateTo(db, version);
+        }
+    }
+
+    private void migrateTo(SQLiteDatabase db, int version) {
+        switch (version) {
+            case 2: // indexes for the date/shift/case/assignment joins
+                createRosterIndexes(db);
+                break;
+            case 3: // "yyyy-MM-dd" / "HH:mm" text -> epoch day / minutes from the shift's midnight
+                migrateTimesToIntegers(db);
+                createRosterIndexes(db);
+                break;
+            case 4: // per-nurse daily schedule, maintained by triggers
+                createNurseSchedule(db);
+                break;
+            case 5: // full-text index over case text and nurse names, maintained by triggers
+                createCaseSearch(db);
+                break;
+            default:
+                throw new IllegalStateException("No migration to database version " + version);
+        }
+    }
+
+    private static void createRosterIndexes(SQLiteDatabase db) {
+        for (String index : RosterSchema.ROSTER_INDEXES) {
+            db.execSQL(index);
+        }
+    }
+
+    /**
+     * nurse_schedule holds one row per nurse per assigned case, keyed for the My Shifts lookup.
+     * Triggers on assignments, cases and shifts keep it in step with every writer, so no Java path can miss it.
+     * A later migration that rebuilds one of those tables drops its triggers and must call this again.
+     */
+    private static void createNurseSchedule(SQLiteDatabase db) {
+        for (String statement : RosterSchema.NURSE_SCHEDULE) {
+            db.execSQL(statement);
+        }
+        db.execSQL("DELETE FROM nurse_schedule");
+        db.execSQL(RosterSchema.NURSE_SCHEDULE_BACKFILL);
+        for (String trigger : RosterSchema.NURSE_SCHEDULE_TRIGGERS) {
+            db.execSQL(trigger);
+        }
+    }
+
+    /**
+     * case_search is an FTS4 index with one document per case, its docid the case_id, holding the description,
+     * the operation and the assigned nurses' display names. Android's built-in SQLite ships FTS3/4 but not FTS5.
+     * Prefix indexes on 2 and 3 letters keep the short prefixes typed into the search box from walking the
+     * whole term list. Triggers on cases, assignments and users keep it current; {@link #seed} drops them for
+     * the bulk load and calls this again to rebuild the index in one pass, and the roster rebuilds drop the
+     * assignment ones and refresh each touched case once.
+     */
+    private static void createCaseSearch(SQLiteDatabase db) {
+        db.execSQL(RosterSchema.CASE_SEARCH);
+        db.execSQL("DELETE FROM case_search");
+        db.execSQL(RosterSchema.CASE_SEARCH_BACKFILL);
+        for (String trigger : RosterSchema.CASE_SEARCH_TRIGGERS) {
+            db.execSQL(trigger);
+        }
+        for (String trigger : RosterSchema.ASSIGNMENT_SEARCH_TRIGGERS) {
+            db.execSQL(trigger);
+        }
+    }
 
-        db.execSQL("CREATE TABLE shifts (" +
+    /**
+     * Drops the per-row assignment search triggers for a bulk rewrite of the days' rosters. Call it inside the
+     * writing transaction and {@link #resumeAssignmentSearch} before committing, so no other connection ever
+     * sees the triggers missing and a rollback puts them back.
+     */
+    private void suspendAssignmentSearch(SQLiteDatabase db) {
+        for (String trigger : RosterSchema.ASSIGNMENT_SEARCH_TRIGGER_NAMES) {
+            execute(db, "DROP TRIGGER IF EXISTS " + trigger);
+        }
+    }
+
+    /** Rewrites the nurses of each case from {@code fromDay} to {@code toDay} once, then restores the triggers. */
+    private void resumeAssignmentSearch(SQLiteDatabase db, int fromDay, int toDay) {
+        execute(db, SQL_REFRESH_SEARCH_NURSES, fromDay, toDay);
+        for (String trigger : RosterSchema.ASSIGNMENT_SEARCH_TRIGGERS) {
+            execute(db, trigger);
+        }
+    }
+
+    private static void dropCaseSearchTriggers(SQLiteDatabase db) {
+        for (String trigger : RosterSchema.CASE_SEARCH_TRIGGER_NAMES) {
+            db.execSQL("DROP TRIGGER IF EXISTS " + trigger);
+        }
+    }
+
+    private static void migrateTimesToIntegers(SQLiteDatabase db) {
+        String day = "CAST(julianday(date) - 2440587.5 AS INTEGER)";
+
+        db.execSQL("CREATE TABLE shifts_new (" +
                 "shift_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "date TEXT, " +
-                "start_time TEXT, " +
-                "end_time TEXT)");
+                "date INTEGER, " +
+                "start_time INTEGER, " +
+                "end_time INTEGER)");
+        db.execSQL("INSERT INTO shifts_new (shift_id, date, start_time, end_time) " +
+                "SELECT shift_id, " + day + ", " + minutes("start_time") + ", " +
+                minutes("end_time") + " + CASE WHEN " + minutes("end_time") + " <= " + minutes("start_time") +
+                " THEN 1440 ELSE 0 END FROM shifts");
 
-        db.execSQL("CREATE TABLE cases (" +
+        db.execSQL("CREATE TABLE cases_new (" +
                 "case_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
                 "description TEXT, " +
                 "required_nurses INTEGER, " +
                 "scheduled_shift_id INTEGER, " +
                 "operation TEXT, " +
-                "start_time TEXT," +
-                "end_time TEXT," +
+                "start_time INTEGER," +
+                "end_time INTEGER," +
                 "FOREIGN KEY(scheduled_shift_id) REFERENCES shifts(shift_id))");
+        db.execSQL("INSERT INTO cases_new (case_id, description, required_nurses, scheduled_shift_id, operation, start_time, end_time) " +
+                "SELECT case_id, description, required_nurses, scheduled_shift_id, operation, " +
+                minutes("start_time") + ", " + minutes("end_time") + " + CASE WHEN " + minutes("end_time") +
+                " <= " + minutes("start_time") + " THEN 1440 ELSE 0 END FROM cases");
 
-        db.execSQL("CREATE TABLE assignments (" +
-                "assignment_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "case_id INTEGER, " +
-                "user_id TEXT, " +
-                "FOREIGN KEY(case_id) REFERENCES cases(case_id), " +
-                "FOREIGN KEY(user_id) REFERENCES users(username))");
-
-        db.execSQL("CREATE TABLE presence (" +
+        db.execSQL("CREATE TABLE presence_new (" +
                 "username TEXT, " +
-                "date TEXT, " +
+                "date INTEGER, " +
                 "PRIMARY KEY(username, date), " +
                 "FOREIGN KEY(username) REFERENCES users(username))");
+        db.execSQL("INSERT OR IGNORE INTO presence_new (username, date) SELECT username, " + day + " FROM presence");
 
-        db.execSQL("CREATE TABLE operations (" +
-                "operation_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "operation_name TEXT NOT NULL)");
+        for (String table : new String[]{"shifts", "cases", "presence"}) {
+            db.execSQL("DROP TABLE " + table);
+            db.execSQL("ALTER TABLE " + table + "_new RENAME TO " + table);
+        }
+    }
 
-        for (int i = 1; i <= 5; i++) {
-            ContentValues admin = new ContentValues();
-            admin.put("username", "admin" + i);
-            admin.put("password", "adminpass");
-            admin.put("role", "admin");
-            admin.put("display_name", "Admin " + i);
-            db.insert("users", null, admin);
+    private static void dropRosterIndexes(SQLiteDatabase db) {
+        for (String index : RosterSchema.ROSTER_INDEX_NAMES) {
+            db.execSQL("DROP INDEX IF EXISTS " + index);
         }
+    }
 
-        String[] nurseNames = {"Alex", "Jordan", "Taylor", "Morgan", "Sydney", "Casey", "Riley", "Jamie", "Drew", "Robin",
-                "Avery", "Cameron", "Quinn", "Reese", "Skylar", "Hayden", "Peyton", "Logan", "Sawyer", "Blake",
-                "Charlie", "Rowan", "Harper", "Dakota", "Kendall"}; //added nurses names for cleaner look
+    private static long seed(SQLiteDatabase db, HospitalDataGenerator.Config config) {
+        dropRosterIndexes(db); // rows load into bare tables; each index is then built once, from sorted keys
+        dropCaseSearchTriggers(db); // per-row search updates would look up assignments with no index
+        SqliteSeedSink sink = new SqliteSeedSink(db);
+        try {
+            long rows = new HospitalDataGenerator(config).generate(sink);
+            sink.commit();
+            return rows;
+        } finally {
+            sink.close();
+            createRosterIndexes(db);
+            createCaseSearch(db);
+        }
+    }
 
-        for (int i = 1; i <= 25; i++) {
-            ContentValues nurse = new ContentValues();
-            nurse.put("username", "nurse" + i);
-            nurse.put("password", "nursepass");
-            nurse.put("role", "nurse");
-            nurse.put("display_name", nurseNames[i - 1]);
-            db.insert("users", null, nurse);
+    /**
+     * Fills the database with generated staff, shifts, cases, presence and rosters, e.g.
+     * {@code seed(HospitalDataGenerator.Config.loadTest())} for a 5,000-nurse year. Batches commit as they go,
+     * so a failure part way leaves the earlier batches in place. Meant for load tests, not production data.
+     *
+     * @return the number of rows written
+     */
+    public long seed(HospitalDataGenerator.Config config) {
+        long started = System.nanoTime();
+        SQLiteDatabase db = getWritableDatabase();
+        invalidation.uninstall(db); // a change row per generated row is no use to anyone
+        long rows;
+        try {
+            rows = seed(db, config);
+        } finally {
+            invalidation.install(db);
+            invalidation.invalidateAll();
         }
+        clearCaches();
+        metrics.record("seed", null, System.nanoTime() - started, rows);
+        return rows;
+    }
 
-        String[] operations = {"Appendectomy", "Gallbladder Removal", "Knee Replacement", "Hip Replacement", "Hernia Repair",
-                "Cesarean Section", "Tonsillectomy", "Mastectomy", "Coronary Bypass", "Cataract Surgery"};
+    /** Timings, slow calls and leaked cursors for this helper's methods. */
+    public HelperMetrics getMetrics() {
+        return metrics;
+    }
+
+    /** Where screens subscribe to the rows other screens change; see {@link #publishChanges}. */
+    public InvalidationTracker getInvalidationTracker() {
+        return invalidation;
+    }
+
+    /**
+     * Hands the rows changed by transactions committed since the last call to the tracker's observers.
+     * RosterRepository calls this after each piece of work; code writing through the helper directly calls it
+     * itself. A no-op inside a transaction, so a change is only ever reported once it has committed.
+     */
+    public InvalidationTracker.ChangeSet publishChanges() {
+        return invalidation.publish(super.getWritableDatabase());
+    }
+
+    /** Forgets cached availability and reference lists after rows were written around the helper's own methods. */
+    void clearCaches() {
+        availabilityByDay.clear();
+        referenceCache.clear();
+    }
 
-        for (String op : operations) {
-            ContentValues opVal = new ContentValues();
-            opVal.put("operation_name", op);
-            db.insert("operations", null, opVal);
+    /**
+     * Sets the cursor window used by the helper's queries, in bytes; 0 goes back to the platform default.
+     * A bigger window fills large results in fewer steps at the cost of memory. Needs Android 9, ignored before.
+     */
+    public void setCursorWindowBytes(long bytes) {
+        cursorWindowBytes = bytes;
+    }
+
+    public long getCursorWindowBytes() {
+        return cursorWindowBytes;
+    }
+
+    /** Runs the query and records its time and row count under {@code method}; the cursor is tracked until closed. */
+    Cursor query(String method, SQLiteDatabase db, String sql, String[] args) {
+        long started = System.nanoTime();
+        Cursor cursor = db.rawQuery(sql, args);
+        long windowBytes = cursorWindowBytes;
+        if (windowBytes > 0 && Build.VERSION.SDK_INT >= Build.VERSION_CODES.P
+                && cursor instanceof AbstractWindowedCursor) {
+            ((AbstractWindowedCursor) cursor).setWindow(new CursorWindow(method, windowBytes));
         }
+        int rows = cursor.getCount(); // runs the statement and fills the first window, so the time is real
+        statementsRun.incrementAndGet();
+        metrics.record(method, sql, System.nanoTime() - started, rows);
+        return metrics.track(method, cursor);
     }
 
-    @Override
-    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        db.execSQL("DROP TABLE IF EXISTS presence");
-        db.execSQL("DROP TABLE IF EXISTS assignments");
-        db.execSQL("DROP TABLE IF EXISTS cases");
-        db.execSQL("DROP TABLE IF EXISTS shifts");
-        db.execSQL("DROP TABLE IF EXISTS users");
-        db.execSQL("DROP TABLE IF EXISTS operations");
-        onCreate(db);
-    }
-
-    public boolean validateLogin(String username, String password) {
-        SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery("SELECT * FROM users WHERE username = ? AND password = ?", new String[]{username, password});
-        boolean isValid = cursor.getCount() > 0;
-        cursor.close();
-        return isValid;
+    /** Every row of the query, mapped; the cursor is closed before this returns. */
+    <T> List<T> queryList(String method, SQLiteDatabase db, String sql, String[] args, RowMapper<T> mapper) {
+        Cursor cursor = query(method, db, sql, args);
+        try {
+            List<T> rows = new ArrayList<>(cursor.getCount());
+            RowMapper.Row<T> row = mapper.bind(cursor);
+            while (cursor.moveToNext()) {
+                rows.add(row.read(cursor));
+            }
+            return rows;
+        } finally {
+            cursor.close();
+        }
     }
 
-    public String getUserRole(String username, String password) {
-        SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery("SELECT role FROM users WHERE username = ? AND password = ?", new String[]{username, password});
-        String role = null;
-        if (cursor.moveToFirst()) {
-            role = cursor.getString(cursor.getColumnIndexOrThrow("role"));
+    /** The first row mapped, or null if there is none. */
+    <T> T queryFirst(String method, SQLiteDatabase db, String sql, String[] args, RowMapper<T> mapper) {
+        Cursor cursor = query(method, db, sql, args);
+        try {
+            return cursor.moveToFirst() ? mapper.bind(cursor).read(cursor) : null;
+        } finally {
+            cursor.close();
         }
-        cursor.close();
-        return role;
     }
-    public Cursor getShiftById(int shiftId) {
-        return getReadableDatabase().rawQuery("SELECT * FROM shifts WHERE shift_id = ?", new String[]{String.valueOf(shiftId)});
+
+    /** Hands each mapped row to {@code consumer} as it is read, without collecting them. @return rows read */
+    <T> int queryEach(String method, SQLiteDatabase db, String sql, String[] args, RowMapper<T> mapper,
+                      Consumer<? super T> consumer) {
+        Cursor cursor = query(method, db, sql, args);
+        try {
+            RowMapper.Row<T> row = mapper.bind(cursor);
+            int rows = 0;
+            while (cursor.moveToNext()) {
+                consumer.accept(row.read(cursor));
+                rows++;
+            }
+            return rows;
+        } finally {
+            cursor.close();
+        }
     }
-    public Cursor getAssignedCasesWithCaseTimes(String username, String date) {
-        return getReadableDatabase().rawQuery(
-                "SELECT c.description, c.start_time, c.end_time " +
-                        "FROM assignments a " +
-                        "JOIN cases c ON a.case_id = c.case_id " +
-                        "JOIN shifts s ON c.scheduled_shift_id = s.shift_id " +
-                        "WHERE a.user_id = ? AND s.date = ?",
-                new String[]{username, date});
+
+    private static String minutes(String column) { // "HH:mm" text column -> minutes from midnight, in SQL
+        return "(CAST(substr(" + column + ", 1, 2) AS INTEGER) * 60 + CAST(substr(" + column + ", 4, 2) AS INTEGER))";
     }
-    public void reassignAllCases(String date) {
+
+    /** Checks the credentials and reads everything the session needs in the same query; null if they don't match. */
+    public Session login(String username, String password) {
+        return queryFirst("login", getReadableDatabase(), SQL_LOGIN, new String[]{username, password},
+                RowMapper.positional(row -> new Session(username, row.getString(0), row.getString(1))));
+    }
+    /** The shift, or null if there is none with that id. */
+    public ReferenceCache.Shift getShiftById(int shiftId) {
+        return queryFirst("getShiftById", getReadableDatabase(), SQL_SHIFT_BY_ID, new String[]{String.valueOf(shiftId)},
+                SHIFT_COLUMNS);
+    }
+    /** The nurse's cases for the day in start order, read from nurse_schedule. */
+    public List<ScheduleAdapter.Entry> getNurseSchedule(String username, int day) {
+        return queryList("getNurseSchedule", getReadableDatabase(), SQL_NURSE_SCHEDULE,
+                new String[]{username, String.valueOf(day)}, ScheduleAdapter.Entry.MAPPER);
+    }
+    public BulkWriteResult reassignAllCases(int day) {
         SQLiteDatabase db = this.getWritableDatabase();
+        long started = System.nanoTime();
+        int statementsBefore = statementsRun.get();
+        int casesSolved;
+        int written;
+        long rowsChanged;
 
-        // Get all cases for today
-        Cursor caseCursor = db.rawQuery(
-                "SELECT case_id, required_nurses, scheduled_shift_id FROM cases c " +
-                        "JOIN shifts s ON c.scheduled_shift_id = s.shift_id WHERE s.date = ?",
-                new String[]{date}
-        );
+        availabilityByDay.remove(day);
+        availabilityByDay.remove(day + 1); // carries over the day's overnight cases
+        db.beginTransaction();
+        try {
+            long changesBefore = totalChanges(db);
+            suspendAssignmentSearch(db);
+            // Clear the whole day in one statement, then rebuild the roster from presence alone
+            execute(db, SQL_CLEAR_DAY_ASSIGNMENTS, day);
 
-        while (caseCursor.moveToNext()) {
-            int caseId = caseCursor.getInt(caseCursor.getColumnIndexOrThrow("case_id"));
-            int requiredNurses = caseCursor.getInt(caseCursor.getColumnIndexOrThrow("required_nurses"));
-
-            // Remove existing assignments for this case
-            db.delete("assignments", "case_id = ?", new String[]{String.valueOf(caseId)});
-
-            // Reassign nurses to the case
-            Cursor shiftCursor = db.rawQuery(
-                    "SELECT start_time, end_time FROM shifts WHERE shift_id = ?",
-                    new String[]{String.valueOf(caseCursor.getInt(caseCursor.getColumnIndexOrThrow("scheduled_shift_id")))}
-            );
-
-            if (shiftCursor.moveToFirst()) {
-                String start_time = shiftCursor.getString(shiftCursor.getColumnIndexOrThrow("start_time"));
-                String end_time = shiftCursor.getString(shiftCursor.getColumnIndexOrThrow("end_time"));
-                autoAssignNursesToCase(caseId, date, start_time, end_time);
-            }
+            AvailabilityIndex availability = loadAvailability(db, day);
+            RosterScheduler scheduler = loadRosterDay(db, day, availability);
+            casesSolved = scheduler.getCaseCount();
+            written = writeAssignments(db, scheduler.fillAllCases());
+            resumeAssignmentSearch(db, day, day);
+            rowsChanged = totalChanges(db) - changesBefore;
+            db.setTransactionSuccessful();
+            availabilityByDay.put(day, availability);
+        } finally {
+            db.endTransaction();
+        }
+
+        long elapsed = System.nanoTime() - started;
+        metrics.record("reassignAllCases", null, elapsed, written);
+        return new BulkWriteResult(casesSolved, written, statementsRun.get() - statementsBefore, rowsChanged, elapsed);
+    }
 
-            shiftCursor.close();
+    /**
+     * Rebuilds the roster for every day from {@code fromDay} to {@code toDay} inclusive. Inputs are read here,
+     * the days are solved in parallel by a RangeScheduler, and the results commit in day order,
+     * {@link #COMMIT_DAYS} days per transaction.
+     */
+    public BulkWriteResult reassignCases(int fromDay, int toDay) {
+        if (toDay < fromDay) {
+            throw new IllegalArgumentException("Range ends before it starts");
         }
+        SQLiteDatabase db = this.getWritableDatabase();
+        long started = System.nanoTime();
+        int statementsBefore = statementsRun.get();
 
-        caseCursor.close();
+        List<RangeScheduler.Day> days = new ArrayList<>();
+        int casesSolved = 0;
+        for (int day = fromDay; day <= toDay; day++) {
+            RangeScheduler.Day input = loadDayInput(db, day, day == fromDay);
+            casesSolved += input.getCaseCount();
+            days.add(input);
+        }
+        List<Map<Integer, List<String>>> solved = new RangeScheduler().solve(days);
+
+        for (int day = fromDay; day <= toDay + 1; day++) {
+            availabilityByDay.remove(day); // the day after the range carries over the new overnight bookings
+        }
+        int written = 0;
+        long rowsChanged = 0;
+        for (int first = 0; first < days.size(); first += COMMIT_DAYS) {
+            db.beginTransaction();
+            try {
+                long changesBefore = totalChanges(db);
+                int last = Math.min(first + COMMIT_DAYS, days.size()) - 1;
+                suspendAssignmentSearch(db);
+                for (int i = first; i <= last; i++) {
+                    execute(db, SQL_CLEAR_DAY_ASSIGNMENTS, fromDay + i);
+                    written += writeAssignments(db, solved.get(i));
+                }
+                resumeAssignmentSearch(db, fromDay + first, fromDay + last);
+                rowsChanged += totalChanges(db) - changesBefore;
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        }
+
+        long elapsed = System.nanoTime() - started;
+        metrics.record("reassignCases", null, elapsed, written);
+        return new BulkWriteResult(casesSolved, written, statementsRun.get() - statementsBefore, rowsChanged, elapsed);
+    }
+
+    /**
+     * Rebuilds the day like reassignAllCases, then spends up to {@code budgetMillis} improving the roster with
+     * RosterOptimizer before it is written. The search runs on this thread, so the call takes about the budget.
+     */
+    public RosterOptimizer.Result optimizeDay(int day, long budgetMillis) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        long started = System.nanoTime();
+        RangeScheduler.Day input = loadDayInput(db, day, true);
+        RosterOptimizer.Result result = new RosterOptimizer().optimize(input, budgetMillis * 1_000_000L);
+
+        availabilityByDay.remove(day);
+        availabilityByDay.remove(day + 1); // carries over the day's overnight cases
+        int written;
+        db.beginTransaction();
+        try {
+            suspendAssignmentSearch(db);
+            execute(db, SQL_CLEAR_DAY_ASSIGNMENTS, day);
+            written = writeAssignments(db, result.assignments);
+            resumeAssignmentSearch(db, day, day);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        metrics.record("optimizeDay", null, System.nanoTime() - started, written);
+        return result;
     }
 
-    public Cursor getAllNurses() {
-        return getReadableDatabase().rawQuery("SELECT username, display_name FROM users WHERE role = 'nurse'", null);
+    /** All nurses, served from the reference cache after the first call. */
+    public List<ReferenceCache.Nurse> getNurses() {
+        return referenceCache.getNurses(() -> queryList("getNurses", getReadableDatabase(), SQL_ALL_NURSES, null,
+                RowMapper.positional(row -> new ReferenceCache.Nurse(row.getString(0), row.getString(1)))));
     }
 
-    public boolean markNursePresent(String username, String date) {
+    public boolean markNursePresent(String username, int day) {
         SQLiteDatabase db = this.getWritableDatabase();
         ContentValues values = new ContentValues();
         values.put("username", username);
-        values.put("date", date);
-        return db.insertWithOnConflict("presence", null, values, SQLiteDatabase.CONFLICT_IGNORE) != -1;
+        values.put("date", day);
+        long started = System.nanoTime();
+        boolean inserted = db.insertWithOnConflict("presence", null, values, SQLiteDatabase.CONFLICT_IGNORE) != -1;
+        metrics.record("markNursePresent", null, System.nanoTime() - started, inserted ? 1 : 0);
+        return inserted;
     }
 
-    public void clearTodayPresence(String date) {
-        getWritableDatabase().delete("presence", "date = ?", new String[]{date});
+    public void clearTodayPresence(int day) {
+        long started = System.nanoTime();
+        int deleted = getWritableDatabase().delete("presence", "date = ?", new String[]{String.valueOf(day)});
+        metrics.record("clearTodayPresence", null, System.nanoTime() - started, deleted);
     }
 
-    public Cursor getPresentNurses(String date) {
-        return getReadableDatabase().rawQuery("SELECT username FROM presence WHERE date = ?", new String[]{date});
+    /**
+     * Replaces the day's presence with {@code present}, writing only the rows that differ.
+     * Reads, inserts and deletes share one transaction, so a save costs one journal sync however many boxes changed.
+     */
+    public PresenceChange savePresence(int day, Collection<String> present) {
+        SQLiteDatabase db = getWritableDatabase();
+        String dayArg = String.valueOf(day);
+        long started = System.nanoTime();
+        PresenceChange change = null;
+        db.beginTransaction();
+        try {
+            Set<String> stored = new HashSet<>();
+            queryEach("savePresence", db, SQL_PRESENT_NURSES, new String[]{dayArg}, RowMapper.FIRST_STRING, stored::add);
+
+            change = PresenceChange.between(stored, present);
+            if (!change.checkedIn.isEmpty()) {
+                SQLiteStatement insert = db.compileStatement("INSERT OR IGNORE INTO presence (username, date) VALUES (?, ?)");
+                try {
+                    for (String username : change.checkedIn) {
+                        insert.bindString(1, username);
+                        insert.bindLong(2, day);
+                        insert.executeInsert();
+                    }
+                } finally {
+                    insert.close();
+                }
+            }
+            if (!change.checkedOut.isEmpty()) {
+                SQLiteStatement delete = db.compileStatement("DELETE FROM presence WHERE username = ? AND date = ?");
+                try {
+                    for (String username : change.checkedOut) {
+                        delete.bindString(1, username);
+                        delete.bindLong(2, day);
+                        delete.executeUpdateDelete();
+                    }
+                } finally {
+                    delete.close();
+                }
+            }
+            db.setTransactionSuccessful();
+            return change;
+        } finally {
+            db.endTransaction();
+            metrics.record("savePresence", null, System.nanoTime() - started, change == null ? 0 : change.size());
+        }
     }
 
-    public Cursor getAllCases() {
-        return getReadableDatabase().rawQuery("SELECT case_id, description FROM cases", null);
+    /** Usernames checked in on the day. */
+    public List<String> getPresentNurses(int day) {
+        return queryList("getPresentNurses", getReadableDatabase(), SQL_PRESENT_NURSES, new String[]{String.valueOf(day)},
+                RowMapper.FIRST_STRING);
     }
 
-    public Cursor getCaseById(int caseId) {
-        return getReadableDatabase().rawQuery("SELECT * FROM cases WHERE case_id = ?", new String[]{String.valueOf(caseId)});
+    /** Newest cases first, up to {@code limit} rows with ids below {@code beforeCaseId}. */
+    public List<CaseSummary> getRecentCases(int beforeCaseId, int limit) {
+        return queryList("getRecentCases", getReadableDatabase(), SQL_RECENT_CASES_PAGE,
+                new String[]{String.valueOf(beforeCaseId), String.valueOf(limit)}, CaseSummary.MAPPER);
     }
 
+    /** The case, or null if there is none with that id. */
+    public CaseDetails getCaseById(int caseId) {
+        return queryFirst("getCaseById", getReadableDatabase(), SQL_CASE_BY_ID, new String[]{String.valueOf(caseId)},
+                CaseDetails.MAPPER);
+    }
+
+    /**
+     * Saves the case and brings its nurses in line: a new required count adds or frees nurses, a move to
+     * another day's shift releases them on the old day and fills the case on the new one, and a move to a
+     * shift with other hours on the same day rebooks the case at its new times.
+     */
     public boolean updateCase(int caseId, String description, int shiftId, int requiredNurses) {
         SQLiteDatabase db = this.getWritableDatabase();
         ContentValues values = new ContentValues();
         values.put("description", description);
         values.put("scheduled_shift_id", shiftId);
         values.put("required_nurses", requiredNurses);
-        return db.update("cases", values, "case_id = ?", new String[]{String.valueOf(caseId)}) > 0;
+
+        long started = System.nanoTime();
+        int[] before = caseTimes(db, SQL_CASE_TIMES, String.valueOf(caseId));
+        int[] after = caseTimes(db, SQL_CASE_TIMES_IN_SHIFT, String.valueOf(shiftId), String.valueOf(caseId));
+        boolean moved = before != null && (after == null || before[0] != after[0]);
+        boolean retimed = before != null && !moved && (before[1] != after[1] || before[2] != after[2]);
+        int required = requiredOrDefault(requiredNurses);
+        boolean updated = false;
+        db.beginTransaction();
+        try {
+            if (moved) {
+                updateRoster(before[0], Collections.singletonList(RosterChange.caseDeleted(caseId)));
+            } else if (retimed) { // while the row still has the old times, so cases short around them get a retry
+                updateRoster(before[0], Collections.singletonList(
+                        RosterChange.caseEdited(caseId, after[1], after[2], required)));
+            }
+            updated = db.update("cases", values, "case_id = ?", new String[]{String.valueOf(caseId)}) > 0;
+            if (updated && after != null && !retimed) {
+                updateRoster(after[0], Collections.singletonList(before == null || moved
+                        ? RosterChange.caseAdded(caseId, after[1], after[2], required)
+                        : RosterChange.requiredChanged(caseId, required)));
+            }
+            db.setTransactionSuccessful();
+            return updated;
+        } catch (RuntimeException e) {
+            for (int[] times : new int[][]{before, after}) {
+                if (times != null) { // the cached days already hold the rolled-back bookings
+                    availabilityByDay.remove(times[0]);
+                    availabilityByDay.remove(times[0] + 1);
+                }
+            }
+            throw e;
+        } finally {
+            db.endTransaction();
+            metrics.record("updateCase", null, System.nanoTime() - started, updated ? 1 : 0);
+        }
     }
 
-    public long addCase(String description, int shiftId, String startTime, String endTime, String operation) {
+    public long addCase(String description, int shiftId, int startMinute, int endMinute, String operation) {
         SQLiteDatabase db = this.getWritableDatabase();
         ContentValues values = new ContentValues();
         values.put("description", description);
         values.put("scheduled_shift_id", shiftId);
-        values.put("start_time", startTime);
-        values.put("end_time", endTime);
+        values.put("start_time", startMinute);
+        values.put("end_time", endMinute);
         values.put("operation", operation);
-        return db.insert("cases", null, values);
+        long started = System.nanoTime();
+        long caseId = db.insert("cases", null, values);
+        metrics.record("addCase", null, System.nanoTime() - started, caseId == -1 ? 0 : 1);
+        return caseId;
+    }
+
+    /** The case with its shift's day and hours, or null if there is none with that id. */
+    public CaseWithShift getCaseWithShift(int caseId) {
+        return queryFirst("getCaseWithShift", getReadableDatabase(), SQL_CASE_WITH_SHIFT,
+                new String[]{String.valueOf(caseId)}, CaseWithShift.MAPPER);
+    }
+    public List<CaseSummary> getCasesForDate(int day) {
+        return queryList("getCasesForDate", getReadableDatabase(), SQL_CASES_FOR_DATE, new String[]{String.valueOf(day)},
+                CaseSummary.MAPPER);
+    }
+
+    /**
+     * Cases matching every word of {@code input}, each word also as a prefix, best match first and at most
+     * {@code limit} of them. Searches descriptions, operations and assigned nurses' names across all dates.
+     */
+    public List<CaseSearchResult> searchCases(String input, int limit) {
+        String match = SearchQuery.toMatch(input);
+        if (match == null) {
+            return Collections.emptyList();
+        }
+        return queryList("searchCases", getReadableDatabase(), SQL_SEARCH_CASES,
+                new String[]{match, String.valueOf(limit)}, CaseSearchResult.MAPPER);
+    }
+
+    /**
+     * Cases for a picker: the case whose id is {@code input}, if it is a number and the case exists, then the
+     * {@link #searchCases} matches. Any case can be reached this way, however old.
+     */
+    public List<CaseSummary> findCases(String input, int limit) {
+        List<CaseSummary> found = new ArrayList<>();
+        int byId = -1;
+        String trimmed = input.trim();
+        if (trimmed.matches("\\d{1,9}")) {
+            CaseDetails details = getCaseById(Integer.parseInt(trimmed));
+            if (details != null) {
+                byId = details.caseId;
+                found.add(new CaseSummary(details.caseId, details.description));
+            }
+        }
+        for (CaseSearchResult result : searchCases(input, limit)) {
+            if (result.caseId != byId && found.size() < limit) {
+                found.add(new CaseSummary(result.caseId, result.description));
+            }
+        }
+        return found;
+    }
 
+    /**
+     * Every case on the day with its required and assigned nurse counts and the assigned names, read in one
+     * grouped query. Understaffed cases come first, biggest gap first; see {@link CaseCoverage#UNDERSTAFFED_FIRST}.
+     */
+    public List<CaseCoverage> getDayCoverage(int day) {
+        List<CaseCoverage> coverage = queryList("getDayCoverage", getReadableDatabase(), SQL_DAY_COVERAGE,
+                new String[]{String.valueOf(day)}, CaseCoverage.MAPPER);
+        Collections.sort(coverage, CaseCoverage.UNDERSTAFFED_FIRST);
+        return coverage;
+    }
+
+    /**
+     * {@link #getDayCoverage} rows for just {@code caseIds}, read in one query, for patching a day view after
+     * a change. Ids no longer on the day (deleted or moved) have no row, in no particular order.
+     */
+    public List<CaseCoverage> getCaseCoverage(int day, Collection<Integer> caseIds) {
+        return queryIn("getCaseCoverage", SQL_CASE_COVERAGE, new String[]{String.valueOf(day)}, caseIds,
+                CaseCoverage.MAPPER);
+    }
+
+    /** Id and description of each case in {@code caseIds} that still exists, in no particular order. */
+    public List<CaseSummary> getCaseSummaries(Collection<Integer> caseIds) {
+        return queryIn("getCaseSummaries", SQL_CASE_SUMMARIES, new String[0], caseIds, CaseSummary.MAPPER);
+    }
+
+    /**
+     * Whether {@code username} is assigned to any of {@code caseIds} on {@code day}. Reads at most a row per
+     * batch off the user/case index, so a change elsewhere on the roster is ruled out without paging the list.
+     */
+    public boolean isAssignedToAnyOn(String username, int day, Collection<Integer> caseIds) {
+        return !queryIn("isAssignedToAnyOn", SQL_USER_CASE_ON_DATE_IN, new String[]{username, String.valueOf(day)},
+                caseIds, RowMapper.positional(row -> row.getInt(0))).isEmpty();
+    }
+
+    /**
+     * Runs a query whose {@code IN (?)} takes {@code ids}, after the {@code leadArgs}. Batches stay under
+     * the 999 arguments SQLite allowed per statement before 3.32, so a huge id set costs a few queries, not one per id.
+     */
+    private <T> List<T> queryIn(String method, String sql, String[] leadArgs, Collection<Integer> ids, RowMapper<T> mapper) {
+        SQLiteDatabase db = getReadableDatabase();
+        List<T> rows = new ArrayList<>();
+        List<Integer> pending = new ArrayList<>(ids);
+        int lead = leadArgs.length;
+        for (int from = 0; from < pending.size(); from += MAX_IN_IDS) {
+            List<Integer> batch = pending.subList(from, Math.min(pending.size(), from + MAX_IN_IDS));
+            String[] args = Arrays.copyOf(leadArgs, lead + batch.size());
+            StringBuilder marks = new StringBuilder("IN (?");
+            for (int i = 0; i < batch.size(); i++) {
+                args[lead + i] = String.valueOf(batch.get(i));
+                if (i > 0) {
+                    marks.append(", ?");
+                }
+            }
+            rows.addAll(queryList(method, db, sql.replace("IN (?)", marks.append(')')), args, mapper));
+        }
+        return rows;
+    }
+
+    /** Streams the day's cases to {@code consumer} without building a list. @return cases read */
+    public int forEachCaseOnDate(int day, Consumer<? super CaseSummary> consumer) {
+        return queryEach("forEachCaseOnDate", getReadableDatabase(), SQL_CASES_FOR_DATE,
+                new String[]{String.valueOf(day)}, CaseSummary.MAPPER, consumer);
+    }
+    public List<CaseSummary> getCasesForUserOnDate(String username, int day) {
+        return queryList("getCasesForUserOnDate", getReadableDatabase(), SQL_CASES_FOR_USER_ON_DATE,
+                new String[]{username, String.valueOf(day)}, CaseSummary.MAPPER);
     }
 
-    public Cursor getCaseWithShift(int caseId) {
-        return getReadableDatabase().rawQuery(
-                "SELECT c.description, s.date, s.start_time, s.end_time FROM cases c JOIN shifts s ON c.scheduled_shift_id = s.shift_id WHERE c.case_id = ?",
-                new String[]{String.valueOf(caseId)});
+    /**
+     * One page of the day's cases ordered by start time, then id.
+     * Pass {@link CaseRow#FIRST_PAGE} for the first page, otherwise the last row already shown.
+     */
+    public List<CaseRow> getCasesForDatePage(int day, CaseRow after, int limit) {
+        return queryList("getCasesForDatePage", getReadableDatabase(), SQL_CASES_FOR_DATE_PAGE, new String[]{
+                String.valueOf(day), String.valueOf(after.startMinute), String.valueOf(after.startMinute),
+                String.valueOf(after.caseId), String.valueOf(limit)}, CaseRow.MAPPER);
     }
-    public Cursor getCasesForDate(String date) {
-        return getReadableDatabase().rawQuery(
-                "SELECT c.case_id, c.description FROM cases c JOIN shifts s ON c.scheduled_shift_id = s.shift_id WHERE s.date = ?",
-                new String[]{date});
+
+    public List<CaseRow> getCasesForUserOnDatePage(String username, int day, CaseRow after, int limit) {
+        return queryList("getCasesForUserOnDatePage", getReadableDatabase(), SQL_CASES_FOR_USER_ON_DATE_PAGE, new String[]{
+                username, String.valueOf(day), String.valueOf(after.startMinute), String.valueOf(after.startMinute),
+                String.valueOf(after.caseId), String.valueOf(limit)}, CaseRow.MAPPER);
     }
-    public Cursor getCasesForUserOnDate(String username, String date) {
-        return getReadableDatabase().rawQuery(
-                "SELECT c.case_id, c.description FROM assignments a JOIN cases c ON a.case_id = c.case_id JOIN shifts s ON c.scheduled_shift_id = s.shift_id WHERE a.user_id = ? AND s.date = ?",
-                new String[]{username, date});
+
+    /** Shifts from a week ago onward, oldest first, served from the reference cache. */
+    public List<ReferenceCache.Shift> getRecentShifts() {
+        int fromDay = TimeCodec.today() - SHIFT_HISTORY_DAYS;
+        return referenceCache.getShifts(fromDay, () -> queryList("getRecentShifts", getReadableDatabase(),
+                SQL_RECENT_SHIFTS, new String[]{String.valueOf(fromDay), String.valueOf(ReferenceCache.MAX_SHIFTS)},
+                RowMapper.positional(row -> new ReferenceCache.Shift(row.getInt(0), row.getInt(1), row.getInt(2), row.getInt(3)))));
     }
 
-    public Cursor getAllShifts() {
-        return getReadableDatabase().rawQuery("SELECT shift_id, date, start_time, end_time FROM shifts", null);
+    /** Every shift on the day, however old; the recent list above only reaches back a week. */
+    public List<ReferenceCache.Shift> getShiftsOnDay(int day) {
+        return queryList("getShiftsOnDay", getReadableDatabase(), SQL_SHIFTS_ON_DAY, new String[]{String.valueOf(day)},
+                RowMapper.positional(row -> new ReferenceCache.Shift(row.getInt(0), row.getInt(1), row.getInt(2), row.getInt(3))));
     }
 
-    public boolean insertShift(String date, String startTime, String endTime) {
+    public boolean insertShift(int day, int startMinute, int endMinute) {
         SQLiteDatabase db = this.getWritableDatabase();
         ContentValues values = new ContentValues();
-        values.put("date", date);
-        values.put("start_time", startTime);
-        values.put("end_time", endTime);
-        return db.insert("shifts", null, values) != -1;
+        values.put("date", day);
+        values.put("start_time", startMinute);
+        values.put("end_time", endMinute);
+        long started = System.nanoTime();
+        long shiftId = db.insert("shifts", null, values);
+        metrics.record("insertShift", null, System.nanoTime() - started, shiftId == -1 ? 0 : 1);
+        if (shiftId == -1) {
+            return false;
+        }
+        AvailabilityIndex availability = availabilityByDay.get(day);
+        if (availability != null) {
+            availability.addShift((int) shiftId, startMinute, endMinute);
+        }
+        referenceCache.shiftAdded(new ReferenceCache.Shift((int) shiftId, day, startMinute, endMinute));
+        return true;
     }
 
     public boolean deleteShift(int shiftId) {
         SQLiteDatabase db = this.getWritableDatabase();
-        Cursor cursor = db.rawQuery("SELECT * FROM cases WHERE scheduled_shift_id = ?", new String[]{String.valueOf(shiftId)});
+        long started = System.nanoTime();
+        Cursor cursor = query("deleteShift", db, SQL_CASES_IN_SHIFT, new String[]{String.valueOf(shiftId)});
         boolean inUse = cursor.getCount() > 0;
         cursor.close();
-        return !inUse && db.delete("shifts", "shift_id = ?", new String[]{String.valueOf(shiftId)}) > 0;
+        boolean deleted = !inUse && db.delete("shifts", "shift_id = ?", new String[]{String.valueOf(shiftId)}) > 0;
+        metrics.record("deleteShift", null, System.nanoTime() - started, deleted ? 1 : 0);
+        if (deleted) {
+            for (AvailabilityIndex availability : availabilityByDay.values()) {
+                availability.removeShift(shiftId);
+            }
+            referenceCache.shiftRemoved(shiftId);
+        }
+        return deleted;
     }
 
-    public boolean shiftOverlaps(String date, String newStart, String newEnd) {
-        Cursor cursor = getReadableDatabase().rawQuery(
-                "SELECT * FROM shifts WHERE date = ? AND (? < end_time AND ? > start_time)",
-                new String[]{date, newEnd, newStart});
-        boolean overlaps = cursor.getCount() > 0;
-        cursor.close();
-        return overlaps;
-
+    public boolean shiftOverlaps(int day, int newStart, int newEnd) {
+        return getAvailability(getReadableDatabase(), day).shiftOverlaps(newStart, newEnd);
     }
 
+    /** Deletes the case; the nurses it frees go to short cases that overlap it. */
     public boolean deleteCase(int caseId) {
         SQLiteDatabase db = this.getWritableDatabase();
-        db.delete("assignments", "case_id = ?", new String[]{String.valueOf(caseId)}); // removes assignments
-        return db.delete("cases", "case_id = ?", new String[]{String.valueOf(caseId)}) > 0;
+        long started = System.nanoTime();
+        int day = dayOf(db, SQL_CASE_DAY, caseId);
+        boolean deleted = false;
+        db.beginTransaction();
+        try {
+            if (day != NO_DAY) {
+                updateRoster(day, Collections.singletonList(RosterChange.caseDeleted(caseId)));
+            }
+            db.delete("assignments", "case_id = ?", new String[]{String.valueOf(caseId)}); // removes assignments
+            deleted = db.delete("cases", "case_id = ?", new String[]{String.valueOf(caseId)}) > 0;
+            db.setTransactionSuccessful();
+        } catch (RuntimeException e) {
+            availabilityByDay.remove(day); // the cached day already gave the case's nurses away
+            throw e;
+        } finally {
+            db.endTransaction();
+            metrics.record("deleteCase", null, System.nanoTime() - started, deleted ? 1 : 0);
+        }
+        for (AvailabilityIndex availability : availabilityByDay.values()) {
+            availability.removeCase(caseId);
+        }
+        return deleted;
     }
 
-    public Cursor getNursesAssignedToCase(int caseId) {
-        return getReadableDatabase().rawQuery(
-                "SELECT u.display_name FROM assignments a " +
-                        "JOIN users u ON a.user_id = u.username " +
-                        "WHERE a.case_id = ?",
-                new String[]{String.valueOf(caseId)}
-        );
+    /** Display names of the nurses on the case. */
+    public List<String> getNursesAssignedToCase(int caseId) {
+        return queryList("getNursesAssignedToCase", getReadableDatabase(), SQL_NURSES_ON_CASE,
+                new String[]{String.valueOf(caseId)}, RowMapper.FIRST_STRING);
     }
-    public Cursor getAllOperations() {
-        return getReadableDatabase().rawQuery("SELECT operation_name FROM operations", null);
+    public List<ReferenceCache.Operation> getOperations() {
+        return referenceCache.getOperations(() -> queryList("getOperations", getReadableDatabase(),
+                "SELECT operation_id, operation_name FROM operations", null,
+                RowMapper.positional(row -> new ReferenceCache.Operation(row.getInt(0), row.getString(1)))));
     }
-    public void autoAssignNursesToCase(int caseId, String date, String startTime, String endTime) {
+
+    public ReferenceCache getReferenceCache() {
+        return referenceCache;
+    }
+    /**
+     * Applies the changes to the day's stored roster and writes only the assignment rows that differ.
+     * Bookings come from the cached index, which the scheduler keeps in step as it goes.
+     */
+    public RosterDelta updateRoster(int day, List<RosterChange> changes) {
         SQLiteDatabase db = this.getWritableDatabase();
+        long started = System.nanoTime();
+        RosterDelta delta;
+        db.beginTransaction(); // reads and writes on the primary connection, the one with the large page cache
+        try {
+            RosterScheduler roster = loadRosterDay(db, day, getAvailability(db, day));
+            boolean overnight = false;
+            for (RosterChange change : changes) { // a deleted or edited case's old times are gone after applying
+                overnight |= endsNextDay(roster.getCaseTimes(change.caseId));
+            }
+            delta = new IncrementalScheduler(roster).applyAll(changes);
+            if (!delta.isEmpty()) {
+                writeDelta(db, delta);
+                for (int caseId : delta.getAdded().keySet()) {
+                    overnight |= endsNextDay(roster.getCaseTimes(caseId));
+                }
+                for (int caseId : delta.getRemoved().keySet()) {
+                    overnight |= endsNextDay(roster.getCaseTimes(caseId));
+                }
+            }
+            db.setTransactionSuccessful();
+            if (overnight && !delta.isEmpty()) {
+                availabilityByDay.remove(day + 1); // carries over the changed overnight bookings
+            }
+        } catch (RuntimeException e) {
+            availabilityByDay.remove(day); // index already holds the bookings that failed to save
+            availabilityByDay.remove(day + 1);
+            throw e;
+        } finally {
+            db.endTransaction();
+        }
+        metrics.record("updateRoster", null, System.nanoTime() - started, delta.size());
+        return delta;
+    }
 
-        // All nurses checked in today
-        String nurseQuery = "SELECT username FROM users WHERE role = 'nurse' " +
-                "AND username IN (SELECT username FROM presence WHERE date = ?)";
-
-        Cursor cursor = db.rawQuery(nurseQuery, new String[]{date});
-
-        if (cursor.moveToFirst()) {
-            String nurseUsername = cursor.getString(0);
-
-            // Check if nurse is already assigned to overlapping case
-            Cursor overlapCursor = db.rawQuery(
-                    "SELECT 1 FROM assignments a " +
-                            "JOIN cases c ON a.case_id = c.case_id " +
-                            "JOIN shifts s ON c.scheduled_shift_id = s.shift_id " +
-                            "WHERE a.user_id = ? AND s.date = ? " +
-                            "AND (? < s.end_time AND ? > s.start_time)",
-                    new String[]{nurseUsername, date, endTime, startTime}
-            );
-
-            boolean isOverlapping = overlapCursor.moveToFirst();
-            overlapCursor.close();
-
-            if (!isOverlapping) {
-                ContentValues values = new ContentValues();
-                values.put("case_id", caseId);
-                values.put("user_id", nurseUsername);
-                db.insert("assignments", null, values);
+    private static boolean endsNextDay(int[] times) {
+        return times != null && times[1] > TimeCodec.MINUTES_PER_DAY;
+    }
+
+    public void autoAssignNursesToCase(int caseId, int day, int startMinute, int endMinute) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        long started = System.nanoTime();
+
+        // Bookings for the day come from the cached index; only presence and the case's count are read here
+        RosterScheduler scheduler = new RosterScheduler(getAvailability(db, day));
+        loadPresentNurses(db, day, scheduler);
+        scheduler.addCase(caseId, startMinute, endMinute, loadRequiredNurses(db, caseId));
+
+        List<String> nurses = scheduler.fillCase(caseId);
+        if (!nurses.isEmpty()) {
+            try {
+                writeAssignments(db, Collections.singletonMap(caseId, nurses));
+            } catch (RuntimeException e) {
+                availabilityByDay.remove(day); // index already holds the bookings that failed to save
+                availabilityByDay.remove(day + 1);
+                throw e;
+            }
+            if (endMinute <= startMinute || endMinute > TimeCodec.MINUTES_PER_DAY) {
+                availabilityByDay.remove(day + 1); // the new bookings carry over into the next morning
             }
         }
+        metrics.record("autoAssignNursesToCase", null, System.nanoTime() - started, nurses.size());
+    }
 
-        cursor.close();
+    RosterScheduler loadRosterDay(SQLiteDatabase db, int day, AvailabilityIndex availability) {
+        RosterScheduler scheduler = new RosterScheduler(availability);
+        loadPresentNurses(db, day, scheduler);
+
+        Cursor caseCursor = query("loadRosterDay", db, SQL_ROSTER_CASES, new String[]{String.valueOf(day)});
+        while (caseCursor.moveToNext()) {
+            scheduler.addCase(caseCursor.getInt(0), caseCursor.getInt(2), caseCursor.getInt(3),
+                    requiredOrDefault(caseCursor.getInt(1)));
+        }
+        caseCursor.close();
+
+        return scheduler;
     }
 
-    public String getDisplayName(String username) {
-        SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery("SELECT display_name FROM users WHERE username = ?", new String[]{username});
-        String displayName = username; // fallback to username
-        if (cursor.moveToFirst()) {
-            displayName = cursor.getString(cursor.getColumnIndexOrThrow("display_name"));
+    private RangeScheduler.Day loadDayInput(SQLiteDatabase db, int day, boolean withCarryover) {
+        RangeScheduler.Day input = new RangeScheduler.Day(day);
+        String[] dayArg = {String.valueOf(day)};
+
+        Cursor nurseCursor = query("loadDayInput", db, SQL_ROSTER_PRESENT_NURSES, dayArg);
+        while (nurseCursor.moveToNext()) {
+            input.addPresentNurse(nurseCursor.getString(0));
+        }
+        nurseCursor.close();
+
+        Cursor caseCursor = query("loadDayInput", db, SQL_ROSTER_CASES, dayArg);
+        while (caseCursor.moveToNext()) {
+            input.addCase(caseCursor.getInt(0), caseCursor.getInt(2), caseCursor.getInt(3),
+                    requiredOrDefault(caseCursor.getInt(1)));
         }
+        caseCursor.close();
+
+        if (withCarryover) { // later days get theirs from the day solved before them
+            Cursor carryoverCursor = query("loadDayInput", db, SQL_ROSTER_CARRYOVER, dayArg);
+            while (carryoverCursor.moveToNext()) {
+                input.addCarryover(carryoverCursor.getString(0), carryoverCursor.getInt(1), carryoverCursor.getInt(2));
+            }
+            carryoverCursor.close();
+        }
+        return input;
+    }
+
+    AvailabilityIndex getAvailability(SQLiteDatabase db, int day) {
+        AvailabilityIndex availability = availabilityByDay.get(day);
+        if (availability == null) {
+            availability = loadAvailability(db, day);
+            availabilityByDay.put(day, availability);
+        }
+        return availability;
+    }
+
+    private AvailabilityIndex loadAvailability(SQLiteDatabase db, int day) {
+        AvailabilityIndex availability = new AvailabilityIndex();
+        String[] dayArg = {String.valueOf(day)};
+
+        Cursor shiftCursor = query("loadAvailability", db, SQL_DAY_SHIFTS, dayArg);
+        while (shiftCursor.moveToNext()) {
+            availability.addShift(shiftCursor.getInt(0), shiftCursor.getInt(1), shiftCursor.getInt(2));
+        }
+        shiftCursor.close();
+
+        Cursor bookingCursor = query("loadAvailability", db, SQL_DAY_BOOKINGS, dayArg);
+        while (bookingCursor.moveToNext()) {
+            availability.addAssignment(bookingCursor.getInt(0), bookingCursor.getString(1),
+                    bookingCursor.getInt(2), bookingCursor.getInt(3));
+        }
+        bookingCursor.close();
+
+        Cursor carryoverCursor = query("loadAvailability", db, SQL_ROSTER_CARRYOVER, dayArg);
+        while (carryoverCursor.moveToNext()) {
+            availability.addBooking(carryoverCursor.getString(0), carryoverCursor.getInt(1), carryoverCursor.getInt(2));
+        }
+        carryoverCursor.close();
+
+        return availability;
+    }
+
+    private void loadPresentNurses(SQLiteDatabase db, int day, RosterScheduler scheduler) {
+        Cursor nurseCursor = query("loadPresentNurses", db, SQL_ROSTER_PRESENT_NURSES, new String[]{String.valueOf(day)});
+        while (nurseCursor.moveToNext()) {
+            scheduler.addPresentNurse(nurseCursor.getString(0));
+        }
+        nurseCursor.close();
+    }
+
+    private void writeDelta(SQLiteDatabase db, RosterDelta delta) {
+        db.beginTransaction();
+        try {
+            if (!delta.getRemoved().isEmpty()) {
+                SQLiteStatement delete = db.compileStatement("DELETE FROM assignments WHERE user_id = ? AND case_id = ?");
+                try {
+                    for (Map.Entry<Integer, List<String>> entry : delta.getRemoved().entrySet()) {
+                        for (String nurse : entry.getValue()) {
+                            delete.bindString(1, nurse);
+                            delete.bindLong(2, entry.getKey());
+                            delete.executeUpdateDelete();
+                            statementsRun.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    delete.close();
+                }
+            }
+            writeAssignments(db, delta.getAdded());
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    int writeAssignments(SQLiteDatabase db, Map<Integer, List<String>> assignments) {
+        SQLiteStatement insert = db.compileStatement(SQL_INSERT_ASSIGNMENT);
+        int written = 0;
+        db.beginTransaction();
+        try {
+            for (Map.Entry<Integer, List<String>> entry : assignments.entrySet()) {
+                for (String nurse : entry.getValue()) {
+                    insert.bindLong(1, entry.getKey());
+                    insert.bindString(2, nurse);
+                    insert.executeInsert();
+                    statementsRun.incrementAndGet();
+                    written++;
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            insert.close();
+        }
+        return written;
+    }
+
+    /** Runs a write that returns no rows, counted with the helper's other statements. */
+    private void execute(SQLiteDatabase db, String sql, Object... args) {
+        db.execSQL(sql, args);
+        statementsRun.incrementAndGet();
+    }
+
+    /**
+     * Rows inserted, updated or deleted on this connection so far, including those written by triggers.
+     * Call it inside a transaction: the count is per connection, and only a transaction pins the primary one.
+     */
+    private static long totalChanges(SQLiteDatabase db) {
+        return DatabaseUtils.longForQuery(db, "SELECT total_changes()", null);
+    }
+
+    private int dayOf(SQLiteDatabase db, String sql, int id) {
+        Cursor cursor = query("dayOf", db, sql, new String[]{String.valueOf(id)});
+        int day = cursor.moveToFirst() ? cursor.getInt(0) : NO_DAY;
         cursor.close();
-        return displayName;
+        return day;
+    }
+
+    /** @return {day, start, end} from one of the SQL_CASE_TIMES queries, or null if the row is missing */
+    private int[] caseTimes(SQLiteDatabase db, String sql, String... args) {
+        Cursor cursor = query("caseTimes", db, sql, args);
+        int[] times = cursor.moveToFirst() ? new int[]{cursor.getInt(0), cursor.getInt(1), cursor.getInt(2)} : null;
+        cursor.close();
+        return times;
+    }
+
+    private int loadRequiredNurses(SQLiteDatabase db, int caseId) {
+        Cursor cursor = query("loadRequiredNurses", db, SQL_REQUIRED_NURSES, new String[]{String.valueOf(caseId)});
+        int required = cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        cursor.close();
+        return requiredOrDefault(required);
+    }
+
+    private static int requiredOrDefault(int requiredNurses) {
+        return requiredNurses > 0 ? requiredNurses : 1; // cases added without a count still get one nurse
+    }
+
+    public String getDisplayName(String username) {
+        String displayName = queryFirst("getDisplayName", getReadableDatabase(), SQL_DISPLAY_NAME, new String[]{username},
+                RowMapper.FIRST_STRING);
+        return displayName != null ? displayName : username; // fallback to username
     }
 
 }
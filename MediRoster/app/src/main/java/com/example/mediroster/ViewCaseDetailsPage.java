@@ -1,7 +1,6 @@
 package com.example.mediroster;
 
 import android.content.Intent;
-import android.database.Cursor;
 import android.os.Bundle;
 import android.widget.ArrayAdapter;
 import android.widget.ListView;
@@ -9,14 +8,13 @@ import android.widget.TextView;
 
 import androidx.appcompat.app.AppCompatActivity;
 
-import java.util.ArrayList;
 
 public class ViewCaseDetailsPage extends AppCompatActivity {
 
     private TextView descText, shiftInfoText;
     private ListView nurseList;
 
-    private UserDatabaseHelper dbHelper;
+    private RosterRepository repository;
     private ArrayAdapter<String> nurseAdapter;
 
     @Override
@@ -24,7 +22,7 @@ public class ViewCaseDetailsPage extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_view_case_details);
 
-        dbHelper = new UserDatabaseHelper(this);
+        repository = RosterRepository.getInstance(this);
 
         descText = findViewById(R.id.case_description);
         shiftInfoText = findViewById(R.id.shift_info);
@@ -43,28 +41,19 @@ public class ViewCaseDetailsPage extends AppCompatActivity {
 
     private void loadCaseDetails(int caseId) {
         // Fetch case + shift info
-        Cursor caseCursor = dbHelper.getCaseWithShift(caseId);
-        if (caseCursor.moveToFirst()) {
-            String desc = caseCursor.getString(caseCursor.getColumnIndexOrThrow("description"));
-            String date = caseCursor.getString(caseCursor.getColumnIndexOrThrow("date"));
-            String start = caseCursor.getString(caseCursor.getColumnIndexOrThrow("start_time"));
-            String end = caseCursor.getString(caseCursor.getColumnIndexOrThrow("end_time"));
-
-            descText.setText("Description: " + desc);
-            shiftInfoText.setText("Shift: " + date + " | " + start + " - " + end);
-        }
-        caseCursor.close();
+        repository.getCaseWithShift(caseId, info -> {
+            if (info != null) {
+                descText.setText("Description: " + info.description);
+                shiftInfoText.setText("Shift: " + TimeCodec.formatDate(info.day) + " | " +
+                        TimeCodec.formatMinuteOfDay(info.shiftStartMinute) + " - " +
+                        TimeCodec.formatMinuteOfDay(info.shiftEndMinute));
+            }
+        });
 
         // Fetch assigned nurses
-        Cursor nurseCursor = dbHelper.getNursesAssignedToCase(caseId);
-        ArrayList<String> nurses = new ArrayList<>();
-        while (nurseCursor.moveToNext()) {
-            nurses.add(nurseCursor.getString(0));
-        }
-
-        nurseCursor.close();
-
-        nurseAdapter = new ArrayAdapter<>(this, android.R.layout.simple_list_item_1, nurses);
-        nurseList.setAdapter(nurseAdapter);
+        repository.getNursesAssignedToCase(caseId, nurses -> {
+            nurseAdapter = new ArrayAdapter<>(this, android.R.layout.simple_list_item_1, nurses);
+            nurseList.setAdapter(nurseAdapter);
+        });
     }
 }
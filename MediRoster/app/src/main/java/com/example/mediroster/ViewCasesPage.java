@@ -1,89 +1,177 @@
 package com.example.mediroster;
 
 import android.content.Intent;
-import android.database.Cursor;
 import android.os.Bundle;
-import android.widget.ArrayAdapter;
-import android.widget.ListView;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Locale;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class ViewCasesPage extends AppCompatActivity {
 
-    private ListView caseListView;
-    private UserDatabaseHelper dbHelper;
+    private static final int PAGE_SIZE = 50;
+    private static final int PREFETCH_DISTANCE = 10; // rows left below the fold before the next page is fetched
 
-    private ArrayList<String> caseLabels = new ArrayList<>();
-    private HashMap<String, Integer> caseMap = new HashMap<>();
+    private RecyclerView caseListView;
+    private LinearLayoutManager layoutManager;
+    private CaseListAdapter adapter;
+    private CoverageAdapter coverageAdapter;
+    private RosterRepository repository;
+    private InvalidationTracker.Observer changeObserver;
 
-    private String role, username;
+    private final ArrayList<CaseRow> loadedCases = new ArrayList<>();
+    private boolean loading, lastPageLoaded;
+    private int pagingGeneration; // pages requested before a reload are dropped
+    private int today;
+
+    private Session session;
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_view_cases);
 
-        dbHelper = new UserDatabaseHelper(this);
+        repository = RosterRepository.getInstance(this);
         caseListView = findViewById(R.id.case_list_view);
 
-        //  First get intent extras
-        Intent intent = getIntent();
-        role = intent.getStringExtra("role");
-        username = intent.getStringExtra("username");
-
-        //  Handle missing values early
-        if (username == null || role == null) {
+        //  Handle a missing session early
+        session = Session.current();
+        if (session == null) {
             Toast.makeText(this, "User info missing. Please log in again.", Toast.LENGTH_LONG).show();
             finish();
             return;
         }
 
-        //  Then load cases
-        loadTodaysCases();
-
-        caseListView.setOnItemClickListener((parent, view, position, id) -> {
-            String selectedLabel = caseLabels.get(position);
-            Integer caseId = caseMap.get(selectedLabel);
-            if (caseId != null) {
-                Intent detailIntent = new Intent(ViewCasesPage.this, ViewCaseDetailsPage.class);
-                detailIntent.putExtra("case_id", caseId);
-                startActivity(detailIntent);
-            } else {
-                Toast.makeText(this, "Could not load case details.", Toast.LENGTH_SHORT).show();
+        layoutManager = new LinearLayoutManager(this);
+        caseListView.setLayoutManager(layoutManager);
+        today = TimeCodec.today();
+
+        // Admins get the whole day's staffing in one query, short cases on top
+        if (session.isAdmin()) {
+            coverageAdapter = new CoverageAdapter(coverage -> openCase(coverage.caseId));
+            caseListView.setAdapter(coverageAdapter);
+            repository.getDayCoverage(today, coverageAdapter::submitList);
+            // Cases edited or restaffed elsewhere are re-read by id and patched into the list
+            changeObserver = this::patchCoverage;
+            repository.observe(changeObserver, InvalidationTracker.CASES, InvalidationTracker.ASSIGNMENTS);
+            return;
+        }
+
+        adapter = new CaseListAdapter(row -> openCase(row.caseId));
+        caseListView.setAdapter(adapter);
+        caseListView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (layoutManager.findLastVisibleItemPosition() >= adapter.getItemCount() - PREFETCH_DISTANCE) {
+                    loadNextPage();
+                }
             }
         });
+
+        //  Then load the nurse's cases, one page at a time
+        loadNextPage();
+        changeObserver = this::reloadIfShown;
+        repository.observe(changeObserver, InvalidationTracker.CASES, InvalidationTracker.ASSIGNMENTS);
     }
 
+    @Override
+    protected void onDestroy() {
+        if (changeObserver != null) {
+            repository.stopObserving(changeObserver);
+        }
+        super.onDestroy();
+    }
 
-    private void loadTodaysCases() {
-        String today = new SimpleDateFormat("yyyy-MM-dd", Locale.US).format(new Date());
+    private void openCase(int caseId) {
+        Intent detailIntent = new Intent(ViewCasesPage.this, ViewCaseDetailsPage.class);
+        detailIntent.putExtra("case_id", caseId);
+        startActivity(detailIntent);
+    }
 
-        Cursor cursor;
-        if ("admin".equalsIgnoreCase(role)) {
-            cursor = dbHelper.getCasesForDate(today);
-        } else {
-            cursor = dbHelper.getCasesForUserOnDate(username, today);
+    private void patchCoverage(InvalidationTracker.ChangeSet changes) {
+        if (changes.isWholeTable(InvalidationTracker.CASES) || changes.isWholeTable(InvalidationTracker.ASSIGNMENTS)) {
+            repository.getDayCoverage(today, coverageAdapter::submitList);
+            return;
         }
+        Set<Integer> changed = new HashSet<>(changes.getIds(InvalidationTracker.CASES));
+        changed.addAll(changes.getIds(InvalidationTracker.ASSIGNMENTS));
+        repository.getCaseCoverage(today, changed, fresh -> {
+            Map<Integer, CaseCoverage> byId = new HashMap<>();
+            for (CaseCoverage row : coverageAdapter.getCurrentList()) {
+                if (!changed.contains(row.caseId)) {
+                    byId.put(row.caseId, row);
+                }
+            }
+            for (CaseCoverage row : fresh) { // deleted and moved cases have no fresh row, so they drop out
+                byId.put(row.caseId, row);
+            }
+            List<CaseCoverage> patched = new ArrayList<>(byId.values());
+            Collections.sort(patched, CaseCoverage.UNDERSTAFFED_FIRST);
+            coverageAdapter.submitList(patched);
+        });
+    }
 
-        caseLabels.clear();
-        caseMap.clear();
+    // A nurse's list is paged by start time, so a change to a shown case restarts it. Changed cases not on
+    // the list only matter if they are now this nurse's today; one indexed lookup settles that.
+    private void reloadIfShown(InvalidationTracker.ChangeSet changes) {
+        if (changes.isWholeTable(InvalidationTracker.CASES) || changes.isWholeTable(InvalidationTracker.ASSIGNMENTS)) {
+            reload();
+            return;
+        }
+        Set<Integer> changed = new HashSet<>(changes.getIds(InvalidationTracker.CASES));
+        changed.addAll(changes.getIds(InvalidationTracker.ASSIGNMENTS));
+        for (CaseRow row : loadedCases) {
+            if (changed.contains(row.caseId)) {
+                reload();
+                return;
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        int generation = pagingGeneration;
+        repository.isAssignedToAnyOn(session.username, today, changed, assigned -> {
+            if (assigned && generation == pagingGeneration) { // a reload since then already read the change
+                reload();
+            }
+        });
+    }
+
+    private void reload() {
+        pagingGeneration++;
+        loadedCases.clear();
+        loading = false;
+        lastPageLoaded = false;
+        loadNextPage();
+    }
 
-        while (cursor.moveToNext()) {
-            int id = cursor.getInt(cursor.getColumnIndexOrThrow("case_id"));
-            String desc = cursor.getString(cursor.getColumnIndexOrThrow("description"));
-            String label = "Case ID " + id + ": " + desc;
-            caseLabels.add(label);
-            caseMap.put(label, id);
+    private void loadNextPage() {
+        if (loading || lastPageLoaded) {
+            return;
         }
-        cursor.close();
+        loading = true;
+        CaseRow after = loadedCases.isEmpty() ? CaseRow.FIRST_PAGE : loadedCases.get(loadedCases.size() - 1);
+        int generation = pagingGeneration;
 
-        ArrayAdapter<String> adapter = new ArrayAdapter<>(this, android.R.layout.simple_list_item_1, caseLabels);
-        caseListView.setAdapter(adapter);
+        RosterRepository.Callback<List<CaseRow>> append = page -> {
+            if (generation != pagingGeneration) {
+                return;
+            }
+            loading = false;
+            lastPageLoaded = page.size() < PAGE_SIZE;
+            loadedCases.addAll(page);
+            adapter.submitList(new ArrayList<>(loadedCases)); // DiffUtil turns this into an insert of the new page
+        };
+
+        repository.getCasesForUserOnDatePage(session.username, today, after, PAGE_SIZE, append);
     }
 }
@@ -0,0 +1,59 @@
+package com.example.mediroster;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class IdSpinnerModelTest {
+
+    @Test
+    public void positionOf_matchesAdapterOrder() {
+        List<ReferenceCache.Shift> shifts = Arrays.asList(
+                new ReferenceCache.Shift(42, 100, 420, 1140),
+                new ReferenceCache.Shift(7, 101, 420, 1140),
+                new ReferenceCache.Shift(19, 102, 420, 1140));
+        IdSpinnerModel model = IdSpinnerModel.of(shifts, shift -> shift.shiftId, shift -> shift.label);
+
+        assertEquals(0, model.positionOf(42));
+        assertEquals(1, model.positionOf(7));
+        assertEquals(2, model.positionOf(19));
+        assertEquals(-1, model.positionOf(8));
+        assertSame(shifts.get(1).label, model.getLabels().get(1)); // labels are shared, not copied
+    }
+
+    @Test
+    public void positionOf_manyIdsAllFound() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            ids.add(i * 31 - 2000);
+        }
+        IdSpinnerModel model = IdSpinnerModel.of(ids, id -> id, String::valueOf);
+
+        for (int position = 0; position < ids.size(); position++) {
+            assertEquals(position, model.positionOf(ids.get(position)));
+        }
+        assertEquals(-1, model.positionOf(1));
+    }
+
+    @Test
+    public void setLabel_showsThroughTheAdapterView() {
+        IdSpinnerModel model = IdSpinnerModel.of(Arrays.asList(3, 5), id -> id, id -> "Case " + id);
+        List<String> labels = model.getLabels();
+
+        model.setLabel(1, "Case 5 (renamed)");
+
+        assertEquals("Case 5 (renamed)", labels.get(1));
+        assertEquals(1, model.positionOf(5));
+    }
+
+    @Test
+    public void empty_findsNothing() {
+        assertEquals(0, IdSpinnerModel.EMPTY.size());
+        assertEquals(-1, IdSpinnerModel.EMPTY.positionOf(0));
+        assertTrue(IdSpinnerModel.EMPTY.getLabels().isEmpty());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.mediroster;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ReferenceCacheTest {
+
+    @Test
+    public void getOperations_loadsOnceThenHits() {
+        ReferenceCache cache = new ReferenceCache();
+        int[] loads = {0};
+        ReferenceCache.Loader<List<ReferenceCache.Operation>> loader = () -> {
+            loads[0]++;
+            return Arrays.asList(new ReferenceCache.Operation(1, "Appendectomy"), new ReferenceCache.Operation(2, "Hernia Repair"));
+        };
+
+        cache.getOperations(loader);
+        List<ReferenceCache.Operation> operations = cache.getOperations(loader);
+
+        assertEquals(2, operations.size());
+        assertEquals(1, loads[0]);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void shiftAdded_keepsDateOrder() {
+        ReferenceCache cache = new ReferenceCache();
+        cache.getShifts(100, () -> new ArrayList<>(Arrays.asList(
+                new ReferenceCache.Shift(1, 100, 420, 1140),
+                new ReferenceCache.Shift(2, 102, 420, 1140))));
+
+        cache.shiftAdded(new ReferenceCache.Shift(3, 101, 360, 1080));
+        cache.shiftAdded(new ReferenceCache.Shift(4, 99, 360, 1080)); // before the window, ignored
+
+        List<ReferenceCache.Shift> shifts = cache.getShifts(100, () -> {
+            throw new AssertionError("should be served from memory");
+        });
+        assertEquals(3, shifts.size());
+        assertEquals(3, shifts.get(1).shiftId);
+    }
+
+    @Test
+    public void shiftRemoved_dropsOnlyThatShift() {
+        ReferenceCache cache = new ReferenceCache();
+        cache.getShifts(100, () -> new ArrayList<>(Arrays.asList(
+                new ReferenceCache.Shift(1, 100, 420, 1140),
+                new ReferenceCache.Shift(2, 102, 420, 1140))));
+
+        cache.shiftRemoved(1);
+
+        List<ReferenceCache.Shift> shifts = cache.getShifts(100, ArrayList::new);
+        assertEquals(1, shifts.size());
+        assertEquals(2, shifts.get(0).shiftId);
+    }
+
+    @Test
+    public void getShifts_reloadsWhenWindowMoves() {
+        ReferenceCache cache = new ReferenceCache();
+        cache.getShifts(100, ArrayList::new);
+        cache.getShifts(101, ArrayList::new);
+        assertEquals(2, cache.getMisses());
+    }
+}
@@ -0,0 +1,23 @@
+// JMH benchmarks for :core and for the roster SQL on a local SQLite file.
+// Run with ./gradlew :benchmark:jmh; results land in benchmark/build/results/jmh.
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    jmh(project(":core"))
+    jmh(libs.sqlite.jdbc)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    resultFormat.set("JSON")
+    // Narrow a run from the command line, e.g. -Pjmh.includes=SchedulerBenchmark
+    (project.findProperty("jmh.includes") as String?)?.let { includes.set(listOf(it)) }
+}
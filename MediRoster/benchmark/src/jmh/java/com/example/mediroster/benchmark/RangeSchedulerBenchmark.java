@@ -0,0 +1,72 @@
+package com.example.mediroster.benchmark;
+
+import com.example.mediroster.RangeScheduler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Solving a run of days on one thread and on a fork/join pool of each size; the gap is what reassignCases
+ * gains over calling reassignAllCases day by day, less the SQLite reads and writes it still does in order.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RangeSchedulerBenchmark {
+
+    @Param({"7", "30"})
+    int days;
+
+    @Param({"1", "2", "4", "8"})
+    int threads;
+
+    private List<RangeScheduler.Day> range;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        range = new ArrayList<>();
+        for (int offset = 0; offset < days; offset++) {
+            RosterFixture fixture = new RosterFixture(1000, 1000, offset);
+            RangeScheduler.Day day = new RangeScheduler.Day(RosterFixture.DAY + offset);
+            for (String nurse : fixture.nurses) {
+                day.addPresentNurse(nurse);
+            }
+            for (int i = 0; i < fixture.caseCount(); i++) {
+                day.addCase(offset * 10_000 + i + 1, fixture.caseStarts[i], fixture.caseEnds[i], fixture.caseRequired[i]);
+            }
+            range.add(day);
+        }
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<Map<Integer, List<String>>> solveRange() {
+        return new RangeScheduler(pool).solve(range);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.mediroster.benchmark;
+
+import com.example.mediroster.AvailabilityIndex;
+import com.example.mediroster.RosterScheduler;
+
+import java.util.Random;
+
+/**
+ * A synthetic roster day: nurses named nurse0..n and cases with ids 1..m, times spread over the day.
+ * The same seed always gives the same day, so runs are comparable.
+ */
+final class RosterFixture {
+
+    static final int DAY = 20_000; // any epoch day will do
+
+    final String[] nurses;
+    final int[] caseStarts;
+    final int[] caseEnds;
+    final int[] caseRequired;
+
+    RosterFixture(int nurseCount, int caseCount, long seed) {
+        Random random = new Random(seed);
+        nurses = new String[nurseCount];
+        for (int i = 0; i < nurseCount; i++) {
+            nurses[i] = "nurse" + i;
+        }
+        caseStarts = new int[caseCount];
+        caseEnds = new int[caseCount];
+        caseRequired = new int[caseCount];
+        for (int i = 0; i < caseCount; i++) {
+            caseStarts[i] = random.nextInt(22 * 4) * 15; // quarter-hour starts up to 22:00
+            caseEnds[i] = caseStarts[i] + (1 + random.nextInt(4)) * 60;
+            caseRequired[i] = 1 + random.nextInt(3);
+        }
+    }
+
+    int caseCount() {
+        return caseStarts.length;
+    }
+
+    /** Every nurse present and every case loaded, nothing assigned yet. */
+    RosterScheduler newScheduler(AvailabilityIndex availability) {
+        RosterScheduler scheduler = new RosterScheduler(availability);
+        for (String nurse : nurses) {
+            scheduler.addPresentNurse(nurse);
+        }
+        for (int i = 0; i < caseStarts.length; i++) {
+            scheduler.addCase(i + 1, caseStarts[i], caseEnds[i], caseRequired[i]);
+        }
+        return scheduler;
+    }
+}
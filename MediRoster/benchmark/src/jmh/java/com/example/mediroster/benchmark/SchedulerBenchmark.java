@@ -0,0 +1,135 @@
+package com.example.mediroster.benchmark;
+
+import com.example.mediroster.AvailabilityIndex;
+import com.example.mediroster.IncrementalScheduler;
+import com.example.mediroster.IntervalSet;
+import com.example.mediroster.PresenceChange;
+import com.example.mediroster.RosterChange;
+import com.example.mediroster.RosterDelta;
+import com.example.mediroster.RosterScheduler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory cost of the :core scheduling paths, with the same number of nurses and cases.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SchedulerBenchmark {
+
+    private static final int PROBES = 1024; // power of two, see nextProbe
+
+    @Param({"100", "1000", "10000"})
+    int size;
+
+    private RosterFixture fixture;
+    private AvailabilityIndex filledDay; // every case assigned, as UserDatabaseHelper keeps it cached
+    private IntervalSet shifts;
+    private final int[] probes = new int[PROBES];
+    private int probe;
+    private Set<String> storedPresence;
+    private List<String> checkedIn;
+    private IncrementalScheduler filledRoster;
+    private int toggled;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new RosterFixture(size, size, 42);
+        filledDay = new AvailabilityIndex();
+        fixture.newScheduler(filledDay).fillAllCases();
+
+        shifts = new IntervalSet();
+        for (int i = 0; i < size; i++) {
+            shifts.add(i * 100, i * 100 + 60); // disjoint, so the set holds `size` ranges
+        }
+
+        Random random = new Random(7);
+        for (int i = 0; i < PROBES; i++) {
+            probes[i] = random.nextInt(size * 100);
+        }
+
+        RosterScheduler roster = fixture.newScheduler(new AvailabilityIndex());
+        roster.fillAllCases();
+        filledRoster = new IncrementalScheduler(roster);
+
+        // a tenth of the floor flips between saves
+        storedPresence = new HashSet<>();
+        checkedIn = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (i % 10 != 0) {
+                storedPresence.add(fixture.nurses[i]);
+            }
+            if (i % 10 != 5) {
+                checkedIn.add(fixture.nurses[i]);
+            }
+        }
+    }
+
+    /** reassignAllCases without the database: load the whole day and fill every case. */
+    @Benchmark
+    public Map<Integer, List<String>> reassignDay() {
+        return fixture.newScheduler(new AvailabilityIndex()).fillAllCases();
+    }
+
+    /** autoAssignNursesToCase without the database: present nurses over the cached day, fill one new case. */
+    @Benchmark
+    public List<String> assignOneCase() {
+        RosterScheduler scheduler = new RosterScheduler(filledDay);
+        for (String nurse : fixture.nurses) {
+            scheduler.addPresentNurse(nurse);
+        }
+        int caseId = fixture.caseCount() + 1;
+        int start = nextProbe() % (22 * 60);
+        scheduler.addCase(caseId, start, start + 60, 2);
+        List<String> added = scheduler.fillCase(caseId);
+        filledDay.removeCase(caseId); // leave the day as it was for the next call
+        return added;
+    }
+
+    /** updateRoster without the database: one nurse checks out and back in on a filled day. */
+    @Benchmark
+    public RosterDelta toggleOneNurse() {
+        String nurse = fixture.nurses[toggled++ % fixture.nurses.length];
+        filledRoster.apply(RosterChange.nurseAbsent(nurse));
+        return filledRoster.apply(RosterChange.nursePresent(nurse));
+    }
+
+    @Benchmark
+    public boolean shiftOverlaps() {
+        int start = nextProbe();
+        return shifts.overlaps(start, start + 30);
+    }
+
+    @Benchmark
+    public PresenceChange presenceDiff() {
+        return PresenceChange.between(storedPresence, checkedIn);
+    }
+
+    private int nextProbe() {
+        probe = (probe + 1) & (PROBES - 1);
+        return probes[probe];
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.mediroster.benchmark;
+
+import com.example.mediroster.HospitalDataGenerator;
+import com.example.mediroster.RosterSchema;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to generate and store a dataset from scratch, shaped like SqliteSeedSink on the device: one prepared
+ * statement per table and a commit every BATCH_ROWS rows. Rows whose ids the generator does not need back are
+ * JDBC batches, since the driver's per-call overhead would otherwise swamp SQLite's own cost.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class SeedBenchmark {
+
+    private static final int BATCH_ROWS = 10_000;
+
+    @Param({"250", "5000"})
+    int nurses;
+
+    private Path file;
+    private Connection connection;
+
+    @Setup(Level.Invocation)
+    public void setUp() throws Exception {
+        file = Files.createTempFile("seed-bench", ".db");
+        connection = DriverManager.getConnection("jdbc:sqlite:" + file);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode = WAL");
+            statement.execute("PRAGMA synchronous = NORMAL");
+            for (String sql : RosterSchema.create()) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() throws Exception {
+        connection.close();
+        for (String suffix : new String[]{"", "-wal", "-shm"}) {
+            Files.deleteIfExists(Paths.get(file + suffix));
+        }
+    }
+
+    /** A year of rosters; 5,000 nurses is Config.loadTest(), 250 the same shape at a twentieth of the size. */
+    @Benchmark
+    public long seedYear() throws SQLException {
+        HospitalDataGenerator.Config config = HospitalDataGenerator.Config.loadTest()
+                .nurses(nurses).units(nurses / 100);
+        // as UserDatabaseHelper.seed does: bare tables for the load, then each index built once
+        execute("DROP INDEX IF EXISTS ", RosterSchema.ROSTER_INDEX_NAMES);
+        execute("DROP TRIGGER IF EXISTS ", RosterSchema.CASE_SEARCH_TRIGGER_NAMES);
+        long rows;
+        try (JdbcSink sink = new JdbcSink(connection)) {
+            rows = new HospitalDataGenerator(config).generate(sink);
+            sink.commit();
+        }
+        execute("", RosterSchema.ROSTER_INDEXES);
+        execute("", "DELETE FROM case_search", RosterSchema.CASE_SEARCH_BACKFILL);
+        execute("", RosterSchema.CASE_SEARCH_TRIGGERS);
+        execute("", RosterSchema.ASSIGNMENT_SEARCH_TRIGGERS);
+        return rows;
+    }
+
+    private void execute(String prefix, String... suffixes) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String suffix : suffixes) {
+                statement.execute(prefix + suffix);
+            }
+        }
+    }
+
+    private static final class JdbcSink implements HospitalDataGenerator.Sink, AutoCloseable {
+        private final Connection connection;
+        private final PreparedStatement user;
+        private final PreparedStatement operation;
+        private final PreparedStatement shift;
+        private final PreparedStatement addCase;
+        private final PreparedStatement presence;
+        private final PreparedStatement assignment;
+        private int pending;
+
+        JdbcSink(Connection connection) throws SQLException {
+            this.connection = connection;
+            connection.setAutoCommit(false);
+            user = connection.prepareStatement(
+                    "INSERT OR IGNORE INTO users (username, password, role, display_name) VALUES (?, ?, ?, ?)");
+            operation = connection.prepareStatement("INSERT INTO operations (operation_name) " +
+                    "SELECT ? WHERE NOT EXISTS (SELECT 1 FROM operations WHERE operation_name = ?)");
+            shift = connection.prepareStatement(
+                    "INSERT INTO shifts (date, start_time, end_time) VALUES (?, ?, ?) RETURNING shift_id");
+            addCase = connection.prepareStatement("INSERT INTO cases " +
+                    "(description, required_nurses, scheduled_shift_id, operation, start_time, end_time) " +
+                    "VALUES (?, ?, ?, ?, ?, ?) RETURNING case_id");
+            presence = connection.prepareStatement("INSERT OR IGNORE INTO presence (username, date) VALUES (?, ?)");
+            assignment = connection.prepareStatement("INSERT INTO assignments (case_id, user_id) VALUES (?, ?)");
+        }
+
+        @Override
+        public void user(String username, String password, String role, String displayName) {
+            try {
+                user.setString(1, username);
+                user.setString(2, password);
+                user.setString(3, role);
+                user.setString(4, displayName);
+                user.addBatch();
+                written();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void operation(String name) {
+            try {
+                operation.setString(1, name);
+                operation.setString(2, name);
+                operation.addBatch();
+                written();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public long shift(int day, int startMinute, int endMinute) {
+            try {
+                shift.setInt(1, day);
+                shift.setInt(2, startMinute);
+                shift.setInt(3, endMinute);
+                return insertReturningId(shift);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public long addCase(String description, int requiredNurses, long shiftId, String operation,
+                            int startMinute, int endMinute) {
+            try {
+                addCase.setString(1, description);
+                addCase.setInt(2, requiredNurses);
+                addCase.setLong(3, shiftId);
+                addCase.setString(4, operation);
+                addCase.setInt(5, startMinute);
+                addCase.setInt(6, endMinute);
+                return insertReturningId(addCase);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void presence(String username, int day) {
+            try {
+                presence.setString(1, username);
+                presence.setInt(2, day);
+                presence.addBatch();
+                written();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void assignment(long caseId, String username) {
+            try {
+                assignment.setLong(1, caseId);
+                assignment.setString(2, username);
+                assignment.addBatch();
+                written();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void commit() throws SQLException {
+            user.executeBatch();
+            operation.executeBatch();
+            presence.executeBatch();
+            assignment.executeBatch();
+            connection.commit();
+            pending = 0;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            connection.rollback();
+            connection.setAutoCommit(true);
+            for (PreparedStatement statement : new PreparedStatement[]{user, operation, shift, addCase, presence, assignment}) {
+                statement.close();
+            }
+        }
+
+        private long insertReturningId(PreparedStatement insert) throws SQLException {
+            long id;
+            try (ResultSet rows = insert.executeQuery()) {
+                rows.next();
+                id = rows.getLong(1);
+            }
+            written();
+            return id;
+        }
+
+        private void written() throws SQLException {
+            if (++pending >= BATCH_ROWS) {
+                commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.example.mediroster.benchmark;
+
+import com.example.mediroster.AvailabilityIndex;
+import com.example.mediroster.PresenceChange;
+import com.example.mediroster.RosterScheduler;
+import com.example.mediroster.RosterSchema;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The roster paths end to end against a SQLite file, through the xerial JDBC driver.
+ * Schema, triggers and roster queries are RosterSchema's, the ones UserDatabaseHelper runs, and each benchmark
+ * issues them in the order the helper method it is named after does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SqliteRosterBenchmark {
+
+    private static final String SHIFT_OVERLAP =
+            "SELECT 1 FROM shifts WHERE date = ? AND start_time < ? AND end_time > ? LIMIT 1";
+
+    @Param({"100", "1000", "10000"})
+    int size;
+
+    private Path file;
+    private Connection connection;
+    private RosterFixture fixture;
+    private List<String> presenceA;
+    private List<String> presenceB;
+    private boolean saveB;
+    private final Random random = new Random(7);
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        file = Files.createTempFile("roster-bench", ".db");
+        connection = DriverManager.getConnection("jdbc:sqlite:" + file);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode = WAL");
+            statement.execute("PRAGMA synchronous = NORMAL");
+            for (String sql : RosterSchema.create()) {
+                statement.execute(sql);
+            }
+        }
+        fixture = new RosterFixture(size, size, 42);
+        seed(fixture);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        connection.close();
+        for (String suffix : new String[]{"", "-wal", "-shm"}) {
+            Files.deleteIfExists(Paths.get(file + suffix));
+        }
+    }
+
+    /**
+     * reassignAllCases: drop the per-row search triggers, clear the day, load availability, presence and cases,
+     * fill, write, refresh each case's search document once and restore the triggers, all in one transaction.
+     */
+    @Benchmark
+    public int reassignDay() throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            for (String trigger : RosterSchema.ASSIGNMENT_SEARCH_TRIGGER_NAMES) {
+                execute("DROP TRIGGER IF EXISTS " + trigger);
+            }
+            execute(RosterSchema.CLEAR_DAY_ASSIGNMENTS, RosterFixture.DAY);
+            RosterScheduler scheduler = new RosterScheduler(loadAvailability(RosterFixture.DAY));
+            loadPresentNurses(scheduler, RosterFixture.DAY);
+            try (PreparedStatement cases = connection.prepareStatement(RosterSchema.ROSTER_CASES)) {
+                cases.setInt(1, RosterFixture.DAY);
+                try (ResultSet rows = cases.executeQuery()) {
+                    while (rows.next()) {
+                        scheduler.addCase(rows.getInt(1), rows.getInt(3), rows.getInt(4), Math.max(1, rows.getInt(2)));
+                    }
+                }
+            }
+            int written = writeAssignments(scheduler.fillAllCases());
+            execute(RosterSchema.REFRESH_SEARCH_NURSES, RosterFixture.DAY, RosterFixture.DAY);
+            for (String trigger : RosterSchema.ASSIGNMENT_SEARCH_TRIGGERS) {
+                execute(trigger);
+            }
+            connection.commit();
+            return written;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * autoAssignNursesToCase: presence and the case's count read against a warm availability index, then the
+     * picked nurses written with the assignment triggers in place, the way adding one case runs on the device.
+     */
+    @Benchmark
+    public int autoAssignCase(FreeCase free) throws SQLException {
+        int index = free.caseId - 1;
+        RosterScheduler scheduler = new RosterScheduler(free.availability);
+        loadPresentNurses(scheduler, RosterFixture.DAY);
+        int required;
+        try (PreparedStatement query = connection.prepareStatement(RosterSchema.REQUIRED_NURSES)) {
+            query.setInt(1, free.caseId);
+            try (ResultSet rows = query.executeQuery()) {
+                required = rows.next() ? Math.max(1, rows.getInt(1)) : 1;
+            }
+        }
+        scheduler.addCase(free.caseId, free.fixture.caseStarts[index], free.fixture.caseEnds[index], required);
+        List<String> nurses = scheduler.fillCase(free.caseId);
+        if (nurses.isEmpty()) {
+            return 0;
+        }
+        connection.setAutoCommit(false);
+        try {
+            int written = writeAssignments(Collections.singletonMap(free.caseId, nurses));
+            connection.commit();
+            return written;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /** savePresence: flips a tenth of the floor each call, writing only the delta in one transaction. */
+    @Benchmark
+    public PresenceChange savePresence() throws SQLException {
+        List<String> wanted = saveB ? presenceB : presenceA;
+        saveB = !saveB;
+        connection.setAutoCommit(false);
+        try {
+            Set<String> stored = new HashSet<>();
+            try (PreparedStatement read = connection.prepareStatement("SELECT username FROM presence WHERE date = ?")) {
+                read.setInt(1, RosterFixture.DAY);
+                try (ResultSet rows = read.executeQuery()) {
+                    while (rows.next()) {
+                        stored.add(rows.getString(1));
+                    }
+                }
+            }
+            PresenceChange change = PresenceChange.between(stored, wanted);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT OR IGNORE INTO presence (username, date) VALUES (?, ?)");
+                 PreparedStatement delete = connection.prepareStatement(
+                         "DELETE FROM presence WHERE username = ? AND date = ?")) {
+                for (String nurse : change.checkedIn) {
+                    insert.setString(1, nurse);
+                    insert.setInt(2, RosterFixture.DAY);
+                    insert.addBatch();
+                }
+                for (String nurse : change.checkedOut) {
+                    delete.setString(1, nurse);
+                    delete.setInt(2, RosterFixture.DAY);
+                    delete.addBatch();
+                }
+                insert.executeBatch();
+                delete.executeBatch();
+            }
+            connection.commit();
+            return change;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /** The indexed overlap query that backs shiftOverlaps on a cold availability cache. */
+    @Benchmark
+    public boolean shiftOverlaps() throws SQLException {
+        int day = RosterFixture.DAY - random.nextInt(size);
+        int start = random.nextInt(20 * 60);
+        try (PreparedStatement query = connection.prepareStatement(SHIFT_OVERLAP)) {
+            query.setInt(1, day);
+            query.setInt(2, start + 60);
+            query.setInt(3, start);
+            try (ResultSet rows = query.executeQuery()) {
+                return rows.next();
+            }
+        }
+    }
+
+    /** Takes the next case off the roster before each autoAssignCase call, so every call has one to fill. */
+    @State(Scope.Thread)
+    public static class FreeCase {
+        RosterFixture fixture;
+        AvailabilityIndex availability;
+        int caseId;
+        private SqliteRosterBenchmark bench;
+
+        @Setup(Level.Trial)
+        public void setUp(SqliteRosterBenchmark bench) throws SQLException {
+            this.bench = bench;
+            fixture = bench.fixture;
+            availability = bench.loadAvailability(RosterFixture.DAY);
+        }
+
+        @Setup(Level.Invocation)
+        public void freeNextCase() throws SQLException {
+            caseId = caseId % fixture.caseCount() + 1;
+            bench.execute("DELETE FROM assignments WHERE case_id = ?", caseId);
+            availability.removeCase(caseId);
+        }
+    }
+
+    // The day's shifts, bookings and carryover, as UserDatabaseHelper.loadAvailability reads them
+    private AvailabilityIndex loadAvailability(int day) throws SQLException {
+        AvailabilityIndex availability = new AvailabilityIndex();
+        try (PreparedStatement shifts = connection.prepareStatement(RosterSchema.DAY_SHIFTS);
+             PreparedStatement bookings = connection.prepareStatement(RosterSchema.DAY_BOOKINGS);
+             PreparedStatement carryover = connection.prepareStatement(RosterSchema.ROSTER_CARRYOVER)) {
+            shifts.setInt(1, day);
+            try (ResultSet rows = shifts.executeQuery()) {
+                while (rows.next()) {
+                    availability.addShift(rows.getInt(1), rows.getInt(2), rows.getInt(3));
+                }
+            }
+            bookings.setInt(1, day);
+            try (ResultSet rows = bookings.executeQuery()) {
+                while (rows.next()) {
+                    availability.addAssignment(rows.getInt(1), rows.getString(2), rows.getInt(3), rows.getInt(4));
+                }
+            }
+            carryover.setInt(1, day);
+            try (ResultSet rows = carryover.executeQuery()) {
+                while (rows.next()) {
+                    availability.addBooking(rows.getString(1), rows.getInt(2), rows.getInt(3));
+                }
+            }
+        }
+        return availability;
+    }
+
+    private void loadPresentNurses(RosterScheduler scheduler, int day) throws SQLException {
+        try (PreparedStatement nurses = connection.prepareStatement(RosterSchema.ROSTER_PRESENT_NURSES)) {
+            nurses.setInt(1, day);
+            try (ResultSet rows = nurses.executeQuery()) {
+                while (rows.next()) {
+                    scheduler.addPresentNurse(rows.getString(1));
+                }
+            }
+        }
+    }
+
+    private int writeAssignments(Map<Integer, List<String>> assignments) throws SQLException {
+        int written = 0;
+        try (PreparedStatement insert = connection.prepareStatement(RosterSchema.INSERT_ASSIGNMENT)) {
+            for (Map.Entry<Integer, List<String>> entry : assignments.entrySet()) {
+                for (String nurse : entry.getValue()) {
+                    insert.setInt(1, entry.getKey());
+                    insert.setString(2, nurse);
+                    insert.addBatch();
+                    written++;
+                }
+            }
+            insert.executeBatch();
+        }
+        return written;
+    }
+
+    private void execute(String sql, Object... args) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            statement.execute();
+        }
+    }
+
+    private void seed(RosterFixture fixture) throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement user = connection.prepareStatement(
+                "INSERT INTO users (username, role, display_name) VALUES (?, 'nurse', ?)");
+             PreparedStatement present = connection.prepareStatement(
+                     "INSERT INTO presence (username, date) VALUES (?, ?)");
+             PreparedStatement shift = connection.prepareStatement(
+                     "INSERT INTO shifts (date, start_time, end_time) VALUES (?, ?, ?)");
+             PreparedStatement addCase = connection.prepareStatement(
+                     "INSERT INTO cases (description, required_nurses, scheduled_shift_id, start_time, end_time) " +
+                             "VALUES (?, ?, 1, ?, ?)")) {
+            presenceA = new ArrayList<>();
+            presenceB = new ArrayList<>();
+            for (int i = 0; i < fixture.nurses.length; i++) {
+                String nurse = fixture.nurses[i];
+                user.setString(1, nurse);
+                user.setString(2, "Nurse " + i);
+                user.addBatch();
+                present.setString(1, nurse);
+                present.setInt(2, RosterFixture.DAY);
+                present.addBatch();
+                presenceA.add(nurse);
+                if (i % 10 != 0) {
+                    presenceB.add(nurse);
+                }
+            }
+            // shift 1 is the benchmarked day; the rest is one shift per earlier day, as history
+            for (int i = 0; i < size; i++) {
+                shift.setInt(1, RosterFixture.DAY - i);
+                shift.setInt(2, 0);
+                shift.setInt(3, 23 * 60);
+                shift.addBatch();
+            }
+            for (int i = 0; i < fixture.caseCount(); i++) {
+                addCase.setString(1, "Case " + i);
+                addCase.setInt(2, fixture.caseRequired[i]);
+                addCase.setInt(3, fixture.caseStarts[i]);
+                addCase.setInt(4, fixture.caseEnds[i]);
+                addCase.addBatch();
+            }
+            user.executeBatch();
+            present.executeBatch();
+            shift.executeBatch();
+            addCase.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+// Scheduling logic with no Android dependencies, so it can be unit tested and benchmarked on any JVM.
+plugins {
+    `java-library`
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// Tests hold non-ASCII literals (ICalendarWriterTest, SearchQueryTest); never fall back to the platform charset
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
@@ -0,0 +1,145 @@
+package com.example.mediroster;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Booked time for one roster day: the day's shifts plus each nurse's case bookings.
+ * UserDatabaseHelper keeps one per loaded day so overlap and free-slot checks stay in memory.
+ * Times are minutes from the day's midnight, as in TimeCodec.
+ */
+public class AvailabilityIndex {
+
+    private final IntervalSet shifts = new IntervalSet();
+    private final Map<Integer, int[]> shiftTimes = new HashMap<>(); // shift id -> {start, end}
+    private final Map<String, IntervalSet> nurseBookings = new HashMap<>();
+    private final Map<Integer, CaseBooking> caseBookings = new HashMap<>();
+
+    public boolean shiftOverlaps(int start, int end) {
+        return shifts.overlaps(start, end);
+    }
+
+    public void addShift(int shiftId, int start, int end) {
+        shiftTimes.put(shiftId, new int[]{start, end});
+        shifts.add(start, end);
+    }
+
+    public boolean removeShift(int shiftId) {
+        int[] times = shiftTimes.remove(shiftId);
+        if (times == null) {
+            return false;
+        }
+        shifts.remove(times[0], times[1]);
+        return true;
+    }
+
+    /** @return the id of a shift that fully contains [start, end), or -1 if none does */
+    public int findShiftContaining(int start, int end) {
+        for (Map.Entry<Integer, int[]> shift : shiftTimes.entrySet()) {
+            if (TimeCodec.isWithin(start, end, shift.getValue()[0], shift.getValue()[1])) {
+                return shift.getKey();
+            }
+        }
+        return -1;
+    }
+
+    /** Books time that does not belong to one of this day's cases, e.g. a case carried over from yesterday. */
+    public void addBooking(String nurse, int start, int end) {
+        bookingsFor(nurse).add(start, end);
+    }
+
+    /** @return false if the nurse was already booked on this case */
+    public boolean addAssignment(int caseId, String nurse, int start, int end) {
+        CaseBooking booking = caseBookings.get(caseId);
+        if (booking == null) {
+            booking = new CaseBooking(start, end);
+            caseBookings.put(caseId, booking);
+        }
+        if (booking.nurses.contains(nurse)) {
+            return false;
+        }
+        booking.nurses.add(nurse);
+        bookingsFor(nurse).add(booking.start, booking.end);
+        return true;
+    }
+
+    /** Frees one nurse from the case; @return false if the nurse was not booked on it */
+    public boolean removeAssignment(int caseId, String nurse) {
+        CaseBooking booking = caseBookings.get(caseId);
+        if (booking == null || !booking.nurses.remove(nurse)) {
+            return false;
+        }
+        IntervalSet bookings = nurseBookings.get(nurse);
+        if (bookings != null) {
+            bookings.remove(booking.start, booking.end);
+        }
+        if (booking.nurses.isEmpty()) {
+            caseBookings.remove(caseId); // so a case re-added at new times isn't booked at the old ones
+        }
+        return true;
+    }
+
+    /** Frees every nurse booked on the case. */
+    public boolean removeCase(int caseId) {
+        CaseBooking booking = caseBookings.remove(caseId);
+        if (booking == null) {
+            return false;
+        }
+        for (String nurse : booking.nurses) {
+            IntervalSet bookings = nurseBookings.get(nurse);
+            if (bookings != null) {
+                bookings.remove(booking.start, booking.end);
+            }
+        }
+        return true;
+    }
+
+    public List<String> getNursesOnCase(int caseId) {
+        CaseBooking booking = caseBookings.get(caseId);
+        return booking == null ? Collections.emptyList() : Collections.unmodifiableList(booking.nurses);
+    }
+
+    public boolean isNurseFree(String nurse, int start, int end) {
+        IntervalSet bookings = nurseBookings.get(nurse);
+        return bookings == null || !bookings.overlaps(start, end);
+    }
+
+    public int getBookedMinutes(String nurse) {
+        IntervalSet bookings = nurseBookings.get(nurse);
+        return bookings == null ? 0 : bookings.getTotalMinutes();
+    }
+
+    /** Unbooked {start, end} gaps for the nurse inside [from, to). */
+    public List<int[]> getFreeSlots(String nurse, int from, int to) {
+        IntervalSet bookings = nurseBookings.get(nurse);
+        if (bookings == null) {
+            List<int[]> whole = new ArrayList<>();
+            whole.add(new int[]{from, to});
+            return whole;
+        }
+        return bookings.freeSlots(from, to);
+    }
+
+    private IntervalSet bookingsFor(String nurse) {
+        IntervalSet bookings = nurseBookings.get(nurse);
+        if (bookings == null) {
+            bookings = new IntervalSet();
+            nurseBookings.put(nurse, bookings);
+        }
+        return bookings;
+    }
+
+    private static class CaseBooking {
+        final int start;
+        final int end;
+        final List<String> nurses = new ArrayList<>();
+
+        CaseBooking(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
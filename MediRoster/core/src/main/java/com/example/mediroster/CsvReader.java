@@ -0,0 +1,106 @@
+package com.example.mediroster;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV one record at a time, so a file of any length is held one row at a time.
+ * Handles quoted fields with commas, doubled quotes and line breaks, CRLF or LF endings and a leading BOM.
+ */
+public class CsvReader implements Closeable {
+
+    private final Reader in;
+    private final StringBuilder field = new StringBuilder();
+    private int lineNumber = 1;
+    private int recordLine;
+    private int pushedBack = -2; // -2: nothing pushed back
+    private boolean started;
+
+    public CsvReader(Reader in) {
+        this.in = in; // callers pass a buffered reader; every record is read a char at a time
+    }
+
+    /** @return the next record's fields, or null at the end of input; blank lines are skipped */
+    public String[] readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        int c = read();
+        while (c == '\n' || c == '\r') { // blank lines between records
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordLine = lineNumber;
+        boolean quoted = false;
+        field.setLength(0);
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pushedBack = next;
+                    }
+                }
+                fields.add(field.toString());
+                return fields.toArray(new String[0]);
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /** The line the last record returned by {@link #readRecord()} started on, counting from 1. */
+    public int getLineNumber() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (pushedBack != -2) {
+            c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        c = in.read();
+        if (!started) {
+            started = true;
+            if (c == '\uFEFF') {
+                c = in.read();
+            }
+        }
+        if (c == '\n') {
+            lineNumber++;
+        }
+        return c;
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.mediroster;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Synthetic hospital data: staff, operations, one day shift per day, cases for every unit, daily presence
+ * and, optionally, the roster the scheduler would produce for it. Rows go to a {@link Sink}, which owns
+ * the storage (compiled statements in batched transactions on the device, JDBC in the benchmarks).
+ * The same config and seed always produce the same rows.
+ */
+public class HospitalDataGenerator {
+
+    /** Receives generated rows: users and operations, then shifts, cases and assignments day by day, then presence. */
+    public interface Sink {
+        void user(String username, String password, String role, String displayName);
+
+        void operation(String name);
+
+        /** @return the new shift's id */
+        long shift(int day, int startMinute, int endMinute);
+
+        /** @return the new case's id */
+        long addCase(String description, int requiredNurses, long shiftId, String operation,
+                     int startMinute, int endMinute);
+
+        void presence(String username, int day);
+
+        void assignment(long caseId, String username);
+    }
+
+    static final String[] NURSE_NAMES = {"Alex", "Jordan", "Taylor", "Morgan", "Sydney", "Casey", "Riley", "Jamie",
+            "Drew", "Robin", "Avery", "Cameron", "Quinn", "Reese", "Skylar", "Hayden", "Peyton", "Logan", "Sawyer",
+            "Blake", "Charlie", "Rowan", "Harper", "Dakota", "Kendall"};
+
+    static final String[] OPERATIONS = {"Appendectomy", "Gallbladder Removal", "Knee Replacement", "Hip Replacement",
+            "Hernia Repair", "Cesarean Section", "Tonsillectomy", "Mastectomy", "Coronary Bypass", "Cataract Surgery"};
+
+    private static final int SHIFT_START = 6 * 60;
+    private static final int SHIFT_END = 18 * 60;
+
+    public static final class Config {
+        int admins = 5;
+        int nurses = 25;
+        int units = 1;
+        int casesPerUnitPerDay = 4;
+        int months = 0;
+        int startDay = TimeCodec.today();
+        double absenteeRate = 0.1;
+        boolean assign = true;
+        long seed = 1;
+        final Map<String, Integer> caseMix = new LinkedHashMap<>();
+
+        public Config() {
+            for (String operation : OPERATIONS) {
+                caseMix.put(operation, 1);
+            }
+        }
+
+        /** What a fresh install gets: the staff and operations, no shifts. */
+        public static Config demo() {
+            return new Config();
+        }
+
+        /** Production scale: 5,000 nurses across 50 units and a year of rosters ending today. */
+        public static Config loadTest() {
+            Config config = new Config().nurses(5000).units(50).months(12);
+            return config.startDay((int) LocalDate.ofEpochDay(TimeCodec.today()).minusMonths(12).toEpochDay());
+        }
+
+        public Config admins(int admins) {
+            this.admins = admins;
+            return this;
+        }
+
+        public Config nurses(int nurses) {
+            this.nurses = nurses;
+            return this;
+        }
+
+        /** Units run their cases in parallel; each adds {@code casesPerUnitPerDay} cases to every day. */
+        public Config units(int units) {
+            this.units = units;
+            return this;
+        }
+
+        public Config casesPerUnitPerDay(int cases) {
+            this.casesPerUnitPerDay = cases;
+            return this;
+        }
+
+        /** Calendar months of shifts, starting at {@link #startDay}; 0 seeds staff and operations only. */
+        public Config months(int months) {
+            this.months = months;
+            return this;
+        }
+
+        public Config startDay(int epochDay) {
+            this.startDay = epochDay;
+            return this;
+        }
+
+        /** Share of nurses not checked in on a given day, 0 to 1. */
+        public Config absenteeRate(double rate) {
+            if (rate < 0 || rate > 1) {
+                throw new IllegalArgumentException("Absentee rate must be between 0 and 1: " + rate);
+            }
+            this.absenteeRate = rate;
+            return this;
+        }
+
+        /** Relative frequency of an operation among generated cases; weight 0 drops it from the mix. */
+        public Config caseWeight(String operation, int weight) {
+            caseMix.put(operation, weight);
+            return this;
+        }
+
+        /** Whether to roster each day's cases over its present nurses, as reassignAllCases would. */
+        public Config assign(boolean assign) {
+            this.assign = assign;
+            return this;
+        }
+
+        public Config seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+    }
+
+    private final Config config;
+    private final Random random;
+    private final String[] mixOperations;
+    private final int[] mixCumulative;
+    private long rows;
+
+    public HospitalDataGenerator(Config config) {
+        this.config = config;
+        this.random = new Random(config.seed);
+        List<String> operations = new ArrayList<>();
+        int[] cumulative = new int[config.caseMix.size()];
+        int total = 0;
+        for (Map.Entry<String, Integer> entry : config.caseMix.entrySet()) {
+            if (entry.getValue() > 0) {
+                total += entry.getValue();
+                cumulative[operations.size()] = total;
+                operations.add(entry.getKey());
+            }
+        }
+        this.mixOperations = operations.toArray(new String[0]);
+        this.mixCumulative = Arrays.copyOf(cumulative, mixOperations.length);
+    }
+
+    /** Writes the whole dataset to the sink. @return the number of rows written */
+    public long generate(Sink sink) {
+        rows = 0;
+        for (int i = 1; i <= config.admins; i++) {
+            sink.user("admin" + i, "adminpass", "admin", "Admin " + i);
+            rows++;
+        }
+        String[] nurses = new String[config.nurses];
+        for (int i = 1; i <= config.nurses; i++) {
+            nurses[i - 1] = "nurse" + i;
+            sink.user(nurses[i - 1], "nursepass", "nurse", nurseName(i));
+            rows++;
+        }
+        for (String operation : config.caseMix.keySet()) {
+            sink.operation(operation);
+            rows++;
+        }
+
+        int endDay = (int) LocalDate.ofEpochDay(config.startDay).plusMonths(config.months).toEpochDay();
+        int days = endDay - config.startDay;
+        BitSet present = drawPresence(days, nurses.length);
+        for (int offset = 0; offset < days; offset++) {
+            generateDay(sink, config.startDay + offset, nurses, present, offset * nurses.length);
+        }
+        writePresence(sink, nurses, present, days);
+        return rows;
+    }
+
+    private BitSet drawPresence(int days, int nurseCount) { // bit (day offset * nurses + nurse) set when present
+        BitSet present = new BitSet(days * nurseCount);
+        for (int bit = 0; bit < days * nurseCount; bit++) {
+            if (random.nextDouble() >= config.absenteeRate) {
+                present.set(bit);
+            }
+        }
+        return present;
+    }
+
+    private void generateDay(Sink sink, int day, String[] nurses, BitSet present, int firstBit) {
+        long shiftId = sink.shift(day, SHIFT_START, SHIFT_END);
+        rows++;
+        if (mixOperations.length == 0) {
+            return;
+        }
+        RosterScheduler scheduler = null;
+        if (config.assign) {
+            scheduler = new RosterScheduler();
+            for (int i = 0; i < nurses.length; i++) {
+                if (present.get(firstBit + i)) {
+                    scheduler.addPresentNurse(nurses[i]);
+                }
+            }
+        }
+        for (int unit = 1; unit <= config.units; unit++) {
+            for (int i = 0; i < config.casesPerUnitPerDay; i++) {
+                String operation = pickOperation();
+                int duration = (1 + random.nextInt(4)) * 60;
+                int start = SHIFT_START + random.nextInt((SHIFT_END - SHIFT_START - duration) / 15 + 1) * 15;
+                int required = 1 + random.nextInt(3);
+                long caseId = sink.addCase(operation + " - Unit " + unit, required, shiftId, operation,
+                        start, start + duration);
+                rows++;
+                if (scheduler != null) {
+                    scheduler.addCase((int) caseId, start, start + duration, required);
+                }
+            }
+        }
+
+        if (scheduler != null) {
+            for (Map.Entry<Integer, List<String>> entry : scheduler.fillAllCases().entrySet()) {
+                for (String nurse : entry.getValue()) {
+                    sink.assignment(entry.getKey(), nurse);
+                    rows++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Presence goes out last and in (username, date) order, the table's primary key, so the rows append to
+     * the B-tree instead of landing on a different page each; written day by day, a year loads twice as slowly.
+     */
+    private void writePresence(Sink sink, String[] nurses, BitSet present, int days) {
+        Integer[] order = new Integer[nurses.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> nurses[a].compareTo(nurses[b]));
+        for (int nurse : order) {
+            for (int offset = 0; offset < days; offset++) {
+                if (present.get(offset * nurses.length + nurse)) {
+                    sink.presence(nurses[nurse], config.startDay + offset);
+                    rows++;
+                }
+            }
+        }
+    }
+
+    private String pickOperation() {
+        int ticket = random.nextInt(mixCumulative[mixCumulative.length - 1]);
+        int index = Arrays.binarySearch(mixCumulative, ticket + 1);
+        return mixOperations[index >= 0 ? index : -index - 1];
+    }
+
+    private static String nurseName(int number) { // the first 25 keep their plain names, later ones get a suffix
+        String name = NURSE_NAMES[(number - 1) % NURSE_NAMES.length];
+        int round = (number - 1) / NURSE_NAMES.length;
+        return round == 0 ? name : name + " " + (round + 1);
+    }
+}
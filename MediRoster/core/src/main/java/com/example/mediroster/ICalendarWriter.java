@@ -0,0 +1,94 @@
+package com.example.mediroster;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Writes one iCalendar (RFC 5545) calendar, event by event, straight to the underlying writer.
+ * Event times are floating local times, so a 07:00 case shows at 07:00 in whatever zone the calendar app uses,
+ * as it does on the ward. Lines are folded at 75 octets and text values escaped as the RFC requires.
+ */
+public class ICalendarWriter {
+
+    private static final DateTimeFormatter LOCAL = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss", Locale.US);
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private final Writer out;
+    private final String stamp;
+
+    /** @param stampedAt when the export ran; every event's DTSTAMP */
+    public ICalendarWriter(Writer out, String calendarName, Instant stampedAt) throws IOException {
+        this.out = out;
+        this.stamp = LOCAL.format(stampedAt.atOffset(ZoneOffset.UTC)) + "Z";
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//MediRoster//Roster export//EN");
+        line("CALSCALE:GREGORIAN");
+        line("X-WR-CALNAME:" + escape(calendarName));
+    }
+
+    public void writeEvent(String uid, int day, int startMinute, int endMinute, String summary, String description)
+            throws IOException {
+        line("BEGIN:VEVENT");
+        line("UID:" + uid);
+        line("DTSTAMP:" + stamp);
+        line("DTSTART:" + localTime(day, startMinute));
+        line("DTEND:" + localTime(day, endMinute));
+        line("SUMMARY:" + escape(summary));
+        if (description != null && !description.isEmpty()) {
+            line("DESCRIPTION:" + escape(description));
+        }
+        line("END:VEVENT");
+    }
+
+    /** Closes the calendar; the writer itself stays open, e.g. for the next entry of a zip. */
+    public void finish() throws IOException {
+        line("END:VCALENDAR");
+        out.flush();
+    }
+
+    private static String localTime(int day, int minute) { // minute may run past midnight
+        return LOCAL.format(LocalDate.ofEpochDay(day).atStartOfDay().plusMinutes(minute));
+    }
+
+    static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' || c == ';' || c == ',') {
+                escaped.append('\\').append(c);
+            } else if (c == '\n') {
+                escaped.append("\\n");
+            } else if (c != '\r') {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private void line(String content) throws IOException { // folds by UTF-8 octets without splitting a character
+        int octets = 0;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            int size = c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isHighSurrogate(c) ? 4 : 3;
+            if (octets + size > MAX_LINE_OCTETS) {
+                out.write("\r\n ");
+                octets = 1; // the leading space counts toward the next line
+            }
+            out.write(c);
+            if (size == 4 && i + 1 < content.length()) {
+                out.write(content.charAt(++i));
+            }
+            octets += size;
+        }
+        out.write("\r\n");
+    }
+}
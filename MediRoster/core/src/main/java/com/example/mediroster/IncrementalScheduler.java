@@ -0,0 +1,101 @@
+package com.example.mediroster;
+
+import java.util.List;
+
+/**
+ * Applies roster changes to a loaded day without re-solving it. Each change touches only the cases it
+ * affects: the cases a nurse leaves, the short cases a new nurse can help, or the cases overlapping the
+ * time a deleted or shrunk case gives back. Everything else keeps its nurses, so a check-in edit costs a
+ * few interval lookups instead of a full-day rebuild.
+ */
+public class IncrementalScheduler {
+
+    private final RosterScheduler roster;
+
+    /** @param roster the day as stored: present nurses, cases and their current assignments */
+    public IncrementalScheduler(RosterScheduler roster) {
+        this.roster = roster;
+    }
+
+    public RosterDelta apply(RosterChange change) {
+        RosterDelta delta = new RosterDelta();
+        apply(change, delta);
+        return delta;
+    }
+
+    /** Applies the changes in order, collecting one delta. */
+    public RosterDelta applyAll(Iterable<RosterChange> changes) {
+        RosterDelta delta = new RosterDelta();
+        for (RosterChange change : changes) {
+            apply(change, delta);
+        }
+        return delta;
+    }
+
+    private void apply(RosterChange change, RosterDelta delta) {
+        switch (change.kind) {
+            case NURSE_ABSENT:
+                for (int caseId : roster.removeNurse(change.username)) {
+                    delta.unassigned(caseId, change.username);
+                    fill(caseId, delta);
+                }
+                break;
+            case NURSE_PRESENT:
+                roster.addPresentNurse(change.username);
+                fillShortCases(0, Integer.MAX_VALUE, delta);
+                break;
+            case CASE_ADDED:
+                roster.addCase(change.caseId, change.startMinute, change.endMinute, change.requiredNurses);
+                fill(change.caseId, delta);
+                break;
+            case CASE_EDITED: {
+                int[] old = roster.getCaseTimes(change.caseId);
+                release(change.caseId, roster.removeCase(change.caseId), delta);
+                roster.addCase(change.caseId, change.startMinute, change.endMinute, change.requiredNurses);
+                fill(change.caseId, delta);
+                if (old != null) {
+                    fillShortCases(old[0], old[1], delta);
+                }
+                break;
+            }
+            case CASE_DELETED: {
+                int[] old = roster.getCaseTimes(change.caseId);
+                List<String> freed = roster.removeCase(change.caseId);
+                release(change.caseId, freed, delta);
+                if (old != null && !freed.isEmpty()) {
+                    fillShortCases(old[0], old[1], delta);
+                }
+                break;
+            }
+            case REQUIRED_CHANGED: {
+                List<String> dropped = roster.setRequiredNurses(change.caseId, change.requiredNurses);
+                release(change.caseId, dropped, delta);
+                int[] times = roster.getCaseTimes(change.caseId);
+                if (!dropped.isEmpty() && times != null) {
+                    fillShortCases(times[0], times[1], delta);
+                } else {
+                    fill(change.caseId, delta);
+                }
+                break;
+            }
+        }
+    }
+
+    private void fill(int caseId, RosterDelta delta) {
+        for (String username : roster.fillCase(caseId)) {
+            delta.assigned(caseId, username);
+        }
+    }
+
+    private void fillShortCases(int start, int end, RosterDelta delta) {
+        for (int caseId : roster.getShortCases(start, end)) {
+            fill(caseId, delta);
+        }
+    }
+
+    private static void release(int caseId, List<String> nurses, RosterDelta delta) {
+        for (String username : nurses) {
+            delta.unassigned(caseId, username);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.mediroster;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Set of booked minutes stored as disjoint, sorted [start, end) ranges.
+ * Overlap checks and updates are O(log n) plus the number of ranges merged or split.
+ */
+public class IntervalSet {
+
+    private final TreeMap<Integer, Integer> ranges = new TreeMap<>(); // start -> end
+    private int totalMinutes;
+
+    public boolean overlaps(int start, int end) {
+        Map.Entry<Integer, Integer> before = ranges.lowerEntry(end); // last range starting before our end
+        return before != null && before.getValue() > start;
+    }
+
+    /** Adds [start, end), merging it with any range it overlaps or touches. */
+    public void add(int start, int end) {
+        if (end <= start) {
+            return;
+        }
+        Map.Entry<Integer, Integer> before = ranges.floorEntry(start);
+        if (before != null && before.getValue() >= start) {
+            start = before.getKey();
+            end = Math.max(end, before.getValue());
+            removeRange(before.getKey());
+        }
+        Map.Entry<Integer, Integer> next = ranges.ceilingEntry(start);
+        while (next != null && next.getKey() <= end) {
+            end = Math.max(end, next.getValue());
+            removeRange(next.getKey());
+            next = ranges.ceilingEntry(start);
+        }
+        ranges.put(start, end);
+        totalMinutes += end - start;
+    }
+
+    /** Frees [start, end), splitting ranges that only partly overlap it. */
+    public void remove(int start, int end) {
+        if (end <= start) {
+            return;
+        }
+        Map.Entry<Integer, Integer> before = ranges.lowerEntry(start);
+        if (before != null && before.getValue() > start) { // range straddles our start: keep its head
+            int tailEnd = before.getValue();
+            removeRange(before.getKey());
+            putRange(before.getKey(), start);
+            if (tailEnd > end) {
+                putRange(end, tailEnd);
+                return;
+            }
+        }
+        Iterator<Map.Entry<Integer, Integer>> it = ranges.subMap(start, true, end, false).entrySet().iterator();
+        List<int[]> tails = new ArrayList<>();
+        while (it.hasNext()) {
+            Map.Entry<Integer, Integer> range = it.next();
+            totalMinutes -= range.getValue() - range.getKey();
+            if (range.getValue() > end) {
+                tails.add(new int[]{end, range.getValue()});
+            }
+            it.remove();
+        }
+        for (int[] tail : tails) {
+            putRange(tail[0], tail[1]);
+        }
+    }
+
+    /** Gaps inside [from, to) not covered by any range. */
+    public List<int[]> freeSlots(int from, int to) {
+        List<int[]> slots = new ArrayList<>();
+        int cursor = from;
+        Map.Entry<Integer, Integer> before = ranges.lowerEntry(from);
+        if (before != null && before.getValue() > cursor) {
+            cursor = before.getValue();
+        }
+        for (Map.Entry<Integer, Integer> range : ranges.subMap(from, true, to, false).entrySet()) {
+            if (range.getKey() > cursor) {
+                slots.add(new int[]{cursor, range.getKey()});
+            }
+            cursor = Math.max(cursor, range.getValue());
+        }
+        if (cursor < to) {
+            slots.add(new int[]{cursor, to});
+        }
+        return slots;
+    }
+
+    public int getTotalMinutes() {
+        return totalMinutes;
+    }
+
+    public boolean isEmpty() {
+        return ranges.isEmpty();
+    }
+
+    private void putRange(int start, int end) {
+        ranges.put(start, end);
+        totalMinutes += end - start;
+    }
+
+    private void removeRange(int start) {
+        Integer end = ranges.remove(start);
+        if (end != null) {
+            totalMinutes -= end - start;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.mediroster;
+
+import java.util.Arrays;
+
+/**
+ * Call latencies in power-of-two microsecond buckets: bucket 0 holds calls under 2 us, bucket i calls from
+ * 2^i up to 2^(i+1) us. Recording is a shift and an increment, and percentiles are read back as the upper
+ * edge of their bucket, so they are at most twice the true value. Not thread-safe; callers lock.
+ */
+public class LatencyHistogram {
+
+    static final int BUCKETS = 32; // the last bucket collects everything from ~36 minutes up
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+
+    public void record(long nanos) {
+        long micros = Math.max(nanos / 1000, 1);
+        int bucket = Math.min(63 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+        counts[bucket]++;
+        count++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public long getMeanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    /** Upper bound of the latency that {@code percent} of calls stayed under, in nanoseconds; 0 with no calls. */
+    public long getPercentileNanos(double percent) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * percent / 100.0);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= Math.max(rank, 1) && bucket < BUCKETS - 1) {
+                return Math.min((2L << bucket) * 1000, maxNanos);
+            }
+        }
+        return maxNanos; // the last bucket has no upper edge
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+    }
+}
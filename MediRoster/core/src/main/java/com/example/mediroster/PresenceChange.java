@@ -0,0 +1,66 @@
+package com.example.mediroster;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The nurses whose check-in state changed when a day's presence was saved.
+ * Reassignment only needs to look at these, not at the whole floor.
+ */
+public final class PresenceChange {
+
+    public final List<String> checkedIn;
+    public final List<String> checkedOut;
+
+    public PresenceChange(List<String> checkedIn, List<String> checkedOut) {
+        this.checkedIn = Collections.unmodifiableList(checkedIn);
+        this.checkedOut = Collections.unmodifiableList(checkedOut);
+    }
+
+    /** Works out the inserts and deletes that turn the stored presence into the wanted one. */
+    public static PresenceChange between(Set<String> stored, Collection<String> wanted) {
+        Set<String> wantedSet = new LinkedHashSet<>(wanted);
+        List<String> checkedIn = new ArrayList<>();
+        for (String username : wantedSet) {
+            if (!stored.contains(username)) {
+                checkedIn.add(username);
+            }
+        }
+        List<String> checkedOut = new ArrayList<>();
+        for (String username : stored) {
+            if (!wantedSet.contains(username)) {
+                checkedOut.add(username);
+            }
+        }
+        return new PresenceChange(checkedIn, checkedOut);
+    }
+
+    /** The change as roster edits: departures first, so their cases are refilled before arrivals are offered work. */
+    public List<RosterChange> toRosterChanges() {
+        List<RosterChange> changes = new ArrayList<>();
+        for (String username : checkedOut) {
+            changes.add(RosterChange.nurseAbsent(username));
+        }
+        for (String username : checkedIn) {
+            changes.add(RosterChange.nursePresent(username));
+        }
+        return changes;
+    }
+
+    public boolean isEmpty() {
+        return checkedIn.isEmpty() && checkedOut.isEmpty();
+    }
+
+    public int size() {
+        return checkedIn.size() + checkedOut.size();
+    }
+
+    @Override
+    public String toString() {
+        return "PresenceChange{in=" + checkedIn + ", out=" + checkedOut + "}";
+    }
+}
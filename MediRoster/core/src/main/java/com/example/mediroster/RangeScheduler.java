@@ -0,0 +1,185 @@
+package com.example.mediroster;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Solves a run of roster days in parallel. Presence and cases are per day, so each day is its own fork/join task
+ * with its own RosterScheduler; the only link between days is a case running past midnight, which books its
+ * nurses into the next morning. Days are solved independently first, then checked in order against the day
+ * before, and the rare day that clashes with an overnight case is solved again with those bookings.
+ */
+public class RangeScheduler {
+
+    /** One day's inputs, loaded up front so solving needs no database. */
+    public static final class Day {
+        final int day;
+        final List<String> nurses = new ArrayList<>();
+        final List<int[]> cases = new ArrayList<>(); // {case id, start, end, required}
+        final List<Booking> carryover = new ArrayList<>();
+
+        public Day(int day) {
+            this.day = day;
+        }
+
+        public void addPresentNurse(String username) {
+            nurses.add(username);
+        }
+
+        public void addCase(int caseId, int startMinute, int endMinute, int requiredNurses) {
+            if (endMinute <= startMinute) {
+                endMinute += TimeCodec.MINUTES_PER_DAY; // same rule as RosterScheduler.addCase
+            }
+            cases.add(new int[]{caseId, startMinute, endMinute, requiredNurses});
+        }
+
+        /**
+         * Time a nurse is held by an overnight case from the day before, already shifted onto this day.
+         * Only the first day of a range needs it; later days take theirs from the solved day before.
+         */
+        public void addCarryover(String username, int startMinute, int endMinute) {
+            carryover.add(new Booking(username, startMinute, endMinute));
+        }
+
+        public int getDay() {
+            return day;
+        }
+
+        public int getCaseCount() {
+            return cases.size();
+        }
+    }
+
+    private final ForkJoinPool pool;
+
+    public RangeScheduler() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public RangeScheduler(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Fills every case of every day.
+     *
+     * @param days consecutive days in ascending order
+     * @return new assignments for each day, in the same order, as RosterScheduler.fillAllCases returns them
+     */
+    public List<Map<Integer, List<String>>> solve(List<Day> days) {
+        for (int i = 1; i < days.size(); i++) {
+            if (days.get(i).day != days.get(i - 1).day + 1) {
+                throw new IllegalArgumentException("Days must be consecutive: " + days.get(i - 1).day +
+                        " then " + days.get(i).day);
+            }
+        }
+        List<Map<Integer, List<String>>> results = new ArrayList<>(Collections.nCopies(days.size(), null));
+        if (days.isEmpty()) {
+            return results;
+        }
+        pool.invoke(new SolveTask(days, results, 0, days.size()));
+
+        for (int i = 1; i < days.size(); i++) {
+            List<Booking> carried = overnightBookings(days.get(i - 1), results.get(i - 1));
+            if (clashes(days.get(i), results.get(i), carried)) {
+                results.set(i, solveDay(days.get(i), carried));
+            }
+        }
+        return results;
+    }
+
+    static Map<Integer, List<String>> solveDay(Day day, List<Booking> carried) {
+        RosterScheduler scheduler = new RosterScheduler();
+        for (String nurse : day.nurses) {
+            scheduler.addPresentNurse(nurse);
+        }
+        for (Booking booking : day.carryover) {
+            scheduler.addBooking(booking.nurse, booking.start, booking.end);
+        }
+        for (Booking booking : carried) {
+            scheduler.addBooking(booking.nurse, booking.start, booking.end);
+        }
+        for (int[] slot : day.cases) {
+            scheduler.addCase(slot[0], slot[1], slot[2], slot[3]);
+        }
+        return scheduler.fillAllCases();
+    }
+
+    private static List<Booking> overnightBookings(Day day, Map<Integer, List<String>> assigned) {
+        List<Booking> carried = new ArrayList<>();
+        for (int[] slot : day.cases) {
+            List<String> nurses = assigned.get(slot[0]);
+            if (nurses != null && slot[2] > TimeCodec.MINUTES_PER_DAY) {
+                for (String nurse : nurses) {
+                    carried.add(new Booking(nurse, slot[1] - TimeCodec.MINUTES_PER_DAY,
+                            slot[2] - TimeCodec.MINUTES_PER_DAY));
+                }
+            }
+        }
+        return carried;
+    }
+
+    private static boolean clashes(Day day, Map<Integer, List<String>> assigned, List<Booking> carried) {
+        if (carried.isEmpty()) {
+            return false;
+        }
+        Map<String, List<Booking>> byNurse = new HashMap<>();
+        for (Booking booking : carried) {
+            byNurse.computeIfAbsent(booking.nurse, n -> new ArrayList<>()).add(booking);
+        }
+        for (int[] slot : day.cases) {
+            for (String nurse : assigned.getOrDefault(slot[0], Collections.emptyList())) {
+                for (Booking booking : byNurse.getOrDefault(nurse, Collections.emptyList())) {
+                    if (booking.start < slot[2] && slot[1] < booking.end) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    static final class Booking {
+        final String nurse;
+        final int start;
+        final int end;
+
+        Booking(String nurse, int start, int end) {
+            this.nurse = nurse;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /** Halves the range until one day is left, then solves that day. */
+    private static class SolveTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Day> days;
+        private final List<Map<Integer, List<String>>> results;
+        private final int from;
+        private final int to;
+
+        SolveTask(List<Day> days, List<Map<Integer, List<String>>> results, int from, int to) {
+            this.days = days;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                results.set(from, solveDay(days.get(from), Collections.emptyList()));
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SolveTask(days, results, from, middle), new SolveTask(days, results, middle, to));
+        }
+    }
+}
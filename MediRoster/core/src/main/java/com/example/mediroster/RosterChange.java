@@ -0,0 +1,56 @@
+package com.example.mediroster;
+
+/**
+ * One edit to a roster day, as fed to {@link IncrementalScheduler#apply}.
+ * Times are minutes from the day's midnight, as in TimeCodec.
+ */
+public final class RosterChange {
+
+    public enum Kind { NURSE_ABSENT, NURSE_PRESENT, CASE_ADDED, CASE_EDITED, CASE_DELETED, REQUIRED_CHANGED }
+
+    public final Kind kind;
+    public final String username;
+    public final int caseId;
+    public final int startMinute;
+    public final int endMinute;
+    public final int requiredNurses;
+
+    private RosterChange(Kind kind, String username, int caseId, int startMinute, int endMinute, int requiredNurses) {
+        this.kind = kind;
+        this.username = username;
+        this.caseId = caseId;
+        this.startMinute = startMinute;
+        this.endMinute = endMinute;
+        this.requiredNurses = requiredNurses;
+    }
+
+    public static RosterChange nurseAbsent(String username) {
+        return new RosterChange(Kind.NURSE_ABSENT, username, 0, 0, 0, 0);
+    }
+
+    public static RosterChange nursePresent(String username) {
+        return new RosterChange(Kind.NURSE_PRESENT, username, 0, 0, 0, 0);
+    }
+
+    public static RosterChange caseAdded(int caseId, int startMinute, int endMinute, int requiredNurses) {
+        return new RosterChange(Kind.CASE_ADDED, null, caseId, startMinute, endMinute, requiredNurses);
+    }
+
+    /** The case moved to new times: it is refilled there, and short cases around the old times get another try. */
+    public static RosterChange caseEdited(int caseId, int startMinute, int endMinute, int requiredNurses) {
+        return new RosterChange(Kind.CASE_EDITED, null, caseId, startMinute, endMinute, requiredNurses);
+    }
+
+    public static RosterChange caseDeleted(int caseId) {
+        return new RosterChange(Kind.CASE_DELETED, null, caseId, 0, 0, 0);
+    }
+
+    public static RosterChange requiredChanged(int caseId, int requiredNurses) {
+        return new RosterChange(Kind.REQUIRED_CHANGED, null, caseId, 0, 0, requiredNurses);
+    }
+
+    @Override
+    public String toString() {
+        return "RosterChange{" + kind + (username != null ? " " + username : " case " + caseId) + "}";
+    }
+}
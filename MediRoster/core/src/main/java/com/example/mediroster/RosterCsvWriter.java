@@ -0,0 +1,66 @@
+package com.example.mediroster;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes roster rows as CSV, one row per nurse per case, straight to the underlying writer.
+ * Times are HH:mm with no day suffix; an end time that is not after the start time falls on the next morning,
+ * the same convention CsvImporter reads. The minutes column gives the booked length for payroll.
+ */
+public class RosterCsvWriter {
+
+    static final String HEADER = "date,start_time,end_time,minutes,username,display_name,case_id,operation,description";
+
+    private final Writer out;
+
+    public RosterCsvWriter(Writer out) throws IOException {
+        this.out = out;
+        out.write(HEADER);
+        out.write("\r\n");
+    }
+
+    public void writeRow(int day, int startMinute, int endMinute, String username, String displayName,
+                         int caseId, String operation, String description) throws IOException {
+        out.write(TimeCodec.formatDate(day));
+        out.write(',');
+        out.write(formatTime(startMinute));
+        out.write(',');
+        out.write(formatTime(endMinute));
+        out.write(',');
+        out.write(Integer.toString(endMinute - startMinute));
+        out.write(',');
+        writeField(username);
+        out.write(',');
+        writeField(displayName);
+        out.write(',');
+        out.write(Integer.toString(caseId));
+        out.write(',');
+        writeField(operation);
+        out.write(',');
+        writeField(description);
+        out.write("\r\n");
+    }
+
+    private static String formatTime(int minute) {
+        return TimeCodec.formatMinuteOfDay(Math.floorMod(minute, TimeCodec.MINUTES_PER_DAY));
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.mediroster;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The assignment rows a set of roster changes adds and removes. A nurse taken off a case and put back
+ * by a later step cancels out, so applying the delta writes only rows that really changed.
+ */
+public final class RosterDelta {
+
+    private final Map<Integer, List<String>> added = new LinkedHashMap<>();
+    private final Map<Integer, List<String>> removed = new LinkedHashMap<>();
+
+    void assigned(int caseId, String username) {
+        if (!drop(removed, caseId, username)) {
+            added.computeIfAbsent(caseId, id -> new ArrayList<>()).add(username);
+        }
+    }
+
+    void unassigned(int caseId, String username) {
+        if (!drop(added, caseId, username)) {
+            removed.computeIfAbsent(caseId, id -> new ArrayList<>()).add(username);
+        }
+    }
+
+    /** New assignments keyed by case id, in the shape UserDatabaseHelper.writeAssignments takes. */
+    public Map<Integer, List<String>> getAdded() {
+        return Collections.unmodifiableMap(added);
+    }
+
+    public Map<Integer, List<String>> getRemoved() {
+        return Collections.unmodifiableMap(removed);
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty();
+    }
+
+    /** Rows to insert plus rows to delete. */
+    public int size() {
+        return count(added) + count(removed);
+    }
+
+    private static boolean drop(Map<Integer, List<String>> rows, int caseId, String username) {
+        List<String> nurses = rows.get(caseId);
+        if (nurses == null || !nurses.remove(username)) {
+            return false;
+        }
+        if (nurses.isEmpty()) {
+            rows.remove(caseId);
+        }
+        return true;
+    }
+
+    private static int count(Map<Integer, List<String>> rows) {
+        int count = 0;
+        for (List<String> nurses : rows.values()) {
+            count += nurses.size();
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "RosterDelta{added=" + added + ", removed=" + removed + "}";
+    }
+}
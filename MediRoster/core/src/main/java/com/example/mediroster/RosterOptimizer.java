@@ -0,0 +1,323 @@
+package com.example.mediroster;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Improves a roster day within a time budget. It starts from the greedy RosterScheduler solution and runs a
+ * local search over three moves: staff a short case, hand one nurse's case to another, or swap two nurses
+ * between cases. A short case takes a free nurse, or a busy one whose single clashing case another nurse
+ * can cover. A move is kept only if it does not make the score worse, so the roster in hand
+ * is always the best found and the search can stop whenever the budget runs out.
+ * <p>
+ * The score is {@link #SHORT_PENALTY} per missing nurse plus the sum of each nurse's booked minutes squared;
+ * lower is better. Squaring makes ten hours on one nurse cost more than five on each of two.
+ */
+public class RosterOptimizer {
+
+    /** More than filling one position can ever add to the squared minutes, so coverage always comes first. */
+    static final long SHORT_PENALTY = 10_000_000L;
+
+    private static final int CLOCK_CHECK_INTERVAL = 256; // iterations between System.nanoTime calls
+
+    /** The optimized day and how it scores against the greedy start. */
+    public static final class Result {
+        public final Map<Integer, List<String>> assignments;
+        public final long score;
+        public final long greedyScore;
+        public final int shortNurses;
+        public final int busiestMinutes;
+        public final long iterations;
+
+        Result(Map<Integer, List<String>> assignments, long score, long greedyScore, int shortNurses,
+               int busiestMinutes, long iterations) {
+            this.assignments = assignments;
+            this.score = score;
+            this.greedyScore = greedyScore;
+            this.shortNurses = shortNurses;
+            this.busiestMinutes = busiestMinutes;
+            this.iterations = iterations;
+        }
+
+        @Override
+        public String toString() {
+            return "Result{score=" + score + ", greedy=" + greedyScore + ", short=" + shortNurses +
+                    ", busiest=" + busiestMinutes + "min, iterations=" + iterations + "}";
+        }
+    }
+
+    private final long seed;
+
+    public RosterOptimizer() {
+        this(1);
+    }
+
+    /** The same seed, day and iteration count always give the same roster. */
+    public RosterOptimizer(long seed) {
+        this.seed = seed;
+    }
+
+    /** Fills every case of the day, then improves the roster until {@code budgetNanos} have passed. */
+    public Result optimize(RangeScheduler.Day day, long budgetNanos) {
+        return optimize(day, budgetNanos, Long.MAX_VALUE);
+    }
+
+    Result optimize(RangeScheduler.Day day, long budgetNanos, long maxIterations) {
+        long started = System.nanoTime();
+        Search search = new Search(day, RangeScheduler.solveDay(day, Collections.emptyList()), new Random(seed));
+        long greedyScore = search.score();
+        long iterations = 0;
+        while (iterations < maxIterations) {
+            if (iterations % CLOCK_CHECK_INTERVAL == 0 && System.nanoTime() - started >= budgetNanos) {
+                break;
+            }
+            search.step();
+            iterations++;
+        }
+        return new Result(search.assignments(), search.score(), greedyScore, search.shortNurses,
+                search.busiestMinutes(), iterations);
+    }
+
+    /** Mutable state of one search; nurses and cases are addressed by index. */
+    private static final class Search {
+        final Random random;
+        final String[] nurses;
+        final int[] loads;
+        final IntervalSet[] busy;
+        final int[] caseIds;
+        final int[] starts;
+        final int[] ends;
+        final int[] required;
+        final int[][] onCase; // nurse indexes, first counts[c] slots in use
+        final int[] counts;
+        final List<List<Integer>> casesOf = new ArrayList<>(); // case indexes per nurse
+        int shortNurses;
+
+        Search(RangeScheduler.Day day, Map<Integer, List<String>> greedy, Random random) {
+            this.random = random;
+            nurses = day.nurses.toArray(new String[0]);
+            loads = new int[nurses.length];
+            busy = new IntervalSet[nurses.length];
+            Map<String, Integer> nurseIndex = new HashMap<>();
+            for (int n = 0; n < nurses.length; n++) {
+                busy[n] = new IntervalSet();
+                casesOf.add(new ArrayList<>());
+                nurseIndex.put(nurses[n], n);
+            }
+            for (RangeScheduler.Booking booking : day.carryover) {
+                Integer n = nurseIndex.get(booking.nurse);
+                if (n != null) {
+                    busy[n].add(booking.start, booking.end);
+                    loads[n] += booking.end - booking.start;
+                }
+            }
+
+            int caseCount = day.cases.size();
+            caseIds = new int[caseCount];
+            starts = new int[caseCount];
+            ends = new int[caseCount];
+            required = new int[caseCount];
+            onCase = new int[caseCount][];
+            counts = new int[caseCount];
+            for (int c = 0; c < caseCount; c++) {
+                int[] slot = day.cases.get(c);
+                caseIds[c] = slot[0];
+                starts[c] = slot[1];
+                ends[c] = slot[2];
+                required[c] = slot[3];
+                onCase[c] = new int[Math.max(slot[3], 0)];
+                for (String nurse : greedy.getOrDefault(slot[0], Collections.emptyList())) {
+                    book(c, nurseIndex.get(nurse));
+                }
+                shortNurses += required[c] - counts[c];
+            }
+        }
+
+        void step() {
+            if (onCase.length == 0 || nurses.length == 0) {
+                return;
+            }
+            int move = random.nextInt(3);
+            if (move == 0 && shortNurses > 0) {
+                tryFill(random.nextInt(onCase.length));
+            } else if (move != 2) { // 0 with nothing short falls through to a hand-over
+                tryHandOver();
+            } else {
+                trySwap();
+            }
+        }
+
+        /** A short case takes a random nurse, moving their one clashing case to someone free if need be. */
+        private void tryFill(int c) {
+            if (counts[c] >= required[c]) {
+                return;
+            }
+            int n = random.nextInt(nurses.length);
+            if (isOn(c, n)) {
+                return;
+            }
+            if (!busy[n].overlaps(starts[c], ends[c])) {
+                book(c, n);
+                shortNurses--;
+                return;
+            }
+            int clash = onlyClash(n, c);
+            int cover = random.nextInt(nurses.length);
+            if (clash < 0 || cover == n || isOn(clash, cover) || busy[cover].overlaps(starts[clash], ends[clash])) {
+                return;
+            }
+            unbook(clash, n);
+            if (busy[n].overlaps(starts[c], ends[c])) { // held by a carryover booking too
+                book(clash, n);
+                return;
+            }
+            book(clash, cover);
+            book(c, n);
+            shortNurses--;
+        }
+
+        /** The nurse's one case overlapping case {@code c}, or -1 if there are none or several. */
+        private int onlyClash(int n, int c) {
+            int clash = -1;
+            for (int other : casesOf.get(n)) {
+                if (starts[other] < ends[c] && starts[c] < ends[other]) {
+                    if (clash >= 0) {
+                        return -1;
+                    }
+                    clash = other;
+                }
+            }
+            return clash;
+        }
+
+        /** One nurse's place on a case goes to another nurse who is free then. */
+        private void tryHandOver() {
+            int c = randomStaffedCase();
+            if (c < 0) {
+                return;
+            }
+            int from = onCase[c][random.nextInt(counts[c])];
+            int to = random.nextInt(nurses.length);
+            if (from == to || isOn(c, to) || busy[to].overlaps(starts[c], ends[c])) {
+                return;
+            }
+            int minutes = ends[c] - starts[c];
+            long change = square(loads[from] - minutes) - square(loads[from])
+                    + square(loads[to] + minutes) - square(loads[to]);
+            if (change <= 0) {
+                unbook(c, from);
+                book(c, to);
+            }
+        }
+
+        /** Two nurses trade cases, each free for the other's case once their own is given up. */
+        private void trySwap() {
+            int c1 = randomStaffedCase();
+            int c2 = randomStaffedCase();
+            if (c1 < 0 || c2 < 0 || c1 == c2) {
+                return;
+            }
+            int a = onCase[c1][random.nextInt(counts[c1])];
+            int b = onCase[c2][random.nextInt(counts[c2])];
+            if (a == b || isOn(c2, a) || isOn(c1, b)) {
+                return;
+            }
+            int minutes1 = ends[c1] - starts[c1];
+            int minutes2 = ends[c2] - starts[c2];
+            long change = square(loads[a] - minutes1 + minutes2) - square(loads[a])
+                    + square(loads[b] - minutes2 + minutes1) - square(loads[b]);
+            if (change > 0 || !freeWithout(a, c1, c2) || !freeWithout(b, c2, c1)) {
+                return;
+            }
+            unbook(c1, a);
+            unbook(c2, b);
+            book(c1, b);
+            book(c2, a);
+        }
+
+        /** Whether the nurse could take case {@code wanted} after giving up case {@code given}. */
+        private boolean freeWithout(int n, int given, int wanted) {
+            busy[n].remove(starts[given], ends[given]);
+            boolean free = !busy[n].overlaps(starts[wanted], ends[wanted]);
+            busy[n].add(starts[given], ends[given]);
+            return free;
+        }
+
+        private int randomStaffedCase() {
+            for (int attempt = 0; attempt < 8; attempt++) { // most cases are staffed, so a few draws do
+                int c = random.nextInt(onCase.length);
+                if (counts[c] > 0) {
+                    return c;
+                }
+            }
+            return -1;
+        }
+
+        private boolean isOn(int c, int n) {
+            for (int i = 0; i < counts[c]; i++) {
+                if (onCase[c][i] == n) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void book(int c, int n) {
+            onCase[c][counts[c]++] = n;
+            casesOf.get(n).add(c);
+            busy[n].add(starts[c], ends[c]);
+            loads[n] += ends[c] - starts[c];
+        }
+
+        private void unbook(int c, int n) {
+            for (int i = 0; i < counts[c]; i++) {
+                if (onCase[c][i] == n) {
+                    onCase[c][i] = onCase[c][--counts[c]];
+                    break;
+                }
+            }
+            casesOf.get(n).remove(Integer.valueOf(c));
+            busy[n].remove(starts[c], ends[c]);
+            loads[n] -= ends[c] - starts[c];
+        }
+
+        long score() {
+            long score = shortNurses * SHORT_PENALTY;
+            for (int load : loads) {
+                score += square(load);
+            }
+            return score;
+        }
+
+        int busiestMinutes() {
+            int busiest = 0;
+            for (int load : loads) {
+                busiest = Math.max(busiest, load);
+            }
+            return busiest;
+        }
+
+        Map<Integer, List<String>> assignments() {
+            Map<Integer, List<String>> assignments = new LinkedHashMap<>();
+            for (int c = 0; c < onCase.length; c++) {
+                if (counts[c] > 0) {
+                    List<String> names = new ArrayList<>(counts[c]);
+                    for (int i = 0; i < counts[c]; i++) {
+                        names.add(nurses[onCase[c][i]]);
+                    }
+                    assignments.put(caseIds[c], names);
+                }
+            }
+            return assignments;
+        }
+
+        private static long square(long minutes) {
+            return minutes * minutes;
+        }
+    }
+}
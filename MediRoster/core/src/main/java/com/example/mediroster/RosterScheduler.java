@@ -0,0 +1,274 @@
+package com.example.mediroster;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * In-memory assignment engine for one roster day.
+ * Load present nurses, cases and existing assignments once, then fill cases without going back to SQLite.
+ * Nurse bookings live in an AvailabilityIndex, so a cached index can be handed in and is updated as cases fill.
+ * Times are minutes from the day's midnight (see TimeCodec); an end past 1440 runs into the next morning.
+ */
+public class RosterScheduler {
+
+    private static final Comparator<CaseSlot> BY_START = (a, b) -> a.start != b.start
+            ? Integer.compare(a.start, b.start)
+            : Integer.compare(a.caseId, b.caseId);
+
+    private static final Comparator<NurseState> LEAST_BOOKED_FIRST = (a, b) -> {
+        int byMinutes = Integer.compare(a.bookedMinutes, b.bookedMinutes);
+        return byMinutes != 0 ? byMinutes : a.username.compareTo(b.username);
+    };
+
+    private final AvailabilityIndex availability;
+    private final Map<String, NurseState> nurses = new HashMap<>();
+    private final TreeSet<NurseState> nursesByLoad = new TreeSet<>(LEAST_BOOKED_FIRST);
+    private final Map<Integer, CaseSlot> cases = new HashMap<>();
+    private final TreeSet<CaseSlot> casesByStart = new TreeSet<>(BY_START);
+
+    public RosterScheduler() {
+        this(new AvailabilityIndex());
+    }
+
+    public RosterScheduler(AvailabilityIndex availability) {
+        this.availability = availability;
+    }
+
+    public void addPresentNurse(String username) {
+        if (nurses.containsKey(username)) {
+            return;
+        }
+        NurseState nurse = new NurseState(username, availability.getBookedMinutes(username));
+        nurses.put(username, nurse);
+        nursesByLoad.add(nurse);
+    }
+
+    public void addCase(int caseId, int startMinute, int endMinute, int requiredNurses) {
+        if (endMinute <= startMinute) {
+            endMinute += TimeCodec.MINUTES_PER_DAY; // legacy rows stored the end wrapped past midnight
+        }
+        CaseSlot slot = cases.get(caseId);
+        if (slot == null) {
+            slot = new CaseSlot(caseId, startMinute, endMinute, requiredNurses);
+            slot.assigned.addAll(availability.getNursesOnCase(caseId)); // already booked in a cached index
+            cases.put(caseId, slot);
+            casesByStart.add(slot);
+        } else {
+            slot.required = requiredNurses;
+        }
+    }
+
+    /** Records an assignment that already exists in the database. */
+    public void addAssignment(int caseId, String username) {
+        CaseSlot slot = cases.get(caseId);
+        if (slot == null || slot.assigned.contains(username)) {
+            return;
+        }
+        slot.assigned.add(username);
+        book(username, slot);
+    }
+
+    /** Blocks out time a nurse is already committed elsewhere, e.g. a case carried over from yesterday. */
+    public void addBooking(String username, int startMinute, int endMinute) {
+        NurseState nurse = nurses.get(username);
+        if (nurse != null) {
+            nursesByLoad.remove(nurse);
+        }
+        availability.addBooking(username, startMinute, endMinute);
+        if (nurse != null) {
+            nurse.bookedMinutes = availability.getBookedMinutes(username);
+            nursesByLoad.add(nurse);
+        }
+    }
+
+    /**
+     * Takes the nurse off the floor and off every case they were booked on, leaving those cases short.
+     *
+     * @return ids of the cases that lost them, in start order
+     */
+    public List<Integer> removeNurse(String username) {
+        NurseState nurse = nurses.remove(username);
+        if (nurse != null) {
+            nursesByLoad.remove(nurse);
+        }
+        List<Integer> affected = new ArrayList<>();
+        for (CaseSlot slot : casesByStart) {
+            if (slot.assigned.remove(username)) {
+                availability.removeAssignment(slot.caseId, username);
+                affected.add(slot.caseId);
+            }
+        }
+        return affected;
+    }
+
+    /** Drops the case and frees its nurses. @return the nurses that were on it */
+    public List<String> removeCase(int caseId) {
+        CaseSlot slot = cases.remove(caseId);
+        if (slot == null) {
+            return Collections.emptyList();
+        }
+        casesByStart.remove(slot);
+        List<String> freed = new ArrayList<>(slot.assigned);
+        for (String username : freed) {
+            unbook(username, slot);
+        }
+        return freed;
+    }
+
+    /**
+     * Changes the case's required count. Lowering it below the assigned count frees the most recently
+     * assigned nurses; raising it leaves the case short until it is filled again.
+     *
+     * @return the nurses taken off the case
+     */
+    public List<String> setRequiredNurses(int caseId, int requiredNurses) {
+        CaseSlot slot = cases.get(caseId);
+        if (slot == null) {
+            return Collections.emptyList();
+        }
+        slot.required = requiredNurses;
+        List<String> dropped = new ArrayList<>();
+        while (slot.assigned.size() > slot.required) {
+            String username = slot.assigned.get(slot.assigned.size() - 1);
+            dropped.add(username);
+            unbook(username, slot);
+        }
+        return dropped;
+    }
+
+    /** Cases overlapping [start, end) that have fewer nurses than they need, in start order. */
+    public List<Integer> getShortCases(int start, int end) {
+        List<Integer> shortCases = new ArrayList<>();
+        for (CaseSlot slot : casesByStart) {
+            if (slot.start >= end) {
+                break;
+            }
+            if (slot.assigned.size() < slot.required && start < slot.end) {
+                shortCases.add(slot.caseId);
+            }
+        }
+        return shortCases;
+    }
+
+    /** @return {start, end} of the case, or null if it is not loaded */
+    public int[] getCaseTimes(int caseId) {
+        CaseSlot slot = cases.get(caseId);
+        return slot == null ? null : new int[]{slot.start, slot.end};
+    }
+
+    /**
+     * Assigns free nurses to the case until it reaches its required count.
+     * Least-booked nurses are tried first so the load spreads across the floor.
+     *
+     * @return the nurses newly assigned by this call
+     */
+    public List<String> fillCase(int caseId) {
+        CaseSlot slot = cases.get(caseId);
+        if (slot == null) {
+            return Collections.emptyList();
+        }
+        List<String> added = new ArrayList<>();
+        for (NurseState nurse : nursesByLoad) {
+            if (slot.assigned.size() + added.size() >= slot.required) {
+                break;
+            }
+            if (!slot.assigned.contains(nurse.username) && availability.isNurseFree(nurse.username, slot.start, slot.end)) {
+                added.add(nurse.username);
+            }
+        }
+        for (String username : added) { // booking reorders the set, so do it after iterating
+            slot.assigned.add(username);
+            book(username, slot);
+        }
+        return added;
+    }
+
+    /**
+     * Fills every loaded case in start-time order.
+     *
+     * @return new assignments keyed by case id, only for cases that gained nurses
+     */
+    public Map<Integer, List<String>> fillAllCases() {
+        Map<Integer, List<String>> result = new LinkedHashMap<>();
+        for (CaseSlot slot : casesByStart) {
+            List<String> added = fillCase(slot.caseId);
+            if (!added.isEmpty()) {
+                result.put(slot.caseId, added);
+            }
+        }
+        return result;
+    }
+
+    public int getCaseCount() {
+        return cases.size();
+    }
+
+    public boolean hasCase(int caseId) {
+        return cases.containsKey(caseId);
+    }
+
+    public List<String> getAssignedNurses(int caseId) {
+        CaseSlot slot = cases.get(caseId);
+        return slot == null ? Collections.emptyList() : Collections.unmodifiableList(slot.assigned);
+    }
+
+    public AvailabilityIndex getAvailability() {
+        return availability;
+    }
+
+    private void book(String username, CaseSlot slot) {
+        NurseState nurse = nurses.get(username);
+        if (nurse != null) {
+            nursesByLoad.remove(nurse);
+        }
+        availability.addAssignment(slot.caseId, username, slot.start, slot.end);
+        if (nurse != null) {
+            nurse.bookedMinutes = availability.getBookedMinutes(username);
+            nursesByLoad.add(nurse);
+        }
+    }
+
+    private void unbook(String username, CaseSlot slot) {
+        slot.assigned.remove(username);
+        NurseState nurse = nurses.get(username);
+        if (nurse != null) {
+            nursesByLoad.remove(nurse);
+        }
+        availability.removeAssignment(slot.caseId, username);
+        if (nurse != null) {
+            nurse.bookedMinutes = availability.getBookedMinutes(username);
+            nursesByLoad.add(nurse);
+        }
+    }
+
+    private static class NurseState {
+        final String username;
+        int bookedMinutes; // copy of the index total; only changed while the nurse is out of nursesByLoad
+
+        NurseState(String username, int bookedMinutes) {
+            this.username = username;
+            this.bookedMinutes = bookedMinutes;
+        }
+    }
+
+    private static class CaseSlot {
+        final int caseId;
+        final int start;
+        final int end;
+        int required;
+        final List<String> assigned = new ArrayList<>();
+
+        CaseSlot(int caseId, int start, int end, int required) {
+            this.caseId = caseId;
+            this.start = start;
+            this.end = end;
+            this.required = required;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.mediroster;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The roster database at {@link #VERSION}: its tables, indexes, triggers and the queries on the roster paths.
+ * UserDatabaseHelper builds new databases from these and the benchmarks run the same statements through JDBC,
+ * so a schema or query change shows up in both. Older databases reach this shape through the helper's migrations.
+ * Times are minutes from the shift day's midnight and dates epoch days, as in TimeCodec.
+ */
+public final class RosterSchema {
+
+    public static final int VERSION = 5;
+
+    public static final String[] TABLES = {
+            "CREATE TABLE users (username TEXT PRIMARY KEY, password TEXT, role TEXT, display_name TEXT)",
+            "CREATE TABLE shifts (shift_id INTEGER PRIMARY KEY AUTOINCREMENT, date INTEGER, " +
+                    "start_time INTEGER, end_time INTEGER)",
+            "CREATE TABLE cases (case_id INTEGER PRIMARY KEY AUTOINCREMENT, description TEXT, " +
+                    "required_nurses INTEGER, scheduled_shift_id INTEGER, operation TEXT, " +
+                    "start_time INTEGER, end_time INTEGER, " +
+                    "FOREIGN KEY(scheduled_shift_id) REFERENCES shifts(shift_id))",
+            "CREATE TABLE assignments (assignment_id INTEGER PRIMARY KEY AUTOINCREMENT, case_id INTEGER, " +
+                    "user_id TEXT, FOREIGN KEY(case_id) REFERENCES cases(case_id), " +
+                    "FOREIGN KEY(user_id) REFERENCES users(username))",
+            "CREATE TABLE presence (username TEXT, date INTEGER, PRIMARY KEY(username, date), " +
+                    "FOREIGN KEY(username) REFERENCES users(username))",
+            "CREATE TABLE operations (operation_id INTEGER PRIMARY KEY AUTOINCREMENT, operation_name TEXT NOT NULL)"
+    };
+
+    // Dropped by the bulk loads, which build each index once at the end
+    public static final String[] ROSTER_INDEX_NAMES = {"idx_shifts_date_time", "idx_cases_shift",
+            "idx_assignments_case", "idx_assignments_user_case", "idx_presence_date", "idx_users_role"};
+    public static final String[] ROSTER_INDEXES = {
+            "CREATE INDEX IF NOT EXISTS idx_shifts_date_time ON shifts(date, start_time, end_time)",
+            "CREATE INDEX IF NOT EXISTS idx_cases_shift ON cases(scheduled_shift_id)",
+            "CREATE INDEX IF NOT EXISTS idx_assignments_case ON assignments(case_id)",
+            "CREATE INDEX IF NOT EXISTS idx_assignments_user_case ON assignments(user_id, case_id)",
+            "CREATE INDEX IF NOT EXISTS idx_presence_date ON presence(date)",
+            "CREATE INDEX IF NOT EXISTS idx_users_role ON users(role)"
+    };
+
+    /** One row per nurse per assigned case, keyed for the My Shifts lookup. */
+    public static final String[] NURSE_SCHEDULE = {
+            "CREATE TABLE IF NOT EXISTS nurse_schedule (user_id TEXT NOT NULL, date INTEGER NOT NULL, " +
+                    "start_time INTEGER NOT NULL, end_time INTEGER NOT NULL, case_id INTEGER NOT NULL, " +
+                    "description TEXT, PRIMARY KEY(user_id, date, start_time, case_id)) WITHOUT ROWID",
+            "CREATE INDEX IF NOT EXISTS idx_schedule_case_user ON nurse_schedule(case_id, user_id)"
+    };
+    public static final String NURSE_SCHEDULE_BACKFILL =
+            "INSERT OR REPLACE INTO nurse_schedule (user_id, date, start_time, end_time, case_id, description) " +
+                    "SELECT a.user_id, s.date, COALESCE(c.start_time, s.start_time), COALESCE(c.end_time, s.end_time), " +
+                    "c.case_id, c.description FROM assignments a " +
+                    "JOIN cases c ON a.case_id = c.case_id JOIN shifts s ON c.scheduled_shift_id = s.shift_id";
+    // Keep nurse_schedule in step with every writer, so no Java path can miss it
+    public static final String[] NURSE_SCHEDULE_TRIGGERS = {
+            "CREATE TRIGGER IF NOT EXISTS trg_schedule_assign AFTER INSERT ON assignments BEGIN " +
+                    "INSERT OR REPLACE INTO nurse_schedule (user_id, date, start_time, end_time, case_id, description) " +
+                    "SELECT NEW.user_id, s.date, COALESCE(c.start_time, s.start_time), COALESCE(c.end_time, s.end_time), " +
+                    "c.case_id, c.description FROM cases c JOIN shifts s ON c.scheduled_shift_id = s.shift_id " +
+                    "WHERE c.case_id = NEW.case_id; END",
+            "CREATE TRIGGER IF NOT EXISTS trg_schedule_unassign AFTER DELETE ON assignments BEGIN " +
+                    "DELETE FROM nurse_schedule WHERE case_id = OLD.case_id AND user_id = OLD.user_id; END",
+            "CREATE TRIGGER IF NOT EXISTS trg_schedule_case_update " +
+                    "AFTER UPDATE OF description, scheduled_shift_id, start_time, end_time ON cases BEGIN " +
+                    "DELETE FROM nurse_schedule WHERE case_id = OLD.case_id; " +
+                    "INSERT OR REPLACE INTO nurse_schedule (user_id, date, start_time, end_time, case_id, description) " +
+                    "SELECT a.user_id, s.date, COALESCE(c.start_time, s.start_time), COALESCE(c.end_time, s.end_time), " +
+                    "c.case_id, c.description FROM assignments a " +
+                    "JOIN cases c ON a.case_id = c.case_id JOIN shifts s ON c.scheduled_shift_id = s.shift_id " +
+                    "WHERE a.case_id = NEW.case_id; END",
+            "CREATE TRIGGER IF NOT EXISTS trg_schedule_case_delete AFTER DELETE ON cases BEGIN " +
+                    "DELETE FROM nurse_schedule WHERE case_id = OLD.case_id; END",
+            "CREATE TRIGGER IF NOT EXISTS trg_schedule_shift_update " +
+                    "AFTER UPDATE OF date, start_time, end_time ON shifts BEGIN " +
+                    "DELETE FROM nurse_schedule WHERE case_id IN " +
+                    "(SELECT case_id FROM cases WHERE scheduled_shift_id = OLD.shift_id); " +
+                    "INSERT OR REPLACE INTO nurse_schedule (user_id, date, start_time, end_time, case_id, description) " +
+                    "SELECT a.user_id, NEW.date, COALESCE(c.start_time, NEW.start_time), COALESCE(c.end_time, NEW.end_time), " +
+                    "c.case_id, c.description FROM assignments a JOIN cases c ON a.case_id = c.case_id " +
+                    "WHERE c.scheduled_shift_id = NEW.shift_id; END"
+    };
+
+    /**
+     * FTS4 index with one document per case, its docid the case_id: description, operation and the assigned
+     * nurses' display names. Android's built-in SQLite ships FTS3/4 but not FTS5. Prefix indexes on 2 and 3
+     * letters keep the short prefixes typed into the search box from walking the whole term list.
+     */
+    public static final String CASE_SEARCH = "CREATE VIRTUAL TABLE IF NOT EXISTS case_search USING fts4(" +
+            "description, operation, nurses, tokenize=unicode61, prefix='2,3')";
+    public static final String CASE_SEARCH_BACKFILL = "INSERT INTO case_search (docid, description, operation, nurses) " +
+            "SELECT c.case_id, c.description, c.operation, " + nurseNamesOf("c.case_id") + " FROM cases c";
+    public static final String[] CASE_SEARCH_TRIGGERS = {
+            "CREATE TRIGGER IF NOT EXISTS trg_search_case_insert AFTER INSERT ON cases BEGIN " +
+                    "INSERT INTO case_search (docid, description, operation, nurses) " +
+                    "VALUES (NEW.case_id, NEW.description, NEW.operation, ''); END",
+            "CREATE TRIGGER IF NOT EXISTS trg_search_case_update " +
+                    "AFTER UPDATE OF description, operation ON cases BEGIN " +
+                    "UPDATE case_search SET description = NEW.description, operation = NEW.operation " +
+                    "WHERE docid = NEW.case_id; END",
+            "CREATE TRIGGER IF NOT EXISTS trg_search_case_delete AFTER DELETE ON cases BEGIN " +
+                    "DELETE FROM case_search WHERE docid = OLD.case_id; END",
+            "CREATE TRIGGER IF NOT EXISTS trg_search_rename AFTER UPDATE OF display_name ON users BEGIN " +
+                    "UPDATE case_search SET nurses = " + nurseNamesOf("case_search.docid") + " " +
+                    "WHERE docid IN (SELECT case_id FROM assignments WHERE user_id = NEW.username); END"
+    };
+    // Each rewrites the case's whole search document for one assignment row, so the bulk writers go around them
+    public static final String[] ASSIGNMENT_SEARCH_TRIGGERS = {
+            "CREATE TRIGGER IF NOT EXISTS trg_search_assign AFTER INSERT ON assignments BEGIN " +
+                    "UPDATE case_search SET nurses = " + nurseNamesOf("NEW.case_id") + " WHERE docid = NEW.case_id; END",
+            "CREATE TRIGGER IF NOT EXISTS trg_search_unassign AFTER DELETE ON assignments BEGIN " +
+                    "UPDATE case_search SET nurses = " + nurseNamesOf("OLD.case_id") + " WHERE docid = OLD.case_id; END"
+    };
+    public static final String[] ASSIGNMENT_SEARCH_TRIGGER_NAMES = {"trg_search_assign", "trg_search_unassign"};
+    public static final String[] CASE_SEARCH_TRIGGER_NAMES = {"trg_search_case_insert", "trg_search_case_update",
+            "trg_search_case_delete", "trg_search_rename", "trg_search_assign", "trg_search_unassign"};
+
+    // Roster queries
+    public static final String DAY_SHIFTS = "SELECT shift_id, start_time, end_time FROM shifts WHERE date = ?";
+    public static final String REQUIRED_NURSES = "SELECT required_nurses FROM cases WHERE case_id = ?";
+    public static final String ROSTER_PRESENT_NURSES =
+            "SELECT p.username FROM presence p " +
+                    "JOIN users u ON p.username = u.username " +
+                    "WHERE p.date = ? AND u.role = 'nurse'";
+    public static final String ROSTER_CASES = // case times fall back to the shift times for rows created without them
+            "SELECT c.case_id, c.required_nurses, " +
+                    "COALESCE(c.start_time, s.start_time), COALESCE(c.end_time, s.end_time) " +
+                    "FROM cases c JOIN shifts s ON c.scheduled_shift_id = s.shift_id " +
+                    "WHERE s.date = ?";
+    public static final String DAY_BOOKINGS =
+            "SELECT a.case_id, a.user_id, COALESCE(c.start_time, s.start_time), COALESCE(c.end_time, s.end_time) " +
+                    "FROM assignments a " +
+                    "JOIN cases c ON a.case_id = c.case_id " +
+                    "JOIN shifts s ON c.scheduled_shift_id = s.shift_id " +
+                    "WHERE s.date = ?";
+    public static final String ROSTER_CARRYOVER = // previous day's cases that run past midnight, shifted onto this day
+            "SELECT a.user_id, c.start_time - 1440, c.end_time - 1440 FROM assignments a " +
+                    "JOIN cases c ON a.case_id = c.case_id " +
+                    "JOIN shifts s ON c.scheduled_shift_id = s.shift_id " +
+                    "WHERE s.date = ? - 1 AND c.end_time > 1440";
+    public static final String REFRESH_SEARCH_NURSES = // one document rewrite per case after a bulk roster write
+            "UPDATE case_search SET nurses = " + nurseNamesOf("case_search.docid") + " " +
+                    "WHERE docid IN (SELECT c.case_id FROM cases c " +
+                    "JOIN shifts s ON c.scheduled_shift_id = s.shift_id WHERE s.date BETWEEN ? AND ?)";
+    public static final String CLEAR_DAY_ASSIGNMENTS =
+            "DELETE FROM assignments WHERE case_id IN (SELECT c.case_id FROM cases c " +
+                    "JOIN shifts s ON c.scheduled_shift_id = s.shift_id WHERE s.date = ?)";
+    public static final String INSERT_ASSIGNMENT = "INSERT INTO assignments (case_id, user_id) VALUES (?, ?)";
+
+    private RosterSchema() {
+    }
+
+    /** Every statement that creates an empty database at {@link #VERSION}, in order. */
+    public static List<String> create() {
+        List<String> statements = new ArrayList<>(Arrays.asList(TABLES));
+        Collections.addAll(statements, ROSTER_INDEXES);
+        Collections.addAll(statements, NURSE_SCHEDULE);
+        Collections.addAll(statements, NURSE_SCHEDULE_TRIGGERS);
+        statements.add(CASE_SEARCH);
+        Collections.addAll(statements, CASE_SEARCH_TRIGGERS);
+        Collections.addAll(statements, ASSIGNMENT_SEARCH_TRIGGERS);
+        return statements;
+    }
+
+    // Assigned nurses' display names for one case, space separated, as stored in case_search.nurses
+    private static String nurseNamesOf(String caseId) {
+        return "(SELECT COALESCE(group_concat(u.display_name, ' '), '') FROM assignments a " +
+                "JOIN users u ON a.user_id = u.username WHERE a.case_id = " + caseId + ")";
+    }
+}
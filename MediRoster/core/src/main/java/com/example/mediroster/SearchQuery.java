@@ -0,0 +1,45 @@
+package com.example.mediroster;
+
+import java.util.Locale;
+
+/**
+ * Turns what the user typed into a full-text MATCH expression: every word must appear, and each may be the
+ * start of a longer word, so results narrow while the user is still typing. Words are lower-cased and
+ * stripped of punctuation, so input can never form FTS operators (AND, OR, NEAR, quotes, column filters)
+ * or a syntax error.
+ */
+public final class SearchQuery {
+
+    static final int MAX_TERMS = 8; // each term is one more doclist to intersect
+
+    private SearchQuery() {
+    }
+
+    /** The MATCH expression for {@code input}, or null if it holds no searchable word. */
+    public static String toMatch(String input) {
+        if (input == null) {
+            return null;
+        }
+        StringBuilder match = new StringBuilder();
+        int terms = 0;
+        int i = 0;
+        int length = input.length();
+        while (i < length && terms < MAX_TERMS) {
+            while (i < length && !Character.isLetterOrDigit(input.codePointAt(i))) {
+                i += Character.charCount(input.codePointAt(i));
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(input.codePointAt(i))) {
+                i += Character.charCount(input.codePointAt(i));
+            }
+            if (i > start) {
+                if (match.length() > 0) {
+                    match.append(' ');
+                }
+                match.append(input.substring(start, i).toLowerCase(Locale.ROOT)).append('*');
+                terms++;
+            }
+        }
+        return terms == 0 ? null : match.toString();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.mediroster;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Shared encoding for roster dates and times.
+ * Dates are stored as epoch days and times as minutes from midnight of the shift's date,
+ * so a time past 24:00 belongs to the next morning and every range check is an integer comparison.
+ */
+public final class TimeCodec {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private TimeCodec() {
+    }
+
+    public static int today() {
+        return (int) LocalDate.now().toEpochDay();
+    }
+
+    /** "yyyy-MM-dd" -> epoch day. */
+    public static int toEpochDay(String isoDate) {
+        return (int) LocalDate.parse(isoDate).toEpochDay();
+    }
+
+    /** Epoch day -> "yyyy-MM-dd". */
+    public static String formatDate(int epochDay) {
+        return LocalDate.ofEpochDay(epochDay).toString();
+    }
+
+    /** "HH:mm" -> minutes from midnight. */
+    public static int parseMinuteOfDay(String time) {
+        int colon = time.indexOf(':');
+        if (colon < 0) {
+            return Integer.parseInt(time.trim()) * 60;
+        }
+        return Integer.parseInt(time.substring(0, colon).trim()) * 60 + Integer.parseInt(time.substring(colon + 1).trim());
+    }
+
+    /** Minutes from midnight -> "HH:mm", with "+1" when the time falls on the next day. */
+    public static String formatMinuteOfDay(int minute) {
+        int dayOffset = Math.floorDiv(minute, MINUTES_PER_DAY);
+        int wrapped = Math.floorMod(minute, MINUTES_PER_DAY);
+        String time = String.format(Locale.US, "%02d:%02d", wrapped / 60, wrapped % 60);
+        return dayOffset == 0 ? time : time + (dayOffset > 0 ? "+" : "") + dayOffset;
+    }
+
+    public static long toEpochMinute(int epochDay, int minute) {
+        return (long) epochDay * MINUTES_PER_DAY + minute;
+    }
+
+    /** Half-open ranges [start, end) overlap when each starts before the other ends. */
+    public static boolean overlaps(int start, int end, int otherStart, int otherEnd) {
+        return start < otherEnd && otherStart < end;
+    }
+
+    public static boolean isWithin(int start, int end, int outerStart, int outerEnd) {
+        return start >= outerStart && end <= outerEnd;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.mediroster;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+public class CsvReaderTest {
+
+    @Test
+    public void readRecord_splitsPlainFieldsAndSkipsBlankLines() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("date,start_time\r\n2026-03-02,07:00\r\n\r\n2026-03-03,19:00"));
+
+        assertArrayEquals(new String[]{"date", "start_time"}, csv.readRecord());
+        assertArrayEquals(new String[]{"2026-03-02", "07:00"}, csv.readRecord());
+        assertEquals(2, csv.getLineNumber());
+        assertArrayEquals(new String[]{"2026-03-03", "19:00"}, csv.readRecord());
+        assertEquals(4, csv.getLineNumber());
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    public void readRecord_handlesQuotesCommasAndLineBreaks() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader(
+                "\uFEFFdescription,operation\n\"Knee, left\",\"Said \"\"urgent\"\"\"\n\"two\nlines\",\n"));
+
+        assertArrayEquals(new String[]{"description", "operation"}, csv.readRecord());
+        assertArrayEquals(new String[]{"Knee, left", "Said \"urgent\""}, csv.readRecord());
+        assertArrayEquals(new String[]{"two\nlines", ""}, csv.readRecord());
+        assertEquals(3, csv.getLineNumber());
+        assertNull(csv.readRecord());
+    }
+
+    @Test(expected = IOException.class)
+    public void readRecord_unterminatedQuoteFails() throws IOException {
+        new CsvReader(new StringReader("\"never closed,1\n")).readRecord();
+    }
+}
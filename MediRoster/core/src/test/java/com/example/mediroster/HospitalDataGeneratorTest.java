@@ -0,0 +1,150 @@
+package com.example.mediroster;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class HospitalDataGeneratorTest {
+
+    private static final int DAY = TimeCodec.toEpochDay("2026-02-01");
+
+    @Test
+    public void demo_matchesTheOriginalSeedData() {
+        RecordingSink sink = new RecordingSink();
+        long rows = new HospitalDataGenerator(HospitalDataGenerator.Config.demo()).generate(sink);
+
+        assertEquals(40, rows);
+        assertEquals(30, sink.users.size());
+        assertEquals("admin1:admin:Admin 1", sink.users.get(0));
+        assertEquals("nurse1:nurse:Alex", sink.users.get(5));
+        assertEquals("nurse25:nurse:Kendall", sink.users.get(29));
+        assertEquals(10, sink.operations.size());
+        assertEquals(0, sink.shifts);
+    }
+
+    @Test
+    public void month_coversEveryDayWithUnitsCasesAndPresence() {
+        HospitalDataGenerator.Config config = new HospitalDataGenerator.Config()
+                .nurses(60).units(3).casesPerUnitPerDay(2).months(1).startDay(DAY).absenteeRate(0);
+        RecordingSink sink = new RecordingSink();
+        new HospitalDataGenerator(config).generate(sink);
+
+        assertEquals(28, sink.shifts); // February 2026
+        assertEquals(28 * 3 * 2, sink.caseDays.size());
+        assertEquals(28 * 60, sink.presence);
+        assertEquals("nurse26:nurse:Alex 2", sink.users.get(5 + 25));
+    }
+
+    @Test
+    public void caseMix_zeroWeightIsNeverPicked() {
+        HospitalDataGenerator.Config config = new HospitalDataGenerator.Config()
+                .units(5).months(1).startDay(DAY).assign(false);
+        for (String operation : HospitalDataGenerator.OPERATIONS) {
+            config.caseWeight(operation, 0);
+        }
+        config.caseWeight("Hernia Repair", 3).caseWeight("Tonsillectomy", 1);
+        RecordingSink sink = new RecordingSink();
+        new HospitalDataGenerator(config).generate(sink);
+
+        assertEquals(10, sink.operations.size()); // still seeded, just not scheduled
+        assertEquals(new HashSet<>(Arrays.asList("Hernia Repair", "Tonsillectomy")),
+                new HashSet<>(sink.caseOperations));
+        assertEquals(0, sink.assignmentCases.size());
+    }
+
+    @Test
+    public void assignments_respectRequiredCountsAndPresence() {
+        HospitalDataGenerator.Config config = new HospitalDataGenerator.Config()
+                .nurses(40).units(4).months(1).startDay(DAY).absenteeRate(0.25).seed(7);
+        RecordingSink sink = new RecordingSink();
+        new HospitalDataGenerator(config).generate(sink);
+
+        Map<Long, Integer> perCase = new HashMap<>();
+        for (long caseId : sink.assignmentCases) {
+            perCase.merge(caseId, 1, Integer::sum);
+        }
+        for (Map.Entry<Long, Integer> entry : perCase.entrySet()) {
+            assertTrue(entry.getValue() <= sink.caseRequired.get(entry.getKey()));
+        }
+        for (int i = 0; i < sink.assignmentCases.size(); i++) {
+            long caseId = sink.assignmentCases.get(i);
+            String nurse = sink.assignmentNurses.get(i);
+            assertTrue(sink.presentOn.contains(nurse + "@" + sink.caseDays.get(caseId)));
+        }
+        assertFalse(sink.assignmentCases.isEmpty());
+    }
+
+    @Test
+    public void sameSeed_sameRows() {
+        HospitalDataGenerator.Config config = new HospitalDataGenerator.Config().units(2).months(1).startDay(DAY);
+        RecordingSink first = new RecordingSink();
+        RecordingSink second = new RecordingSink();
+        new HospitalDataGenerator(config).generate(first);
+        new HospitalDataGenerator(config).generate(second);
+
+        assertEquals(first.caseOperations, second.caseOperations);
+        assertEquals(first.assignmentNurses, second.assignmentNurses);
+    }
+
+    private static class RecordingSink implements HospitalDataGenerator.Sink {
+        final List<String> users = new ArrayList<>();
+        final List<String> operations = new ArrayList<>();
+        final List<String> caseOperations = new ArrayList<>();
+        final Map<Long, Integer> caseRequired = new HashMap<>();
+        final Map<Long, Integer> caseDays = new HashMap<>();
+        final Map<Long, Integer> shiftDays = new HashMap<>();
+        final Set<String> presentOn = new HashSet<>();
+        final List<Long> assignmentCases = new ArrayList<>();
+        final List<String> assignmentNurses = new ArrayList<>();
+        int shifts;
+        int presence;
+        long nextId = 1;
+
+        @Override
+        public void user(String username, String password, String role, String displayName) {
+            users.add(username + ":" + role + ":" + displayName);
+        }
+
+        @Override
+        public void operation(String name) {
+            operations.add(name);
+        }
+
+        @Override
+        public long shift(int day, int startMinute, int endMinute) {
+            shifts++;
+            shiftDays.put(nextId, day);
+            return nextId++;
+        }
+
+        @Override
+        public long addCase(String description, int requiredNurses, long shiftId, String operation,
+                            int startMinute, int endMinute) {
+            assertTrue(startMinute < endMinute);
+            caseOperations.add(operation);
+            caseRequired.put(nextId, requiredNurses);
+            caseDays.put(nextId, shiftDays.get(shiftId));
+            return nextId++;
+        }
+
+        @Override
+        public void presence(String username, int day) {
+            presence++;
+            presentOn.add(username + "@" + day);
+        }
+
+        @Override
+        public void assignment(long caseId, String username) {
+            assignmentCases.add(caseId);
+            assignmentNurses.add(username);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.mediroster;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.Assert.*;
+
+public class ICalendarWriterTest {
+
+    private static final Instant STAMP = Instant.parse("2026-03-01T12:00:00Z");
+
+    @Test
+    public void writeEvent_floatingTimesAndOvernightEnd() throws IOException {
+        StringWriter out = new StringWriter();
+        ICalendarWriter calendar = new ICalendarWriter(out, "MediRoster - Alex", STAMP);
+        calendar.writeEvent("7-nurse1@mediroster", TimeCodec.toEpochDay("2026-03-02"), 22 * 60, 25 * 60,
+                "Hernia Repair; night", null);
+        calendar.finish();
+
+        String ics = out.toString();
+        assertTrue(ics.startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n"));
+        assertTrue(ics.contains("DTSTAMP:20260301T120000Z\r\n"));
+        assertTrue(ics.contains("DTSTART:20260302T220000\r\nDTEND:20260303T010000\r\n"));
+        assertTrue(ics.contains("SUMMARY:Hernia Repair\\; night\r\n"));
+        assertFalse(ics.contains("DESCRIPTION"));
+        assertTrue(ics.endsWith("END:VEVENT\r\nEND:VCALENDAR\r\n"));
+    }
+
+    @Test
+    public void longLines_foldAt75Octets() throws IOException {
+        StringWriter out = new StringWriter();
+        ICalendarWriter calendar = new ICalendarWriter(out, "Ward", STAMP);
+        StringBuilder summary = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            summary.append("é"); // two octets each
+        }
+        summary.append("x".repeat(100));
+        calendar.writeEvent("1-nurse1@mediroster", 0, 60, 120, summary.toString(), null);
+
+        for (String line : out.toString().split("\r\n")) {
+            assertTrue(line, line.getBytes(StandardCharsets.UTF_8).length <= 75);
+        }
+        assertTrue(out.toString().replace("\r\n ", "").contains("SUMMARY:" + summary + "\r\n"));
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.mediroster;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+public class IncrementalSchedulerTest {
+
+    @Test
+    public void nurseAbsent_onlyTheirCasesAreRefilled() {
+        RosterScheduler roster = day("nurse1", "nurse2", "nurse3");
+        roster.addCase(1, 8 * 60, 10 * 60, 1);
+        roster.addCase(2, 12 * 60, 14 * 60, 1);
+        roster.addAssignment(1, "nurse1");
+        roster.addAssignment(2, "nurse2");
+
+        RosterDelta delta = new IncrementalScheduler(roster).apply(RosterChange.nurseAbsent("nurse1"));
+
+        assertEquals(Collections.singletonMap(1, Arrays.asList("nurse1")), delta.getRemoved());
+        assertEquals(Collections.singletonMap(1, Arrays.asList("nurse3")), delta.getAdded());
+        assertEquals(Arrays.asList("nurse2"), roster.getAssignedNurses(2));
+        assertTrue(roster.getAvailability().isNurseFree("nurse1", 8 * 60, 10 * 60));
+    }
+
+    @Test
+    public void nursePresent_fillsShortCasesOnly() {
+        RosterScheduler roster = day("nurse1");
+        roster.addCase(1, 8 * 60, 10 * 60, 1);
+        roster.addCase(2, 8 * 60, 10 * 60, 1);
+        roster.addAssignment(1, "nurse1");
+
+        RosterDelta delta = new IncrementalScheduler(roster).apply(RosterChange.nursePresent("nurse2"));
+
+        assertEquals(Collections.singletonMap(2, Arrays.asList("nurse2")), delta.getAdded());
+        assertTrue(delta.getRemoved().isEmpty());
+    }
+
+    @Test
+    public void requiredLowered_freedNurseMovesToOverlappingShortCase() {
+        RosterScheduler roster = day("nurse1", "nurse2");
+        roster.addCase(1, 8 * 60, 10 * 60, 2);
+        roster.addCase(2, 9 * 60, 11 * 60, 1);
+        roster.addAssignment(1, "nurse1");
+        roster.addAssignment(1, "nurse2");
+
+        RosterDelta delta = new IncrementalScheduler(roster).apply(RosterChange.requiredChanged(1, 1));
+
+        assertEquals(Collections.singletonMap(1, Arrays.asList("nurse2")), delta.getRemoved());
+        assertEquals(Collections.singletonMap(2, Arrays.asList("nurse2")), delta.getAdded());
+    }
+
+    @Test
+    public void requiredRaised_fillsTheCase() {
+        RosterScheduler roster = day("nurse1", "nurse2");
+        roster.addCase(1, 8 * 60, 10 * 60, 1);
+        roster.addAssignment(1, "nurse1");
+
+        RosterDelta delta = new IncrementalScheduler(roster).apply(RosterChange.requiredChanged(1, 2));
+
+        assertEquals(Collections.singletonMap(1, Arrays.asList("nurse2")), delta.getAdded());
+    }
+
+    @Test
+    public void caseDeleted_freesNursesForShortCases() {
+        RosterScheduler roster = day("nurse1");
+        roster.addCase(1, 8 * 60, 10 * 60, 1);
+        roster.addCase(2, 9 * 60, 10 * 60, 1);
+        roster.addAssignment(1, "nurse1");
+
+        RosterDelta delta = new IncrementalScheduler(roster).apply(RosterChange.caseDeleted(1));
+
+        assertEquals(Collections.singletonMap(1, Arrays.asList("nurse1")), delta.getRemoved());
+        assertEquals(Collections.singletonMap(2, Arrays.asList("nurse1")), delta.getAdded());
+        assertFalse(roster.hasCase(1));
+    }
+
+    @Test
+    public void caseEdited_keptNurseCancelsOut() {
+        RosterScheduler roster = day("nurse1", "nurse2");
+        roster.addCase(1, 8 * 60, 10 * 60, 1);
+        roster.addAssignment(1, "nurse1");
+        roster.addBooking("nurse2", 0, 12 * 60); // busy all morning, so nurse1 stays the only fit
+
+        RosterDelta delta = new IncrementalScheduler(roster).apply(RosterChange.caseEdited(1, 9 * 60, 11 * 60, 1));
+
+        assertTrue(delta.toString(), delta.isEmpty());
+        assertArrayEquals(new int[]{9 * 60, 11 * 60}, roster.getCaseTimes(1));
+    }
+
+    @Test
+    public void caseEdited_booksTheKeptNurseAtTheNewTimes() {
+        RosterScheduler roster = day("nurse1");
+        roster.addCase(1, 8 * 60, 10 * 60, 1);
+        roster.addAssignment(1, "nurse1");
+
+        new IncrementalScheduler(roster).apply(RosterChange.caseEdited(1, 13 * 60, 15 * 60, 1));
+
+        AvailabilityIndex availability = roster.getAvailability();
+        assertEquals(Collections.singletonList("nurse1"), availability.getNursesOnCase(1));
+        assertTrue(availability.isNurseFree("nurse1", 8 * 60, 10 * 60));
+        assertFalse(availability.isNurseFree("nurse1", 13 * 60, 15 * 60));
+    }
+
+    @Test
+    public void presenceChange_appliedInOneDelta() {
+        RosterScheduler roster = day("nurse2", "nurse3");
+        roster.addCase(1, 8 * 60, 10 * 60, 2);
+        roster.addCase(2, 8 * 60, 10 * 60, 1);
+        roster.addAssignment(1, "nurse1"); // stored before nurse1 was checked out
+        roster.addAssignment(1, "nurse2");
+
+        PresenceChange change = PresenceChange.between(new HashSet<>(Arrays.asList("nurse1", "nurse2")),
+                Arrays.asList("nurse2", "nurse3"));
+        RosterDelta delta = new IncrementalScheduler(roster).applyAll(change.toRosterChanges());
+
+        assertEquals(Collections.singletonMap(1, Arrays.asList("nurse1")), delta.getRemoved());
+        assertEquals(Collections.singletonMap(1, Arrays.asList("nurse3")), delta.getAdded());
+        assertEquals(2, delta.size());
+        assertEquals(Collections.singletonList(2), roster.getShortCases(0, 24 * 60)); // nobody left for case 2
+    }
+
+    private static RosterScheduler day(String... nurses) {
+        RosterScheduler roster = new RosterScheduler();
+        for (String nurse : nurses) {
+            roster.addPresentNurse(nurse);
+        }
+        return roster;
+    }
+}
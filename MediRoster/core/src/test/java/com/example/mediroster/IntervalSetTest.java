@@ -0,0 +1,70 @@
+package com.example.mediroster;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class IntervalSetTest {
+
+    @Test
+    public void overlaps_touchingRangesDoNotOverlap() {
+        IntervalSet set = new IntervalSet();
+        set.add(480, 600);
+
+        assertFalse(set.overlaps(600, 720));
+        assertFalse(set.overlaps(360, 480));
+        assertTrue(set.overlaps(590, 610));
+    }
+
+    @Test
+    public void add_mergesOverlappingAndTouchingRanges() {
+        IntervalSet set = new IntervalSet();
+        set.add(480, 600);
+        set.add(600, 720);
+        set.add(540, 660);
+
+        assertEquals(240, set.getTotalMinutes());
+        assertEquals(2, set.freeSlots(0, 1440).size()); // before 08:00 and after 12:00
+    }
+
+    @Test
+    public void remove_splitsRange() {
+        IntervalSet set = new IntervalSet();
+        set.add(480, 720);
+        set.remove(540, 600);
+
+        assertEquals(180, set.getTotalMinutes());
+        assertFalse(set.overlaps(540, 600));
+        assertTrue(set.overlaps(500, 541));
+        assertTrue(set.overlaps(599, 700));
+    }
+
+    @Test
+    public void remove_acrossSeveralRanges() {
+        IntervalSet set = new IntervalSet();
+        set.add(0, 60);
+        set.add(120, 180);
+        set.add(240, 300);
+        set.remove(30, 270);
+
+        assertEquals(60, set.getTotalMinutes());
+        assertTrue(set.overlaps(0, 30));
+        assertTrue(set.overlaps(270, 300));
+        assertFalse(set.overlaps(30, 270));
+    }
+
+    @Test
+    public void freeSlots_listsGapsInsideWindow() {
+        IntervalSet set = new IntervalSet();
+        set.add(360, 480);
+        set.add(600, 720);
+
+        List<int[]> free = set.freeSlots(420, 1080);
+
+        assertEquals(2, free.size());
+        assertArrayEquals(new int[]{480, 600}, free.get(0));
+        assertArrayEquals(new int[]{720, 1080}, free.get(1));
+    }
+}
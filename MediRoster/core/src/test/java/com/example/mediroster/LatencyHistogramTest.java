@@ -0,0 +1,45 @@
+package com.example.mediroster;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void percentiles_comeFromBucketEdges() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(3_000); // 3 us, bucket [2, 4) us
+        }
+        histogram.record(5_000_000); // one 5 ms outlier
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(4_000, histogram.getPercentileNanos(50));
+        assertEquals(4_000, histogram.getPercentileNanos(99));
+        assertEquals(5_000_000, histogram.getPercentileNanos(100)); // capped at the slowest call
+        assertEquals(5_000_000, histogram.getMaxNanos());
+        assertEquals((99 * 3_000 + 5_000_000) / 100, histogram.getMeanNanos());
+    }
+
+    @Test
+    public void subMicrosecondAndHugeCalls_landInTheEndBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(200);
+        histogram.record(Long.MAX_VALUE / 2);
+
+        assertEquals(2_000, histogram.getPercentileNanos(50)); // upper edge of the first bucket
+        assertEquals(Long.MAX_VALUE / 2, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    public void empty_readsAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000);
+        histogram.clear();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentileNanos(99));
+        assertEquals(0, histogram.getMeanNanos());
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.mediroster;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class PresenceChangeTest {
+
+    @Test
+    public void between_onlyReportsDifferences() {
+        Set<String> stored = new HashSet<>(Arrays.asList("amy", "ben", "cat"));
+        PresenceChange change = PresenceChange.between(stored, Arrays.asList("amy", "cat", "dan"));
+
+        assertEquals(Collections.singletonList("dan"), change.checkedIn);
+        assertEquals(Collections.singletonList("ben"), change.checkedOut);
+        assertEquals(2, change.size());
+    }
+
+    @Test
+    public void between_sameSetIsEmpty() {
+        Set<String> stored = new HashSet<>(Arrays.asList("amy", "ben"));
+        assertTrue(PresenceChange.between(stored, Arrays.asList("ben", "amy", "ben")).isEmpty());
+    }
+
+    @Test
+    public void between_emptyStoredChecksEveryoneIn() {
+        PresenceChange change = PresenceChange.between(Collections.emptySet(), Arrays.asList("amy", "ben"));
+        assertEquals(Arrays.asList("amy", "ben"), change.checkedIn);
+        assertTrue(change.checkedOut.isEmpty());
+    }
+}
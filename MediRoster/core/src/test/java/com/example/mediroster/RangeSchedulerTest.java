@@ -0,0 +1,78 @@
+package com.example.mediroster;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class RangeSchedulerTest {
+
+    private static final int DAY = TimeCodec.toEpochDay("2026-03-01");
+
+    @Test
+    public void month_matchesSolvingDayByDay() {
+        Random random = new Random(3);
+        List<RangeScheduler.Day> days = new ArrayList<>();
+        for (int offset = 0; offset < 31; offset++) {
+            RangeScheduler.Day day = new RangeScheduler.Day(DAY + offset);
+            for (int nurse = 1; nurse <= 20; nurse++) {
+                if (random.nextInt(10) != 0) {
+                    day.addPresentNurse("nurse" + nurse);
+                }
+            }
+            for (int i = 0; i < 12; i++) {
+                int start = 6 * 60 + random.nextInt(40) * 15;
+                day.addCase(offset * 100 + i, start, start + 120, 1 + random.nextInt(3));
+            }
+            days.add(day);
+        }
+
+        List<Map<Integer, List<String>>> solved = new RangeScheduler(new ForkJoinPool(4)).solve(days);
+
+        assertEquals(31, solved.size());
+        for (int i = 0; i < days.size(); i++) {
+            assertEquals(RangeScheduler.solveDay(days.get(i), Collections.emptyList()), solved.get(i));
+        }
+    }
+
+    @Test
+    public void overnightCase_keepsItsNurseOffTheNextMorning() {
+        RangeScheduler.Day first = new RangeScheduler.Day(DAY);
+        first.addPresentNurse("nurse1");
+        first.addCase(1, 22 * 60, 2 * 60, 1); // runs to 02:00
+        RangeScheduler.Day second = new RangeScheduler.Day(DAY + 1);
+        second.addPresentNurse("nurse1");
+        second.addPresentNurse("nurse2");
+        second.addCase(2, 60, 3 * 60, 1);
+
+        List<Map<Integer, List<String>>> solved = new RangeScheduler().solve(Arrays.asList(first, second));
+
+        assertEquals(Arrays.asList("nurse1"), solved.get(0).get(1));
+        assertEquals(Arrays.asList("nurse2"), solved.get(1).get(2));
+    }
+
+    @Test
+    public void firstDay_honoursStoredCarryover() {
+        RangeScheduler.Day day = new RangeScheduler.Day(DAY);
+        day.addPresentNurse("nurse1");
+        day.addPresentNurse("nurse2");
+        day.addCarryover("nurse1", -60, 2 * 60);
+        day.addCase(1, 60, 3 * 60, 2);
+
+        List<Map<Integer, List<String>>> solved = new RangeScheduler().solve(Collections.singletonList(day));
+
+        assertEquals(Arrays.asList("nurse2"), solved.get(0).get(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void gapInRange_isRejected() {
+        new RangeScheduler().solve(Arrays.asList(new RangeScheduler.Day(DAY), new RangeScheduler.Day(DAY + 2)));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.mediroster;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+public class RosterCsvWriterTest {
+
+    @Test
+    public void writeRow_quotesOnlyWhatNeedsIt() throws IOException {
+        StringWriter out = new StringWriter();
+        RosterCsvWriter csv = new RosterCsvWriter(out);
+        csv.writeRow(TimeCodec.toEpochDay("2026-03-02"), 8 * 60, 10 * 60 + 30, "nurse1", "Alex", 7,
+                "Knee Replacement", "Left knee, \"revision\"");
+
+        assertEquals(RosterCsvWriter.HEADER + "\r\n" +
+                "2026-03-02,08:00,10:30,150,nurse1,Alex,7,Knee Replacement,\"Left knee, \"\"revision\"\"\"\r\n",
+                out.toString());
+    }
+
+    @Test
+    public void writeRow_overnightEndReadsBackThroughCsvReader() throws IOException {
+        StringWriter out = new StringWriter();
+        new RosterCsvWriter(out).writeRow(TimeCodec.toEpochDay("2026-03-02"), 22 * 60, 25 * 60, "nurse2", "Jordan",
+                9, "Hernia Repair", "Night list");
+
+        CsvReader reader = new CsvReader(new StringReader(out.toString()));
+        reader.readRecord();
+        String[] row = reader.readRecord();
+        assertEquals("22:00", row[1]);
+        assertEquals("01:00", row[2]); // not after the start, so next morning
+        assertEquals("180", row[3]);
+    }
+}
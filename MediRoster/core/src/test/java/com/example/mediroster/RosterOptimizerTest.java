@@ -0,0 +1,110 @@
+package com.example.mediroster;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class RosterOptimizerTest {
+
+    private static final long NO_BUDGET_LIMIT = Long.MAX_VALUE;
+
+    @Test
+    public void busyDay_spreadsLoadWithoutLosingCoverage() {
+        RangeScheduler.Day day = busyDay(new Random(5));
+
+        RosterOptimizer.Result result = new RosterOptimizer(3).optimize(day, NO_BUDGET_LIMIT, 20_000);
+
+        assertTrue(result.toString(), result.score < result.greedyScore);
+        int greedyShort = shortNurses(day, RangeScheduler.solveDay(day, Collections.emptyList()));
+        assertTrue(result.shortNurses <= greedyShort);
+        assertEquals(result.shortNurses, shortNurses(day, result.assignments));
+        assertValid(day, result.assignments);
+    }
+
+    @Test
+    public void sameSeed_sameRoster() {
+        RangeScheduler.Day day = busyDay(new Random(9));
+
+        RosterOptimizer.Result first = new RosterOptimizer(4).optimize(day, NO_BUDGET_LIMIT, 5_000);
+        RosterOptimizer.Result second = new RosterOptimizer(4).optimize(day, NO_BUDGET_LIMIT, 5_000);
+
+        assertEquals(first.assignments, second.assignments);
+        assertEquals(first.score, second.score);
+    }
+
+    @Test
+    public void budget_stopsTheSearch() {
+        RangeScheduler.Day day = busyDay(new Random(1));
+        long started = System.nanoTime();
+
+        RosterOptimizer.Result result = new RosterOptimizer().optimize(day, 50_000_000L);
+
+        assertTrue(System.nanoTime() - started < 1_000_000_000L);
+        assertTrue(result.score <= result.greedyScore);
+        assertValid(day, result.assignments);
+    }
+
+    @Test
+    public void carryover_isNeverDoubleBooked() {
+        RangeScheduler.Day day = new RangeScheduler.Day(0);
+        day.addPresentNurse("nurse1");
+        day.addPresentNurse("nurse2");
+        day.addCarryover("nurse1", 0, 9 * 60);
+        day.addCase(1, 8 * 60, 10 * 60, 1);
+        day.addCase(2, 10 * 60, 16 * 60, 1);
+
+        RosterOptimizer.Result result = new RosterOptimizer().optimize(day, NO_BUDGET_LIMIT, 1_000);
+
+        assertEquals("nurse2", result.assignments.get(1).get(0));
+        assertEquals(0, result.shortNurses);
+    }
+
+    private static RangeScheduler.Day busyDay(Random random) {
+        RangeScheduler.Day day = new RangeScheduler.Day(0);
+        for (int nurse = 1; nurse <= 20; nurse++) {
+            day.addPresentNurse("nurse" + nurse);
+        }
+        for (int i = 1; i <= 40; i++) {
+            int start = 6 * 60 + random.nextInt(40) * 15;
+            day.addCase(i, start, start + (1 + random.nextInt(5)) * 60, 1 + random.nextInt(3));
+        }
+        return day;
+    }
+
+    private static int shortNurses(RangeScheduler.Day day, Map<Integer, List<String>> assignments) {
+        int missing = 0;
+        for (int[] slot : day.cases) {
+            List<String> nurses = assignments.get(slot[0]);
+            missing += slot[3] - (nurses == null ? 0 : nurses.size());
+        }
+        return missing;
+    }
+
+    private static void assertValid(RangeScheduler.Day day, Map<Integer, List<String>> assignments) {
+        Map<Integer, int[]> cases = new HashMap<>();
+        for (int[] slot : day.cases) {
+            cases.put(slot[0], slot);
+        }
+        Map<String, IntervalSet> booked = new HashMap<>();
+        for (Map.Entry<Integer, List<String>> entry : assignments.entrySet()) {
+            int[] slot = cases.get(entry.getKey());
+            Set<String> unique = new HashSet<>(entry.getValue());
+            assertEquals(entry.getValue().size(), unique.size());
+            assertTrue(entry.getValue().size() <= slot[3]);
+            for (String nurse : entry.getValue()) {
+                assertTrue(day.nurses.contains(nurse));
+                IntervalSet bookings = booked.computeIfAbsent(nurse, n -> new IntervalSet());
+                assertFalse(nurse + " double-booked", bookings.overlaps(slot[1], slot[2]));
+                bookings.add(slot[1], slot[2]);
+            }
+        }
+    }
+}
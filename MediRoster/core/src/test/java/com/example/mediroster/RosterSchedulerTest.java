@@ -0,0 +1,76 @@
+package com.example.mediroster;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class RosterSchedulerTest {
+
+    @Test
+    public void fillCase_assignsUpToRequiredNurses() {
+        RosterScheduler scheduler = new RosterScheduler();
+        scheduler.addPresentNurse("nurse1");
+        scheduler.addPresentNurse("nurse2");
+        scheduler.addPresentNurse("nurse3");
+        scheduler.addCase(1, 8 * 60, 10 * 60, 2);
+
+        List<String> added = scheduler.fillCase(1);
+
+        assertEquals(2, added.size());
+        assertEquals(added, scheduler.getAssignedNurses(1));
+    }
+
+    @Test
+    public void fillCase_skipsNursesBookedOnOverlappingCase() {
+        RosterScheduler scheduler = new RosterScheduler();
+        scheduler.addPresentNurse("nurse1");
+        scheduler.addPresentNurse("nurse2");
+        scheduler.addCase(1, 8 * 60, 10 * 60, 1);
+        scheduler.addCase(2, 9 * 60, 11 * 60, 2);
+        scheduler.addAssignment(1, "nurse1");
+
+        assertEquals(Arrays.asList("nurse2"), scheduler.fillCase(2));
+    }
+
+    @Test
+    public void fillCase_backToBackCasesDoNotOverlap() {
+        RosterScheduler scheduler = new RosterScheduler();
+        scheduler.addPresentNurse("nurse1");
+        scheduler.addCase(1, 8 * 60, 10 * 60, 1);
+        scheduler.addCase(2, 10 * 60, 12 * 60, 1);
+
+        Map<Integer, List<String>> result = scheduler.fillAllCases();
+
+        assertEquals(Arrays.asList("nurse1"), result.get(1));
+        assertEquals(Arrays.asList("nurse1"), result.get(2));
+    }
+
+    @Test
+    public void fillAllCases_prefersLeastBookedNurse() {
+        RosterScheduler scheduler = new RosterScheduler();
+        scheduler.addPresentNurse("nurse1");
+        scheduler.addPresentNurse("nurse2");
+        scheduler.addCase(1, 6 * 60, 8 * 60, 1);
+        scheduler.addCase(2, 9 * 60, 11 * 60, 1);
+
+        Map<Integer, List<String>> result = scheduler.fillAllCases();
+
+        assertNotEquals(result.get(1), result.get(2));
+    }
+
+    @Test
+    public void addCase_endBeforeStartRunsPastMidnight() {
+        RosterScheduler scheduler = new RosterScheduler();
+        scheduler.addPresentNurse("nurse1");
+        scheduler.addCase(1, 22 * 60, 2 * 60, 1);
+        scheduler.addCase(2, 23 * 60, 24 * 60, 1);
+
+        scheduler.fillCase(1);
+
+        assertTrue(scheduler.fillCase(2).isEmpty());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.mediroster;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class RosterSchemaTest {
+
+    private static final Pattern CREATED = Pattern.compile("CREATE (?:INDEX|TRIGGER) IF NOT EXISTS (\\w+) ");
+
+    @Test
+    public void indexNames_matchTheIndexes() {
+        assertArrayEquals(RosterSchema.ROSTER_INDEX_NAMES, namesOf(RosterSchema.ROSTER_INDEXES));
+    }
+
+    @Test
+    public void triggerNames_coverEverySearchTrigger() {
+        assertArrayEquals(RosterSchema.ASSIGNMENT_SEARCH_TRIGGER_NAMES, namesOf(RosterSchema.ASSIGNMENT_SEARCH_TRIGGERS));
+        List<String> all = new ArrayList<>(Arrays.asList(namesOf(RosterSchema.CASE_SEARCH_TRIGGERS)));
+        all.addAll(Arrays.asList(RosterSchema.ASSIGNMENT_SEARCH_TRIGGER_NAMES));
+        assertEquals(all.size(), RosterSchema.CASE_SEARCH_TRIGGER_NAMES.length);
+        assertTrue(all.containsAll(Arrays.asList(RosterSchema.CASE_SEARCH_TRIGGER_NAMES)));
+    }
+
+    @Test
+    public void create_endsWithTheAssignmentSearchTriggers() {
+        List<String> statements = RosterSchema.create();
+        assertTrue(statements.containsAll(Arrays.asList(RosterSchema.ROSTER_INDEXES)));
+        assertTrue(statements.contains(RosterSchema.CASE_SEARCH));
+        assertEquals(RosterSchema.ASSIGNMENT_SEARCH_TRIGGERS[1], statements.get(statements.size() - 1));
+    }
+
+    private static String[] namesOf(String[] statements) {
+        String[] names = new String[statements.length];
+        for (int i = 0; i < statements.length; i++) {
+            Matcher matcher = CREATED.matcher(statements[i]);
+            assertTrue(statements[i], matcher.find());
+            names[i] = matcher.group(1);
+        }
+        return names;
+    }
+}
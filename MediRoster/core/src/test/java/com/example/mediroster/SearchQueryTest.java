@@ -0,0 +1,31 @@
+package com.example.mediroster;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SearchQueryTest {
+
+    @Test
+    public void words_becomeLowerCasePrefixTerms() {
+        assertEquals("knee* repl*", SearchQuery.toMatch("  Knee, REPL"));
+    }
+
+    @Test
+    public void operatorsAndQuotes_areOnlyWords() {
+        assertEquals("hip* or* description* x*", SearchQuery.toMatch("\"hip\" OR description:x -"));
+        assertEquals("josé* o* brien*", SearchQuery.toMatch("José O'Brien"));
+    }
+
+    @Test
+    public void noWords_noQuery() {
+        assertNull(SearchQuery.toMatch(null));
+        assertNull(SearchQuery.toMatch(" *\"()- "));
+    }
+
+    @Test
+    public void termCount_isCapped() {
+        String match = SearchQuery.toMatch("a b c d e f g h i j");
+        assertEquals(SearchQuery.MAX_TERMS, match.split(" ").length);
+    }
+}
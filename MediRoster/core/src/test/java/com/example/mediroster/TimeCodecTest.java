@@ -0,0 +1,40 @@
+package com.example.mediroster;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TimeCodecTest {
+
+    @Test
+    public void epochDay_roundTrips() {
+        int day = TimeCodec.toEpochDay("2026-01-15");
+        assertEquals(20468, day);
+        assertEquals("2026-01-15", TimeCodec.formatDate(day));
+    }
+
+    @Test
+    public void minuteOfDay_roundTrips() {
+        assertEquals(6 * 60 + 30, TimeCodec.parseMinuteOfDay("06:30"));
+        assertEquals("06:30", TimeCodec.formatMinuteOfDay(6 * 60 + 30));
+    }
+
+    @Test
+    public void formatMinuteOfDay_marksNextDay() {
+        assertEquals("02:00+1", TimeCodec.formatMinuteOfDay(26 * 60));
+    }
+
+    @Test
+    public void crossMidnightCaseFitsOvernightShift() {
+        int shiftStart = 18 * 60;
+        int shiftEnd = 30 * 60; // 06:00 next day
+        assertTrue(TimeCodec.isWithin(22 * 60, 26 * 60, shiftStart, shiftEnd));
+        assertFalse(TimeCodec.isWithin(22 * 60, 31 * 60, shiftStart, shiftEnd));
+    }
+
+    @Test
+    public void overlaps_isHalfOpen() {
+        assertFalse(TimeCodec.overlaps(8 * 60, 10 * 60, 10 * 60, 12 * 60));
+        assertTrue(TimeCodec.overlaps(8 * 60, 10 * 60, 9 * 60, 12 * 60));
+    }
+}
@@ -21,3 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "MediRoster"
 include(":app")
+include(":core")
+include(":benchmark")